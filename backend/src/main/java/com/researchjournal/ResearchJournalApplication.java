@@ -2,8 +2,10 @@ package com.researchjournal;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ResearchJournalApplication {
     public static void main(String[] args) {
         SpringApplication.run(ResearchJournalApplication.class, args);
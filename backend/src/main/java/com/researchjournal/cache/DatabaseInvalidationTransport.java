@@ -0,0 +1,124 @@
+package com.researchjournal.cache;
+
+import com.researchjournal.entity.CacheInvalidation;
+import com.researchjournal.repository.CacheInvalidationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Outbox table polled by every replica; needs nothing beyond the database we already have.
+// The row is written in the same transaction as the change, so a rolled-back write never invalidates.
+@Slf4j
+public class DatabaseInvalidationTransport implements InvalidationTransport {
+    
+    private static final int MAX_TRACKED_GAPS = 1000;
+    
+    private final CacheInvalidationRepository repository;
+    private final int batchSize;
+    private final long gapWindowMillis;
+    private final long retentionMillis;
+    private final List<Consumer<InvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+    
+    private long lastId = -1;
+    // Ids skipped over by the cursor; they belong to transactions that may still commit
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    
+    public DatabaseInvalidationTransport(CacheInvalidationRepository repository, int batchSize,
+                                         long gapWindowMillis, long retentionMillis) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.gapWindowMillis = gapWindowMillis;
+        this.retentionMillis = retentionMillis;
+    }
+    
+    @Override
+    public void publish(InvalidationEvent event) {
+        repository.save(CacheInvalidation.builder()
+                .entityType(event.entityType())
+                .entityId(event.entityId())
+                .relatedId(event.relatedId())
+                .entityIds(event.entityIds() == null ? null
+                        : event.entityIds().stream().map(String::valueOf).collect(Collectors.joining(",")))
+                .version(event.version())
+                .origin(event.origin())
+                .publishedAtMillis(event.publishedAtMillis())
+                .build());
+    }
+    
+    @Override
+    public void subscribe(Consumer<InvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public String name() {
+        return "db";
+    }
+    
+    @Scheduled(fixedDelayString = "${cache.bus.poll-interval-ms:500}")
+    public synchronized void poll() {
+        try {
+            if (lastId < 0) {
+                // Start from the tail; whatever happened before startup is already in the database
+                lastId = repository.findMaxId();
+                return;
+            }
+            List<CacheInvalidation> rows;
+            do {
+                rows = repository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+                for (CacheInvalidation row : rows) {
+                    trackGaps(row.getId());
+                    lastId = row.getId();
+                    deliver(row);
+                }
+            } while (rows.size() == batchSize);
+            pollGaps();
+        } catch (Exception ex) {
+            log.warn("Polling cache invalidations failed: {}", ex.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cache.bus.cleanup-interval-ms:60000}", initialDelayString = "${cache.bus.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        try {
+            repository.deleteOlderThan(System.currentTimeMillis() - retentionMillis);
+        } catch (Exception ex) {
+            log.warn("Cleaning up cache invalidations failed: {}", ex.getMessage());
+        }
+    }
+    
+    private void trackGaps(long id) {
+        long deadline = System.currentTimeMillis() + gapWindowMillis;
+        for (long missing = lastId + 1; missing < id && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+            gaps.put(missing, deadline);
+        }
+    }
+    
+    private void pollGaps() {
+        if (gaps.isEmpty()) {
+            return;
+        }
+        for (CacheInvalidation row : repository.findAllById(new ArrayList<>(gaps.keySet()))) {
+            gaps.remove(row.getId());
+            deliver(row);
+        }
+        // Anything still missing after the window was rolled back
+        long now = System.currentTimeMillis();
+        gaps.values().removeIf(deadline -> deadline < now);
+    }
+    
+    private void deliver(CacheInvalidation row) {
+        List<Long> entityIds = row.getEntityIds() == null ? null
+                : Arrays.stream(row.getEntityIds().split(",")).map(Long::valueOf).toList();
+        InvalidationEvent event = new InvalidationEvent(row.getEntityType(), row.getEntityId(), row.getRelatedId(),
+                entityIds, row.getVersion(), row.getOrigin(), row.getPublishedAtMillis());
+        for (Consumer<InvalidationEvent> listener : listeners) {
+            listener.accept(event);
+        }
+    }
+}
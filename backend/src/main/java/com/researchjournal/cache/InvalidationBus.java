@@ -0,0 +1,205 @@
+package com.researchjournal.cache;
+
+import com.researchjournal.event.IssueChangedEvent;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.event.ReviewChangedEvent;
+import com.researchjournal.event.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Carries local change events to the other replicas, which replay them as remote events so
+// the in-memory indexes and token revocations there reload from the database.
+@Slf4j
+@Component
+public class InvalidationBus {
+    
+    public static final String PAPER = "paper";
+    public static final String REVIEW = "review";
+    public static final String USER = "user";
+    public static final String ISSUE = "issue";
+    public static final String PAPERS = "papers";
+    
+    // Ids per batch message, which keeps outbox rows and Redis messages to a few kilobytes
+    private static final int BATCH_SIZE = 1000;
+    
+    private final InvalidationTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String origin;
+    private final long dedupeRetentionMillis;
+    private final AtomicLong clock = new AtomicLong();
+    // origin|type|id -> newest version applied, to drop duplicates and late arrivals; only the applier thread writes it
+    private final Map<String, Long> appliedVersions = new ConcurrentHashMap<>();
+    // Remote events are applied off the transport's thread so listeners may hit the database
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final Counter publishedCounter;
+    private final Counter appliedCounter;
+    private final Counter droppedCounter;
+    private final Timer lagTimer;
+    
+    public InvalidationBus(InvalidationTransport transport,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${cache.bus.origin:}") String origin,
+                           @Value("${cache.bus.retention-ms:600000}") long retentionMillis) {
+        this.transport = transport;
+        this.eventPublisher = eventPublisher;
+        this.origin = origin.isBlank() ? defaultOrigin() : origin;
+        this.dedupeRetentionMillis = retentionMillis;
+        
+        String name = transport.name();
+        this.publishedCounter = Counter.builder("cache.invalidation.published").tag("transport", name).register(meterRegistry);
+        this.appliedCounter = Counter.builder("cache.invalidation.applied").tag("transport", name).register(meterRegistry);
+        this.droppedCounter = Counter.builder("cache.invalidation.dropped").tag("transport", name)
+                .description("Duplicate or out-of-date invalidations").register(meterRegistry);
+        this.lagTimer = Timer.builder("cache.invalidation.lag").tag("transport", name)
+                .description("Time from publishing on one replica to applying on another")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        
+        transport.subscribe(event -> applier.execute(() -> apply(event)));
+        log.info("Cache invalidation bus using {} transport as {}", name, this.origin);
+    }
+    
+    // BEFORE_COMMIT lets the outbox row share the writer's transaction
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPaperChanged(PaperChangedEvent event) {
+        if (!event.remote()) {
+            publish(PAPER, event.paperId(), null, null);
+        }
+    }
+    
+    // One message per batch, so replicas reload the papers with one query per listener as this one did
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPapersChanged(PapersChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        List<Long> paperIds = event.paperIds();
+        for (int from = 0; from < paperIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = List.copyOf(paperIds.subList(from, Math.min(paperIds.size(), from + BATCH_SIZE)));
+            publish(PAPERS, batch.get(0), null, batch);
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (!event.remote()) {
+            publish(REVIEW, event.reviewId(), event.paperId(), null);
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.remote()) {
+            publish(USER, event.userId(), null, null);
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        if (!event.remote()) {
+            publish(ISSUE, event.issueId(), null, null);
+        }
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    @Scheduled(fixedDelayString = "${cache.bus.cleanup-interval-ms:60000}")
+    public void pruneAppliedVersions() {
+        long cutoff = System.currentTimeMillis() - dedupeRetentionMillis;
+        appliedVersions.values().removeIf(version -> version < cutoff);
+    }
+    
+    private void publish(String type, Long entityId, Long relatedId, List<Long> entityIds) {
+        if (entityId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        transport.publish(new InvalidationEvent(type, entityId, relatedId, entityIds, nextVersion(now), origin, now));
+        publishedCounter.increment();
+    }
+    
+    // Wall-clock millis, bumped when two writes land in the same millisecond or the clock steps back
+    private long nextVersion(long now) {
+        return clock.updateAndGet(last -> Math.max(last + 1, now));
+    }
+    
+    private void apply(InvalidationEvent event) {
+        if (origin.equals(event.origin())) {
+            return;
+        }
+        String key = event.origin() + "|" + event.entityType() + "|" + event.entityId();
+        Long previous = appliedVersions.get(key);
+        if (previous != null && previous >= event.version()) {
+            droppedCounter.increment();
+            return;
+        }
+        appliedVersions.put(key, event.version());
+        
+        try {
+            switch (event.entityType()) {
+                case PAPER -> eventPublisher.publishEvent(new PaperChangedEvent(event.entityId(), true));
+                case REVIEW -> eventPublisher.publishEvent(new ReviewChangedEvent(event.entityId(), event.relatedId(), true));
+                case USER -> eventPublisher.publishEvent(new UserChangedEvent(event.entityId(), true));
+                case ISSUE -> eventPublisher.publishEvent(new IssueChangedEvent(event.entityId(), true));
+                case PAPERS -> eventPublisher.publishEvent(new PapersChangedEvent(
+                        event.entityIds() != null ? event.entityIds() : List.of(event.entityId()), true));
+                default -> {
+                    log.debug("Ignoring invalidation for unknown type {}", event.entityType());
+                    return;
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Applying {} invalidation for {} failed: {}", event.entityType(), event.entityId(), ex.getMessage());
+        }
+        appliedCounter.increment();
+        lagTimer.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - event.publishedAtMillis())));
+    }
+    
+    private static String defaultOrigin() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null || host.isBlank()) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (Exception ex) {
+                host = "replica";
+            }
+        }
+        // A restarted pod keeps its name but starts a fresh clock, so make each run distinct
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        applier.shutdown();
+        applier.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,9 @@
+package com.researchjournal.cache;
+
+import java.util.List;
+
+// version is a per-origin monotonic clock, so replays and duplicates from one replica are dropped.
+// entityIds is only set for batches, whose entityId is the first of them.
+public record InvalidationEvent(String entityType, Long entityId, Long relatedId, List<Long> entityIds,
+                                long version, String origin, long publishedAtMillis) {
+}
@@ -0,0 +1,18 @@
+package com.researchjournal.cache;
+
+import java.util.function.Consumer;
+
+public interface InvalidationTransport extends AutoCloseable {
+    
+    // Called inside the writing transaction when there is one
+    void publish(InvalidationEvent event);
+    
+    void subscribe(Consumer<InvalidationEvent> listener);
+    
+    String name();
+    
+    // See BlobStorage#close
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,20 @@
+package com.researchjournal.cache;
+
+import java.util.function.Consumer;
+
+// Single-replica deployments: nothing to tell
+public class LocalInvalidationTransport implements InvalidationTransport {
+    
+    @Override
+    public void publish(InvalidationEvent event) {
+    }
+    
+    @Override
+    public void subscribe(Consumer<InvalidationEvent> listener) {
+    }
+    
+    @Override
+    public String name() {
+        return "local";
+    }
+}
@@ -0,0 +1,99 @@
+package com.researchjournal.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Lower latency than polling, but pub/sub is fire-and-forget: a replica that is disconnected
+// at the moment of publishing misses the message.
+@Slf4j
+public class RedisInvalidationTransport implements InvalidationTransport {
+    
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, String> publisher;
+    private final StatefulRedisPubSubConnection<String, String> subscriber;
+    private final String channel;
+    private final ObjectMapper objectMapper;
+    private final List<Consumer<InvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+    
+    public RedisInvalidationTransport(String uri, String channel, ObjectMapper objectMapper) {
+        this.client = RedisClient.create(uri);
+        this.channel = channel;
+        this.objectMapper = objectMapper;
+        this.publisher = client.connect();
+        this.subscriber = client.connectPubSub();
+        subscriber.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String from, String message) {
+                receive(message);
+            }
+        });
+        subscriber.sync().subscribe(channel);
+    }
+    
+    @Override
+    public void publish(InvalidationEvent event) {
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+        // Unlike the outbox table this is not transactional, so wait until the change is visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(message);
+                }
+            });
+        } else {
+            send(message);
+        }
+    }
+    
+    @Override
+    public void subscribe(Consumer<InvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public String name() {
+        return "redis";
+    }
+    
+    private void send(String message) {
+        publisher.async().publish(channel, message).exceptionally(ex -> {
+            log.warn("Publishing cache invalidation failed: {}", ex.getMessage());
+            return null;
+        });
+    }
+    
+    private void receive(String message) {
+        try {
+            InvalidationEvent event = objectMapper.readValue(message, InvalidationEvent.class);
+            for (Consumer<InvalidationEvent> listener : listeners) {
+                listener.accept(event);
+            }
+        } catch (Exception ex) {
+            log.warn("Ignoring malformed cache invalidation: {}", ex.getMessage());
+        }
+    }
+    
+    @Override
+    public void close() {
+        subscriber.close();
+        publisher.close();
+        client.shutdown();
+    }
+}
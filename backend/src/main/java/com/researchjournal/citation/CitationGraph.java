@@ -0,0 +1,207 @@
+package com.researchjournal.citation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Immutable citation graph in compressed sparse row form. Node i is paper ids[i] (ids sorted); the
+// papers it cites are refTargets[refOffsets[i] .. refOffsets[i + 1]) and the papers citing it are
+// citerSources[citerOffsets[i] .. citerOffsets[i + 1]). Impact is PageRank scaled so the mean is 1.
+public final class CitationGraph {
+    
+    public static final CitationGraph EMPTY = new CitationGraph(new long[0], new String[0], new int[1], new int[0],
+            new int[1], new int[0], new double[0]);
+    
+    private static final double DAMPING = 0.85;
+    private static final double TOLERANCE = 1e-10;
+    private static final int MAX_ITERATIONS = 100;
+    
+    private final long[] ids;
+    private final String[] titles;
+    private final int[] refOffsets;
+    private final int[] refTargets;
+    private final int[] citerOffsets;
+    private final int[] citerSources;
+    private final double[] impact;
+    
+    private CitationGraph(long[] ids, String[] titles, int[] refOffsets, int[] refTargets,
+                          int[] citerOffsets, int[] citerSources, double[] impact) {
+        this.ids = ids;
+        this.titles = titles;
+        this.refOffsets = refOffsets;
+        this.refTargets = refTargets;
+        this.citerOffsets = citerOffsets;
+        this.citerSources = citerSources;
+        this.impact = impact;
+    }
+    
+    // references[i] holds the paper ids cited by ids[i]; ids outside the graph and self-citations are dropped
+    public static CitationGraph build(long[] ids, String[] titles, long[][] references, ForkJoinPool pool) {
+        int n = ids.length;
+        int[] refOffsets = new int[n + 1];
+        int[][] targets = new int[n][];
+        int[] citerCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            long[] cited = references[i];
+            int[] nodes = new int[cited.length];
+            int count = 0;
+            for (long id : cited) {
+                int node = Arrays.binarySearch(ids, id);
+                if (node >= 0 && node != i) {
+                    nodes[count++] = node;
+                }
+            }
+            Arrays.sort(nodes, 0, count);
+            int unique = 0;
+            for (int k = 0; k < count; k++) {
+                if (unique == 0 || nodes[k] != nodes[unique - 1]) {
+                    nodes[unique++] = nodes[k];
+                }
+            }
+            count = unique;
+            nodes = Arrays.copyOf(nodes, count);
+            targets[i] = nodes;
+            refOffsets[i + 1] = refOffsets[i] + count;
+            for (int node : nodes) {
+                citerCounts[node]++;
+            }
+        }
+        
+        int[] refTargets = new int[refOffsets[n]];
+        int[] citerOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(targets[i], 0, refTargets, refOffsets[i], targets[i].length);
+            citerOffsets[i + 1] = citerOffsets[i] + citerCounts[i];
+        }
+        // Citers come out sorted because sources are visited in order
+        int[] citerSources = new int[refTargets.length];
+        int[] fill = Arrays.copyOf(citerOffsets, n);
+        for (int i = 0; i < n; i++) {
+            for (int k = refOffsets[i]; k < refOffsets[i + 1]; k++) {
+                citerSources[fill[refTargets[k]]++] = i;
+            }
+        }
+        
+        double[] impact = n == 0 ? new double[0] : pageRank(n, refOffsets, citerOffsets, citerSources, pool);
+        for (int i = 0; i < n; i++) {
+            impact[i] *= n;
+        }
+        return new CitationGraph(ids, titles, refOffsets, refTargets, citerOffsets, citerSources, impact);
+    }
+    
+    public int size() {
+        return ids.length;
+    }
+    
+    public int citationTotal() {
+        return refTargets.length;
+    }
+    
+    // Node index of a paper, or -1 when it is not in the graph
+    public int indexOf(long paperId) {
+        int node = Arrays.binarySearch(ids, paperId);
+        return node >= 0 ? node : -1;
+    }
+    
+    public long paperId(int node) {
+        return ids[node];
+    }
+    
+    public String title(int node) {
+        return titles[node];
+    }
+    
+    public int citationCount(int node) {
+        return citerOffsets[node + 1] - citerOffsets[node];
+    }
+    
+    public double impact(int node) {
+        return impact[node];
+    }
+    
+    public int[] references(int node) {
+        return Arrays.copyOfRange(refTargets, refOffsets[node], refOffsets[node + 1]);
+    }
+    
+    public int[] citedBy(int node) {
+        return Arrays.copyOfRange(citerSources, citerOffsets[node], citerOffsets[node + 1]);
+    }
+    
+    // Pull-based power iteration: every pass reads only the previous ranks, so node ranges run in parallel
+    private static double[] pageRank(int n, int[] refOffsets, int[] citerOffsets, int[] citerSources, ForkJoinPool pool) {
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double[] current = rank;
+            double[] updated = next;
+            // Each paper splits its rank over its references; papers citing nothing spread it evenly
+            double dangling = pool.invoke(new RangeSum(0, n, (from, to) -> {
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    int out = refOffsets[i + 1] - refOffsets[i];
+                    if (out == 0) {
+                        share[i] = 0;
+                        sum += current[i];
+                    } else {
+                        share[i] = current[i] / out;
+                    }
+                }
+                return sum;
+            }));
+            double base = (1 - DAMPING) / n + DAMPING * dangling / n;
+            double delta = pool.invoke(new RangeSum(0, n, (from, to) -> {
+                double change = 0;
+                for (int v = from; v < to; v++) {
+                    double sum = 0;
+                    for (int k = citerOffsets[v]; k < citerOffsets[v + 1]; k++) {
+                        sum += share[citerSources[k]];
+                    }
+                    updated[v] = base + DAMPING * sum;
+                    change += Math.abs(updated[v] - current[v]);
+                }
+                return change;
+            }));
+            next = current;
+            rank = updated;
+            if (delta < TOLERANCE) {
+                break;
+            }
+        }
+        return rank;
+    }
+    
+    private static final class RangeSum extends RecursiveTask<Double> {
+        
+        private static final int THRESHOLD = 4096;
+        
+        @FunctionalInterface
+        interface Body {
+            double apply(int from, int to);
+        }
+        
+        private final int from;
+        private final int to;
+        private final Body body;
+        
+        RangeSum(int from, int to, Body body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+        
+        @Override
+        protected Double compute() {
+            if (to - from <= THRESHOLD) {
+                return body.apply(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RangeSum left = new RangeSum(from, mid, body);
+            left.fork();
+            double right = new RangeSum(mid, to, body).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.researchjournal.citation;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Finds journal papers cited by a manuscript by looking for their titles in its reference list.
+// Titles are indexed by their first few words, so a scan is one hash lookup per word of text.
+public final class ReferenceMatcher {
+    
+    public static final ReferenceMatcher EMPTY = new ReferenceMatcher(Map.of());
+    
+    // Shorter titles ("Introduction", "Deep Learning") match far too much running text
+    private static final int KEY_WORDS = 4;
+    private static final Pattern SECTION_HEADING = Pattern.compile(
+            "(?im)^\\s*(?:\\d+\\.?\\s*)?(?:references|bibliography|works cited|literature cited)\\s*:?\\s*$");
+    
+    private record Title(long paperId, String[] words) {
+    }
+    
+    private final Map<Long, List<Title>> titlesByKey;
+    
+    private ReferenceMatcher(Map<Long, List<Title>> titlesByKey) {
+        this.titlesByKey = titlesByKey;
+    }
+    
+    public static ReferenceMatcher of(Map<Long, String> titles) {
+        Map<Long, List<Title>> titlesByKey = new HashMap<>();
+        titles.forEach((paperId, title) -> {
+            String[] words = words(title);
+            if (words.length >= KEY_WORDS) {
+                titlesByKey.computeIfAbsent(key(words, 0), k -> new ArrayList<>(1)).add(new Title(paperId, words));
+            }
+        });
+        return new ReferenceMatcher(titlesByKey);
+    }
+    
+    public Set<Long> match(String text) {
+        Set<Long> cited = new TreeSet<>();
+        if (text == null || titlesByKey.isEmpty()) {
+            return cited;
+        }
+        String[] words = words(referenceSection(text));
+        for (int i = 0; i + KEY_WORDS <= words.length; i++) {
+            List<Title> candidates = titlesByKey.get(key(words, i));
+            if (candidates == null) {
+                continue;
+            }
+            for (Title title : candidates) {
+                if (matchesAt(words, i, title.words())) {
+                    cited.add(title.paperId());
+                }
+            }
+        }
+        return cited;
+    }
+    
+    // Text after the last reference heading, or everything when the manuscript has none
+    static String referenceSection(String text) {
+        Matcher matcher = SECTION_HEADING.matcher(text);
+        int start = -1;
+        while (matcher.find()) {
+            start = matcher.end();
+        }
+        return start >= 0 ? text.substring(start) : text;
+    }
+    
+    // Lower-cased letter/digit runs; words hyphenated across a line break are joined again
+    public static String[] words(String text) {
+        String joined = text.replaceAll("-\\s*\\n\\s*", "");
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= joined.length(); i++) {
+            boolean wordChar = i < joined.length() && Character.isLetterOrDigit(joined.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(joined.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words.toArray(String[]::new);
+    }
+    
+    private static long key(String[] words, int from) {
+        long key = 17;
+        for (int i = from; i < from + KEY_WORDS; i++) {
+            key = key * 1_000_003L + words[i].hashCode();
+        }
+        return key;
+    }
+    
+    private static boolean matchesAt(String[] words, int from, String[] title) {
+        if (from + title.length > words.length) {
+            return false;
+        }
+        for (int i = 0; i < title.length; i++) {
+            if (!words[from + i].equals(title[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.researchjournal.config;
+
+import com.researchjournal.security.Bulkhead;
+import com.researchjournal.security.BulkheadRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hands out connections from the pool of the bulkhead the current request runs in; work outside
+// request handling (schedulers, event listeners on other threads, startup) uses the system pool
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    
+    private final List<HikariDataSource> pools;
+    
+    public BulkheadRoutingDataSource(HikariDataSource systemPool, Map<Bulkhead, HikariDataSource> bulkheadPools) {
+        this.pools = new ArrayList<>(bulkheadPools.values());
+        this.pools.add(systemPool);
+        setTargetDataSources(new HashMap<>(bulkheadPools));
+        setDefaultTargetDataSource(systemPool);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BulkheadRegistry.current();
+    }
+    
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -4,10 +4,15 @@ import com.researchjournal.entity.Role;
 import com.researchjournal.entity.User;
 import com.researchjournal.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
@@ -15,65 +20,71 @@ public class DataInitializer implements CommandLineRunner {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     
+    // Off on serving replicas once the schema job has seeded the database
+    @Value("${app.seed.enabled:true}")
+    private boolean seedEnabled;
+    
     @Override
     public void run(String... args) {
-        // Create default admin user if not exists
-        if (!userRepository.existsByEmail("admin@journal.com")) {
-            User admin = User.builder()
-                    .email("admin@journal.com")
-                    .password(passwordEncoder.encode("admin123"))
-                    .firstName("System")
-                    .lastName("Administrator")
-                    .role(Role.ADMIN)
-                    .enabled(true)
-                    .build();
-            userRepository.save(admin);
-            System.out.println("Default admin user created: admin@journal.com / admin123");
+        if (!seedEnabled) {
+            return;
         }
         
-        // Create default editor if not exists
-        if (!userRepository.existsByEmail("editor@journal.com")) {
-            User editor = User.builder()
-                    .email("editor@journal.com")
-                    .password(passwordEncoder.encode("editor123"))
-                    .firstName("John")
-                    .lastName("Editor")
-                    .institution("Research Journal")
-                    .role(Role.EDITOR)
-                    .enabled(true)
-                    .build();
-            userRepository.save(editor);
-            System.out.println("Default editor user created: editor@journal.com / editor123");
-        }
+        // Default admin, editor, reviewer and author; passwords are still plain text here
+        List<User> defaults = List.of(
+                User.builder()
+                        .email("admin@journal.com")
+                        .password("admin123")
+                        .firstName("System")
+                        .lastName("Administrator")
+                        .role(Role.ADMIN)
+                        .enabled(true)
+                        .build(),
+                User.builder()
+                        .email("editor@journal.com")
+                        .password("editor123")
+                        .firstName("John")
+                        .lastName("Editor")
+                        .institution("Research Journal")
+                        .role(Role.EDITOR)
+                        .enabled(true)
+                        .build(),
+                User.builder()
+                        .email("reviewer@journal.com")
+                        .password("reviewer123")
+                        .firstName("Jane")
+                        .lastName("Reviewer")
+                        .institution("University of Science")
+                        .role(Role.REVIEWER)
+                        .enabled(true)
+                        .build(),
+                User.builder()
+                        .email("author@journal.com")
+                        .password("author123")
+                        .firstName("Alice")
+                        .lastName("Author")
+                        .institution("Tech University")
+                        .role(Role.AUTHOR)
+                        .enabled(true)
+                        .build());
         
-        // Create default reviewer if not exists
-        if (!userRepository.existsByEmail("reviewer@journal.com")) {
-            User reviewer = User.builder()
-                    .email("reviewer@journal.com")
-                    .password(passwordEncoder.encode("reviewer123"))
-                    .firstName("Jane")
-                    .lastName("Reviewer")
-                    .institution("University of Science")
-                    .role(Role.REVIEWER)
-                    .enabled(true)
-                    .build();
-            userRepository.save(reviewer);
-            System.out.println("Default reviewer user created: reviewer@journal.com / reviewer123");
+        // One query instead of one per account, and BCrypt only runs for accounts that are missing
+        Set<String> existing = userRepository.findExistingEmails(defaults.stream().map(User::getEmail).toList());
+        List<User> missing = new ArrayList<>();
+        List<String> created = new ArrayList<>();
+        for (User user : defaults) {
+            if (!existing.contains(user.getEmail())) {
+                created.add("Default " + user.getRole().name().toLowerCase() + " user created: "
+                        + user.getEmail() + " / " + user.getPassword());
+                user.setPassword(passwordEncoder.encode(user.getPassword()));
+                missing.add(user);
+            }
         }
-        
-        // Create default author if not exists
-        if (!userRepository.existsByEmail("author@journal.com")) {
-            User author = User.builder()
-                    .email("author@journal.com")
-                    .password(passwordEncoder.encode("author123"))
-                    .firstName("Alice")
-                    .lastName("Author")
-                    .institution("Tech University")
-                    .role(Role.AUTHOR)
-                    .enabled(true)
-                    .build();
-            userRepository.save(author);
-            System.out.println("Default author user created: author@journal.com / author123");
+        if (missing.isEmpty()) {
+            return;
         }
+        
+        userRepository.saveAll(missing);
+        created.forEach(System.out::println);
     }
 }
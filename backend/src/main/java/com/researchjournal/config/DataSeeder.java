@@ -3,81 +3,56 @@ package com.researchjournal.config;
 import com.researchjournal.entity.User;
 import com.researchjournal.entity.Role;
 import com.researchjournal.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
+import java.util.Set;
+
 @Configuration
 public class DataSeeder {
 
     @Bean
-    CommandLineRunner initDatabase(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    CommandLineRunner initDatabase(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                   @Value("${app.seed.enabled:true}") boolean seedEnabled) {
         return args -> {
-            // Create Admin if not exists
-            if (!userRepository.existsByEmail("admin@journal.com")) {
-                User admin = new User();
-                admin.setFirstName("Admin");
-                admin.setLastName("User");
-                admin.setEmail("admin@journal.com");
-                admin.setPassword(passwordEncoder.encode("password123"));
-                admin.setRole(Role.ADMIN);
-                admin.setEnabled(true);
-                userRepository.save(admin);
-                System.out.println("Created admin user: admin@journal.com / password123");
+            if (!seedEnabled) {
+                return;
             }
 
-            // Create Editor if not exists
-            if (!userRepository.existsByEmail("editor@journal.com")) {
-                User editor = new User();
-                editor.setFirstName("Editor");
-                editor.setLastName("User");
-                editor.setEmail("editor@journal.com");
-                editor.setPassword(passwordEncoder.encode("password123"));
-                editor.setRole(Role.EDITOR);
-                editor.setEnabled(true);
-                userRepository.save(editor);
-                System.out.println("Created editor user: editor@journal.com / password123");
-            }
+            List<User> users = List.of(
+                    seedUser("Admin", "User", "admin@journal.com", Role.ADMIN),
+                    seedUser("Editor", "User", "editor@journal.com", Role.EDITOR),
+                    seedUser("Reviewer", "User", "reviewer@journal.com", Role.REVIEWER),
+                    seedUser("Second", "Reviewer", "reviewer2@journal.com", Role.REVIEWER),
+                    seedUser("Author", "User", "author@journal.com", Role.AUTHOR));
 
-            // Create Reviewer if not exists
-            if (!userRepository.existsByEmail("reviewer@journal.com")) {
-                User reviewer = new User();
-                reviewer.setFirstName("Reviewer");
-                reviewer.setLastName("User");
-                reviewer.setEmail("reviewer@journal.com");
-                reviewer.setPassword(passwordEncoder.encode("password123"));
-                reviewer.setRole(Role.REVIEWER);
-                reviewer.setEnabled(true);
-                userRepository.save(reviewer);
-                System.out.println("Created reviewer user: reviewer@journal.com / password123");
-            }
-            
-            // Create second Reviewer if not exists
-            if (!userRepository.existsByEmail("reviewer2@journal.com")) {
-                User reviewer2 = new User();
-                reviewer2.setFirstName("Second");
-                reviewer2.setLastName("Reviewer");
-                reviewer2.setEmail("reviewer2@journal.com");
-                reviewer2.setPassword(passwordEncoder.encode("password123"));
-                reviewer2.setRole(Role.REVIEWER);
-                reviewer2.setEnabled(true);
-                userRepository.save(reviewer2);
-                System.out.println("Created reviewer user: reviewer2@journal.com / password123");
+            // Look all of them up at once and only hash passwords for the ones being created
+            Set<String> existing = userRepository.findExistingEmails(users.stream().map(User::getEmail).toList());
+            List<User> missing = users.stream()
+                    .filter(user -> !existing.contains(user.getEmail()))
+                    .toList();
+            if (missing.isEmpty()) {
+                return;
             }
 
-            // Create Author if not exists
-            if (!userRepository.existsByEmail("author@journal.com")) {
-                User author = new User();
-                author.setFirstName("Author");
-                author.setLastName("User");
-                author.setEmail("author@journal.com");
-                author.setPassword(passwordEncoder.encode("password123"));
-                author.setRole(Role.AUTHOR);
-                author.setEnabled(true);
-                userRepository.save(author);
-                System.out.println("Created author user: author@journal.com / password123");
-            }
+            missing.forEach(user -> user.setPassword(passwordEncoder.encode("password123")));
+            userRepository.saveAll(missing);
+            missing.forEach(user -> System.out.println(
+                    "Created " + user.getRole().name().toLowerCase() + " user: " + user.getEmail() + " / password123"));
         };
     }
+
+    private static User seedUser(String firstName, String lastName, String email, Role role) {
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setEnabled(true);
+        return user;
+    }
 }
@@ -0,0 +1,64 @@
+package com.researchjournal.config;
+
+import com.researchjournal.security.Bulkhead;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+public class DataSourceConfig {
+    
+    // One Hikari pool per bulkhead so a flood of public reads cannot take the connections editors need.
+    // spring.datasource.hikari.* applies to every pool; size and checkout timeout come from
+    // bulkhead.<class>.pool-size / .pool-timeout-ms. With bulkhead.enabled=false only the system pool
+    // exists, sized by spring.datasource.hikari.maximum-pool-size.
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource(DataSourceProperties properties,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${bulkhead.enabled:true}") boolean enabled,
+                                 @Value("${bulkhead.system.pool-size:4}") int systemPoolSize) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        Map<Bulkhead, HikariDataSource> pools = new EnumMap<>(Bulkhead.class);
+        if (!enabled) {
+            int size = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+            HikariDataSource pool = pool(properties, environment, metrics, "hikari", size);
+            return new BulkheadRoutingDataSource(pool, pools);
+        }
+        
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            String prefix = "bulkhead." + bulkhead.propertyName();
+            int size = environment.getProperty(prefix + ".pool-size", Integer.class, bulkhead.defaultPoolSize());
+            HikariDataSource pool = pool(properties, environment, metrics, "hikari-" + bulkhead.propertyName(), size);
+            pool.setConnectionTimeout(environment.getProperty(prefix + ".pool-timeout-ms", Long.class, bulkhead.defaultPoolTimeoutMillis()));
+            pools.put(bulkhead, pool);
+        }
+        HikariDataSource systemPool = pool(properties, environment, metrics, "hikari-system", systemPoolSize);
+        return new BulkheadRoutingDataSource(systemPool, pools);
+    }
+    
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment,
+                                         MicrometerMetricsTrackerFactory metrics, String name, int size) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        // Unless configured, keep few idle connections since the pools add up; each still grows on demand
+        if (pool.getMinimumIdle() < 0) {
+            pool.setMinimumIdle(Math.min(2, pool.getMaximumPoolSize()));
+        }
+        pool.setMetricsTrackerFactory(metrics);
+        return pool;
+    }
+}
@@ -0,0 +1,41 @@
+package com.researchjournal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchjournal.cache.DatabaseInvalidationTransport;
+import com.researchjournal.cache.InvalidationTransport;
+import com.researchjournal.cache.LocalInvalidationTransport;
+import com.researchjournal.cache.RedisInvalidationTransport;
+import com.researchjournal.repository.CacheInvalidationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+@Configuration
+public class InvalidationBusConfig {
+    
+    // Picked at runtime, see StorageConfig#blobStorage
+    @Bean
+    public InvalidationTransport invalidationTransport(@Value("${cache.bus.transport:db}") String transport,
+                                                       CacheInvalidationRepository repository,
+                                                       ObjectMapper objectMapper,
+                                                       @Value("${cache.bus.batch-size:500}") int batchSize,
+                                                       @Value("${cache.bus.gap-window-ms:10000}") long gapWindowMillis,
+                                                       @Value("${cache.bus.retention-ms:600000}") long retentionMillis,
+                                                       @Value("${cache.bus.redis.uri:}") String redisUri,
+                                                       @Value("${cache.bus.redis.channel:research-journal-invalidations}") String channel) {
+        return switch (transport.trim().toLowerCase(Locale.ROOT)) {
+            case "db" -> new DatabaseInvalidationTransport(repository, batchSize, gapWindowMillis, retentionMillis);
+            case "redis" -> {
+                if (!StringUtils.hasText(redisUri)) {
+                    throw new IllegalStateException("cache.bus.redis.uri is required when cache.bus.transport=redis");
+                }
+                yield new RedisInvalidationTransport(redisUri, channel, objectMapper);
+            }
+            case "none" -> new LocalInvalidationTransport();
+            default -> throw new IllegalStateException("Unknown cache.bus.transport: " + transport);
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.researchjournal.config;
+
+import com.researchjournal.perf.EntityLoadCounter;
+import com.researchjournal.perf.QueryBudgetInterceptor;
+import com.researchjournal.perf.QueryBudgetMonitor;
+import com.researchjournal.perf.StatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// SQL statement, entity and allocation accounting per request, checked against @QueryBudget; off unless
+// perf.budget.enabled=true (QueryBudgetTest turns it on). perf.budget.enforce=true fails a request at the first
+// statement over its budget; other overruns are reported by GET /api/dashboard/query-budgets.
+@Configuration
+public class QueryBudgetConfig implements WebMvcConfigurer {
+    
+    private final QueryBudgetMonitor monitor;
+    private final boolean enabled;
+    private final boolean enforce;
+    
+    public QueryBudgetConfig(QueryBudgetMonitor monitor,
+                             @Value("${perf.budget.enabled:false}") boolean enabled,
+                             @Value("${perf.budget.enforce:false}") boolean enforce) {
+        this.monitor = monitor;
+        this.enabled = enabled;
+        this.enforce = enforce;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer queryBudgetHibernateCustomizer() {
+        return properties -> {
+            if (enabled) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+                properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new EntityLoadCounter()));
+            }
+        };
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new QueryBudgetInterceptor(monitor, enforce)).addPathPatterns("/api/**");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.researchjournal.config;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+public class StartupConfig {
+    
+    @Value("${spring.main.lazy-initialization:false}")
+    private boolean lazyInitialization;
+    
+    @Value("${spring.jpa.hibernate.ddl-auto:none}")
+    private String ddlAuto;
+    
+    // Set by the schema job: run ddl-auto and the seeders, then stop instead of serving
+    @Value("${app.exit-after-startup:false}")
+    private boolean exitAfterStartup;
+    
+    private volatile Duration startedIn;
+    
+    // With spring.main.lazy-initialization most beans are created on first use, but some must not wait:
+    // @Scheduled methods are only registered once their bean exists, and Hibernate's bootstrap would
+    // otherwise land on the first request after the pod reports ready
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (DataSource.class.isAssignableFrom(beanType)
+                || AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType)
+                || !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty()
+                || AnnotatedElementUtils.hasAnnotation(beanType, Scheduled.class));
+    }
+    
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        startedIn = event.getTimeTaken();
+    }
+    
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReady(ApplicationReadyEvent event) {
+        if (exitAfterStartup) {
+            log.info("Schema update and seeding finished, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+    
+    // Readiness flips to ACCEPTING_TRAFFIC after every ApplicationReadyEvent listener has run,
+    // which is the moment the readiness probe starts passing
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Time to ready: {} ms since JVM start ({} ms until context started); aot={}, cds={}, lazy-init={}, ddl-auto={}",
+                uptime, startedIn != null ? startedIn.toMillis() : -1, AotDetector.useGeneratedArtifacts(),
+                sharedArchive(), lazyInitialization, ddlAuto);
+    }
+    
+    private static String sharedArchive() {
+        try {
+            HotSpotDiagnosticMXBean diagnostics = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            String archive = diagnostics.getVMOption("SharedArchiveFile").getValue();
+            return StringUtils.hasText(archive) ? archive : "default";
+        } catch (RuntimeException ex) {
+            return "unknown";
+        }
+    }
+}
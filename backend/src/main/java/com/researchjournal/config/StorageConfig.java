@@ -0,0 +1,80 @@
+package com.researchjournal.config;
+
+import com.researchjournal.storage.BlobStorage;
+import com.researchjournal.storage.LocalBlobStorage;
+import com.researchjournal.storage.S3BlobStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.util.Locale;
+
+@Configuration
+public class StorageConfig {
+    
+    // Picked at runtime instead of with @ConditionalOnProperty, which AOT processing would freeze at build time
+    @Bean
+    public BlobStorage blobStorage(@Value("${storage.type:local}") String type,
+                                   @Value("${file.upload-dir}") String uploadDir,
+                                   @Value("${storage.s3.bucket:}") String bucket,
+                                   @Value("${storage.s3.endpoint:}") String endpoint,
+                                   @Value("${storage.s3.region:us-east-1}") String region,
+                                   @Value("${storage.s3.access-key:}") String accessKey,
+                                   @Value("${storage.s3.secret-key:}") String secretKey,
+                                   @Value("${storage.s3.path-style:true}") boolean pathStyle,
+                                   @Value("${storage.s3.part-size-mb:8}") int partSizeMb,
+                                   @Value("${storage.s3.upload-concurrency:4}") int uploadConcurrency,
+                                   @Value("${storage.s3.create-bucket:false}") boolean createBucket) {
+        return switch (type.trim().toLowerCase(Locale.ROOT)) {
+            case "local" -> new LocalBlobStorage(uploadDir);
+            case "s3" -> s3BlobStorage(bucket, endpoint, region, accessKey, secretKey,
+                    pathStyle, partSizeMb, uploadConcurrency, createBucket);
+            default -> throw new IllegalStateException("Unknown storage.type: " + type);
+        };
+    }
+    
+    private BlobStorage s3BlobStorage(String bucket, String endpoint, String region, String accessKey, String secretKey,
+                                      boolean pathStyle, int partSizeMb, int uploadConcurrency, boolean createBucket) {
+        if (!StringUtils.hasText(bucket)) {
+            throw new IllegalStateException("storage.s3.bucket is required when storage.type=s3");
+        }
+        AwsCredentialsProvider credentials = StringUtils.hasText(accessKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.create();
+        S3Configuration s3Configuration = S3Configuration.builder()
+                .pathStyleAccessEnabled(pathStyle)
+                .build();
+        
+        S3ClientBuilder client = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(s3Configuration);
+        S3Presigner.Builder presigner = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(s3Configuration);
+        if (StringUtils.hasText(endpoint)) {
+            client.endpointOverride(URI.create(endpoint));
+            presigner.endpointOverride(URI.create(endpoint));
+        }
+        
+        // S3 rejects multipart parts smaller than 5 MB except for the last one
+        int partSize = Math.max(5, partSizeMb) * 1024 * 1024;
+        S3BlobStorage storage = new S3BlobStorage(client.build(), presigner.build(), bucket, partSize, uploadConcurrency);
+        if (createBucket) {
+            storage.createBucketIfMissing();
+        }
+        return storage;
+    }
+}
@@ -1,15 +1,36 @@
 package com.researchjournal.controller;
 
+import com.researchjournal.dto.CitationDTO;
 import com.researchjournal.dto.DashboardStats;
+import com.researchjournal.dto.FacetCount;
+import com.researchjournal.dto.FieldSelection;
 import com.researchjournal.dto.PaperDTO;
+import com.researchjournal.dto.PublicSearchResult;
+import com.researchjournal.dto.QueryBudgetDTO;
+import com.researchjournal.dto.SuggestionDTO;
+import com.researchjournal.dto.TurnaroundStatsDTO;
 import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.perf.QueryBudget;
+import com.researchjournal.perf.QueryBudgetMonitor;
+import com.researchjournal.service.CatalogExportService;
+import com.researchjournal.service.CitationService;
 import com.researchjournal.service.DashboardService;
+import com.researchjournal.service.OaiPmhService;
 import com.researchjournal.service.PaperService;
+import com.researchjournal.service.PublicSearchService;
+import com.researchjournal.service.SuggestIndex;
+import com.researchjournal.service.TurnaroundAnalyticsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -19,36 +40,107 @@ public class DashboardController {
     
     private final DashboardService dashboardService;
     private final PaperService paperService;
+    private final PublicSearchService publicSearchService;
+    private final SuggestIndex suggestIndex;
+    private final TurnaroundAnalyticsService turnaroundAnalyticsService;
+    private final CatalogExportService catalogExportService;
+    private final OaiPmhService oaiPmhService;
+    private final CitationService citationService;
+    private final QueryBudgetMonitor queryBudgetMonitor;
     
     @GetMapping("/dashboard/stats")
     @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
+    @QueryBudget(statements = 13)
     public ResponseEntity<DashboardStats> getStats() {
         return ResponseEntity.ok(dashboardService.getStats());
     }
     
+    @GetMapping("/dashboard/query-budgets")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<QueryBudgetDTO>> getQueryBudgets() {
+        return ResponseEntity.ok(queryBudgetMonitor.getReport());
+    }
+    
+    @GetMapping("/dashboard/turnaround")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
+    public ResponseEntity<List<TurnaroundStatsDTO>> getTurnaround(
+            @RequestParam(defaultValue = "REVIEW_TURNAROUND") TurnaroundAnalyticsService.Metric metric,
+            @RequestParam(defaultValue = "ALL") TurnaroundAnalyticsService.GroupBy groupBy,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        return ResponseEntity.ok(turnaroundAnalyticsService.getStats(metric, groupBy, from, to));
+    }
+    
     @GetMapping("/public/papers")
+    @QueryBudget(statements = 6)
     public ResponseEntity<List<PaperDTO>> getPublishedPapers() {
         return ResponseEntity.ok(paperService.getPublishedPapers());
     }
     
     @GetMapping("/public/published")
+    @QueryBudget(statements = 6)
     public ResponseEntity<List<PaperDTO>> getPublishedPapersAlt() {
         return ResponseEntity.ok(paperService.getPublishedPapers());
     }
     
     @GetMapping("/public/papers/{id}")
+    @QueryBudget(statements = 6, entities = 10)
     public ResponseEntity<PaperDTO> getPublishedPaper(@PathVariable Long id) {
-        PaperDTO paper = paperService.getPaperById(id);
+        PaperDTO paper = paperService.getPaperById(id, FieldSelection.ALL);
         if (paper.getStatus() == PaperStatus.PUBLISHED || paper.getStatus() == PaperStatus.ARCHIVED) {
+            suggestIndex.recordView(id);
             return ResponseEntity.ok(paper);
         }
         return ResponseEntity.notFound().build();
     }
     
+    @GetMapping("/public/export")
+    public void exportCatalog(
+            @RequestParam(defaultValue = "jsonl") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            HttpServletResponse response) throws IOException {
+        catalogExportService.export(CatalogExportService.Format.parse(format), since, response);
+    }
+    
+    @RequestMapping(value = "/public/oai", method = {RequestMethod.GET, RequestMethod.POST})
+    public void oaiPmh(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        oaiPmhService.handle(request, response);
+    }
+    
+    @GetMapping("/public/papers/{id}/citations")
+    public ResponseEntity<List<CitationDTO>> getCitations(@PathVariable Long id) {
+        return ResponseEntity.of(citationService.getReferences(id));
+    }
+    
+    @GetMapping("/public/papers/{id}/cited-by")
+    public ResponseEntity<List<CitationDTO>> getCitedBy(@PathVariable Long id) {
+        return ResponseEntity.of(citationService.getCitedBy(id));
+    }
+    
     @GetMapping("/public/search")
     public ResponseEntity<List<PaperDTO>> searchPublishedPapers(@RequestParam String keyword) {
-        return ResponseEntity.ok(paperService.searchPapers(keyword).stream()
-                .filter(p -> p.getStatus() == PaperStatus.PUBLISHED || p.getStatus() == PaperStatus.ARCHIVED)
-                .toList());
+        return ResponseEntity.ok(publicSearchService.searchPublished(keyword));
+    }
+    
+    @GetMapping("/public/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String q,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestIndex.suggest(q, limit));
+    }
+    
+    @GetMapping("/public/keywords")
+    public ResponseEntity<List<FacetCount>> getPublicKeywords(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(publicSearchService.getPublicKeywordCounts(limit));
+    }
+    
+    @GetMapping("/public/search/faceted")
+    public ResponseEntity<PublicSearchResult> facetedSearch(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String institution,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(publicSearchService.search(keyword, tag, year, institution, page, size));
     }
 }
@@ -0,0 +1,86 @@
+package com.researchjournal.controller;
+
+import com.researchjournal.dto.IssueDTO;
+import com.researchjournal.dto.IssuePlacementRequest;
+import com.researchjournal.dto.IssueRequest;
+import com.researchjournal.dto.IssueTocDTO;
+import com.researchjournal.dto.VolumeDTO;
+import com.researchjournal.dto.VolumeRequest;
+import com.researchjournal.service.IssueService;
+import com.researchjournal.service.IssueTocCache;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class IssueController {
+    
+    private final IssueService issueService;
+    private final IssueTocCache issueTocCache;
+    
+    @GetMapping("/public/volumes")
+    public ResponseEntity<List<VolumeDTO>> getPublishedVolumes() {
+        return ResponseEntity.ok(issueService.getVolumes(true));
+    }
+    
+    // Served from the precomputed JSON, so a warm issue page costs no query and no serialization
+    @GetMapping("/public/issues/{id}")
+    public ResponseEntity<byte[]> getPublishedIssue(@PathVariable Long id, WebRequest request) {
+        IssueTocCache.Toc toc = issueTocCache.get(id).orElse(null);
+        if (toc == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(toc.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(toc.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(toc.json());
+    }
+    
+    @GetMapping("/volumes")
+    @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
+    public ResponseEntity<List<VolumeDTO>> getVolumes() {
+        return ResponseEntity.ok(issueService.getVolumes(false));
+    }
+    
+    @PostMapping("/volumes")
+    @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
+    public ResponseEntity<VolumeDTO> createVolume(@Valid @RequestBody VolumeRequest request) {
+        return ResponseEntity.ok(issueService.createVolume(request));
+    }
+    
+    @PostMapping("/issues")
+    @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
+    public ResponseEntity<IssueDTO> createIssue(@Valid @RequestBody IssueRequest request) {
+        return ResponseEntity.ok(issueService.createIssue(request));
+    }
+    
+    @GetMapping("/issues/{id}")
+    @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
+    public ResponseEntity<IssueTocDTO> getIssue(@PathVariable Long id) {
+        return ResponseEntity.of(issueService.getToc(id));
+    }
+    
+    @PutMapping("/issues/{id}/papers")
+    @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
+    public ResponseEntity<IssueTocDTO> placePapers(@PathVariable Long id,
+                                                   @RequestBody List<IssuePlacementRequest> placements) {
+        return ResponseEntity.ok(issueService.placePapers(id, placements));
+    }
+    
+    @PutMapping("/issues/{id}/publish")
+    @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
+    public ResponseEntity<IssueDTO> publishIssue(@PathVariable Long id) {
+        return ResponseEntity.ok(issueService.publishIssue(id));
+    }
+}
@@ -1,21 +1,39 @@
 package com.researchjournal.controller;
 
+import com.researchjournal.dto.BulkStatusRequest;
+import com.researchjournal.dto.BulkStatusResultDTO;
+import com.researchjournal.dto.FacetCount;
+import com.researchjournal.dto.FieldSelection;
 import com.researchjournal.dto.PaperDTO;
+import com.researchjournal.dto.PaperHistoryEntryDTO;
 import com.researchjournal.dto.PaperSubmitRequest;
+import com.researchjournal.dto.PipelineSnapshotDTO;
 import com.researchjournal.dto.RevisionDTO;
-import com.researchjournal.dto.UserDTO;
 import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.perf.QueryBudget;
+import com.researchjournal.security.UserPrincipal;
+import com.researchjournal.service.EntityTags;
+import com.researchjournal.service.FileDownloadService;
+import com.researchjournal.service.ManuscriptUploadService;
+import com.researchjournal.service.PaperHistoryService;
 import com.researchjournal.service.PaperService;
-import com.researchjournal.service.UserService;
+import com.researchjournal.storage.MultipartForm;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,102 +42,168 @@ import java.util.List;
 public class PaperController {
     
     private final PaperService paperService;
-    private final UserService userService;
+    private final FileDownloadService fileDownloadService;
+    private final ManuscriptUploadService manuscriptUploadService;
+    private final PaperHistoryService paperHistoryService;
     
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
-    public ResponseEntity<List<PaperDTO>> getAllPapers() {
-        return ResponseEntity.ok(paperService.getAllPapers());
+    @QueryBudget(statements = 8)
+    public ResponseEntity<MappingJacksonValue> getAllPapers(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(paperService.getAllPapers(selection), FieldSelection.PAPER_FILTER));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<PaperDTO> getPaperById(@PathVariable Long id) {
-        return ResponseEntity.ok(paperService.getPaperById(id));
+    @QueryBudget(statements = 8, entities = 10)
+    public ResponseEntity<MappingJacksonValue> getPaperById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        String etag = paperService.getPaperEtag(id, selection);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(selection.wrap(paperService.getPaperById(id, selection), FieldSelection.PAPER_FILTER));
     }
     
     @GetMapping("/my-papers")
-    public ResponseEntity<List<PaperDTO>> getMyPapers(Authentication authentication) {
-        UserDTO user = userService.getUserByEmail(authentication.getName());
-        return ResponseEntity.ok(paperService.getPapersByAuthor(user.getId()));
+    public ResponseEntity<MappingJacksonValue> getMyPapers(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(paperService.getPapersByAuthor(principal.getId(), selection), FieldSelection.PAPER_FILTER));
     }
     
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
-    public ResponseEntity<List<PaperDTO>> getPapersByStatus(@PathVariable PaperStatus status) {
-        return ResponseEntity.ok(paperService.getPapersByStatus(status));
+    public ResponseEntity<MappingJacksonValue> getPapersByStatus(
+            @PathVariable PaperStatus status,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(paperService.getPapersByStatus(status, selection), FieldSelection.PAPER_FILTER));
     }
     
     @GetMapping("/for-review")
     @PreAuthorize("hasAnyRole('REVIEWER', 'EDITOR', 'ADMIN')")
-    public ResponseEntity<List<PaperDTO>> getPapersForReview(Authentication authentication) {
-        UserDTO user = userService.getUserByEmail(authentication.getName());
-        return ResponseEntity.ok(paperService.getPapersForReviewer(user.getId()));
+    public ResponseEntity<MappingJacksonValue> getPapersForReview(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(paperService.getPapersForReviewer(principal.getId(), selection), FieldSelection.PAPER_FILTER));
     }
     
     @GetMapping("/for-editor")
     @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
-    public ResponseEntity<List<PaperDTO>> getPapersForEditor(Authentication authentication) {
-        UserDTO user = userService.getUserByEmail(authentication.getName());
-        return ResponseEntity.ok(paperService.getPapersForEditor(user.getId()));
+    public ResponseEntity<MappingJacksonValue> getPapersForEditor(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(paperService.getPapersForEditor(principal.getId(), selection), FieldSelection.PAPER_FILTER));
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<PaperDTO>> searchPapers(@RequestParam String keyword) {
-        return ResponseEntity.ok(paperService.searchPapers(keyword));
+    public ResponseEntity<MappingJacksonValue> searchPapers(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(paperService.searchPapers(keyword, selection), FieldSelection.PAPER_FILTER));
+    }
+    
+    @GetMapping("/by-keywords")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
+    public ResponseEntity<MappingJacksonValue> getPapersByKeywords(
+            @RequestParam List<String> keywords,
+            @RequestParam(required = false) List<PaperStatus> status,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(paperService.getPapersByKeywords(keywords, status, selection), FieldSelection.PAPER_FILTER));
     }
     
+    @GetMapping("/keyword-counts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
+    public ResponseEntity<List<FacetCount>> getKeywordCounts(
+            @RequestParam(required = false) List<PaperStatus> status,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(paperService.getKeywordCounts(status, Math.max(1, limit)));
+    }
+    
+    // Multipart bodies are parsed by ManuscriptUploadService so the file streams straight into storage
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<PaperDTO> submitPaperMultipart(
-            @RequestParam("title") String title,
-            @RequestParam("abstractText") String abstractText,
-            @RequestParam(value = "keywords", required = false) String keywords,
-            @RequestParam(value = "file", required = false) MultipartFile file,
-            Authentication authentication) throws IOException {
+            HttpServletRequest httpRequest,
+            @AuthenticationPrincipal UserPrincipal principal) throws IOException {
         
-        UserDTO user = userService.getUserByEmail(authentication.getName());
+        MultipartForm form = manuscriptUploadService.read(httpRequest, "title", "abstractText");
         PaperSubmitRequest request = PaperSubmitRequest.builder()
-                .title(title)
-                .abstractText(abstractText)
-                .keywords(keywords)
+                .title(form.field("title"))
+                .abstractText(form.field("abstractText"))
+                .keywords(form.field("keywords"))
                 .build();
         
-        return ResponseEntity.ok(paperService.submitPaper(request, file, user.getId()));
+        try {
+            return withEtag(paperService.submitPaper(request, form.file(), principal.getId()));
+        } catch (RuntimeException ex) {
+            manuscriptUploadService.discard(form);
+            throw ex;
+        }
     }
     
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<PaperDTO> submitPaperJson(
             @RequestBody PaperSubmitRequest request,
-            Authentication authentication) throws IOException {
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        UserDTO user = userService.getUserByEmail(authentication.getName());
-        return ResponseEntity.ok(paperService.submitPaper(request, null, user.getId()));
+        return withEtag(paperService.submitPaper(request, null, principal.getId()));
     }
     
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<PaperDTO> updatePaper(
             @PathVariable Long id,
-            @RequestParam("title") String title,
-            @RequestParam("abstractText") String abstractText,
-            @RequestParam(value = "keywords", required = false) String keywords,
-            @RequestParam(value = "file", required = false) MultipartFile file) throws IOException {
+            HttpServletRequest httpRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws IOException {
         
+        MultipartForm form = manuscriptUploadService.read(httpRequest, "title", "abstractText");
         PaperSubmitRequest request = PaperSubmitRequest.builder()
-                .title(title)
-                .abstractText(abstractText)
-                .keywords(keywords)
+                .title(form.field("title"))
+                .abstractText(form.field("abstractText"))
+                .keywords(form.field("keywords"))
                 .build();
         
-        return ResponseEntity.ok(paperService.updatePaper(id, request, file));
+        try {
+            return withEtag(paperService.updatePaper(id, request, form.file(), EntityTags.expectedVersion(ifMatch)));
+        } catch (RuntimeException ex) {
+            manuscriptUploadService.discard(form);
+            throw ex;
+        }
     }
     
     @PostMapping(value = "/{id}/revision", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<PaperDTO> submitRevision(
             @PathVariable Long id,
-            @RequestParam("changesSummary") String changesSummary,
-            @RequestParam(value = "authorResponse", required = false) String authorResponse,
-            @RequestParam(value = "file", required = false) MultipartFile file) throws IOException {
+            HttpServletRequest httpRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws IOException {
         
-        return ResponseEntity.ok(paperService.submitRevision(id, changesSummary, authorResponse, file));
+        MultipartForm form = manuscriptUploadService.read(httpRequest, "changesSummary");
+        try {
+            return withEtag(paperService.submitRevision(id, form.field("changesSummary"),
+                    form.field("authorResponse"), form.file(), EntityTags.expectedVersion(ifMatch)));
+        } catch (RuntimeException ex) {
+            manuscriptUploadService.discard(form);
+            throw ex;
+        }
     }
     
     @GetMapping("/{id}/revisions")
@@ -127,22 +211,60 @@ public class PaperController {
         return ResponseEntity.ok(paperService.getRevisions(id));
     }
     
+    // Lifecycle transitions from the event log, optionally only those up to `at`
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<PaperHistoryEntryDTO>> getHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(paperHistoryService.getHistory(id, at, principal));
+    }
+    
+    // Status of every paper as it was at `at` (default now), rebuilt by replaying the event log
+    @GetMapping("/pipeline")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
+    public ResponseEntity<PipelineSnapshotDTO> getPipeline(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(defaultValue = "false") boolean includePapers) {
+        return ResponseEntity.ok(paperHistoryService.getPipeline(at, includePapers));
+    }
+    
+    @GetMapping("/{id}/file")
+    public void downloadFile(@PathVariable Long id,
+                             @AuthenticationPrincipal UserPrincipal principal,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        fileDownloadService.sendPaperFile(id, principal, request, response);
+    }
+    
+    @GetMapping("/{id}/revisions/{version}/file")
+    public void downloadRevisionFile(@PathVariable Long id,
+                                     @PathVariable Integer version,
+                                     @AuthenticationPrincipal UserPrincipal principal,
+                                     HttpServletRequest request,
+                                     HttpServletResponse response) throws IOException {
+        fileDownloadService.sendRevisionFile(id, version, principal, request, response);
+    }
+    
     @PutMapping("/{id}/assign-editor/{editorId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PaperDTO> assignEditor(@PathVariable Long id, @PathVariable Long editorId) {
-        return ResponseEntity.ok(paperService.assignEditor(id, editorId));
+    public ResponseEntity<PaperDTO> assignEditor(@PathVariable Long id, @PathVariable Long editorId,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withEtag(paperService.assignEditor(id, editorId, EntityTags.expectedVersion(ifMatch)));
     }
     
     @PutMapping("/{id}/assign-reviewer/{reviewerId}")
     @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
-    public ResponseEntity<PaperDTO> assignReviewer(@PathVariable Long id, @PathVariable Long reviewerId) {
-        return ResponseEntity.ok(paperService.assignReviewer(id, reviewerId));
+    @QueryBudget(statements = 19)
+    public ResponseEntity<PaperDTO> assignReviewer(@PathVariable Long id, @PathVariable Long reviewerId,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withEtag(paperService.assignReviewer(id, reviewerId, EntityTags.expectedVersion(ifMatch)));
     }
     
     @DeleteMapping("/{id}/remove-reviewer/{reviewerId}")
     @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
     public ResponseEntity<PaperDTO> removeReviewer(@PathVariable Long id, @PathVariable Long reviewerId) {
-        return ResponseEntity.ok(paperService.removeReviewer(id, reviewerId));
+        return withEtag(paperService.removeReviewer(id, reviewerId));
     }
     
     @PutMapping("/{id}/status")
@@ -150,8 +272,18 @@ public class PaperController {
     public ResponseEntity<PaperDTO> updatePaperStatus(
             @PathVariable Long id,
             @RequestParam PaperStatus status,
-            @RequestParam(required = false) String editorComments) {
-        return ResponseEntity.ok(paperService.updatePaperStatus(id, status, editorComments));
+            @RequestParam(required = false) String editorComments,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withEtag(paperService.updatePaperStatus(id, status, editorComments,
+                EntityTags.expectedVersion(ifMatch)));
+    }
+    
+    // Moves many papers at once, e.g. every paper of an issue to PUBLISHED; all or nothing
+    @PutMapping(value = "/status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('EDITOR', 'ADMIN')")
+    public ResponseEntity<BulkStatusResultDTO> updatePaperStatuses(@Valid @RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(paperService.updatePaperStatuses(request.getPaperIds(), request.getStatus(),
+                request.getEditorComments()));
     }
     
     @DeleteMapping("/{id}")
@@ -160,4 +292,11 @@ public class PaperController {
         paperService.deletePaper(id);
         return ResponseEntity.ok().build();
     }
+    
+    // Mutations answer with the tag a follow-up If-Match or conditional GET of the full paper would use
+    private ResponseEntity<PaperDTO> withEtag(PaperDTO paper) {
+        return ResponseEntity.ok()
+                .eTag(paperService.getPaperEtag(paper.getId(), FieldSelection.ALL))
+                .body(paper);
+    }
 }
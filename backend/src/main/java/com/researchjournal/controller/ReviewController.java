@@ -1,17 +1,20 @@
 package com.researchjournal.controller;
 
+import com.researchjournal.dto.FieldSelection;
 import com.researchjournal.dto.ReviewDTO;
 import com.researchjournal.dto.ReviewSubmitRequest;
-import com.researchjournal.dto.UserDTO;
+import com.researchjournal.perf.QueryBudget;
+import com.researchjournal.security.UserPrincipal;
+import com.researchjournal.service.EntityTags;
 import com.researchjournal.service.ReviewService;
-import com.researchjournal.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/reviews")
@@ -19,58 +22,84 @@ import java.util.List;
 public class ReviewController {
     
     private final ReviewService reviewService;
-    private final UserService userService;
     
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
-    public ResponseEntity<List<ReviewDTO>> getAllReviews() {
-        return ResponseEntity.ok(reviewService.getAllReviews());
+    public ResponseEntity<MappingJacksonValue> getAllReviews(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(reviewService.getAllReviews(selection), FieldSelection.REVIEW_FILTER));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ReviewDTO> getReviewById(@PathVariable Long id) {
-        return ResponseEntity.ok(reviewService.getReviewById(id));
+    public ResponseEntity<MappingJacksonValue> getReviewById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        String etag = reviewService.getReviewEtag(id, selection);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(selection.wrap(reviewService.getReviewById(id, selection), FieldSelection.REVIEW_FILTER));
     }
     
     @GetMapping("/paper/{paperId}")
-    public ResponseEntity<List<ReviewDTO>> getReviewsByPaper(@PathVariable Long paperId) {
-        return ResponseEntity.ok(reviewService.getReviewsByPaper(paperId));
+    public ResponseEntity<MappingJacksonValue> getReviewsByPaper(
+            @PathVariable Long paperId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(reviewService.getReviewsByPaper(paperId, selection), FieldSelection.REVIEW_FILTER));
     }
     
     @GetMapping("/my-reviews")
     @PreAuthorize("hasAnyRole('REVIEWER', 'EDITOR', 'ADMIN')")
-    public ResponseEntity<List<ReviewDTO>> getMyReviews(Authentication authentication) {
-        UserDTO user = userService.getUserByEmail(authentication.getName());
-        return ResponseEntity.ok(reviewService.getReviewsByReviewer(user.getId()));
+    public ResponseEntity<MappingJacksonValue> getMyReviews(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(reviewService.getReviewsByReviewer(principal.getId(), selection), FieldSelection.REVIEW_FILTER));
     }
     
     @GetMapping("/my-pending")
     @PreAuthorize("hasAnyRole('REVIEWER', 'EDITOR', 'ADMIN')")
-    public ResponseEntity<List<ReviewDTO>> getMyPendingReviews(Authentication authentication) {
-        UserDTO user = userService.getUserByEmail(authentication.getName());
-        return ResponseEntity.ok(reviewService.getPendingReviewsByReviewer(user.getId()));
+    public ResponseEntity<MappingJacksonValue> getMyPendingReviews(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.of(fields, include);
+        return ResponseEntity.ok(selection.wrap(reviewService.getPendingReviewsByReviewer(principal.getId(), selection), FieldSelection.REVIEW_FILTER));
     }
     
     @PutMapping("/{id}/start")
     @PreAuthorize("hasAnyRole('REVIEWER', 'EDITOR', 'ADMIN')")
-    public ResponseEntity<ReviewDTO> startReview(@PathVariable Long id) {
-        return ResponseEntity.ok(reviewService.startReview(id));
+    public ResponseEntity<ReviewDTO> startReview(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withEtag(reviewService.startReview(id, EntityTags.expectedVersion(ifMatch)));
     }
     
     @PutMapping("/{id}/submit")
     @PreAuthorize("hasAnyRole('REVIEWER', 'EDITOR', 'ADMIN')")
+    @QueryBudget(statements = 13)
     public ResponseEntity<ReviewDTO> submitReview(
             @PathVariable Long id,
-            @RequestBody ReviewSubmitRequest request) {
-        return ResponseEntity.ok(reviewService.submitReview(id, request));
+            @RequestBody ReviewSubmitRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withEtag(reviewService.submitReview(id, request, EntityTags.expectedVersion(ifMatch)));
     }
     
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('REVIEWER', 'EDITOR', 'ADMIN')")
     public ResponseEntity<ReviewDTO> updateReview(
             @PathVariable Long id,
-            @RequestBody ReviewSubmitRequest request) {
-        return ResponseEntity.ok(reviewService.updateReview(id, request));
+            @RequestBody ReviewSubmitRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withEtag(reviewService.updateReview(id, request, EntityTags.expectedVersion(ifMatch)));
     }
     
     @DeleteMapping("/{id}")
@@ -79,4 +108,10 @@ public class ReviewController {
         reviewService.deleteReview(id);
         return ResponseEntity.ok().build();
     }
+    
+    private ResponseEntity<ReviewDTO> withEtag(ReviewDTO review) {
+        return ResponseEntity.ok()
+                .eTag(reviewService.getReviewEtag(review.getId(), FieldSelection.ALL))
+                .body(review);
+    }
 }
@@ -2,11 +2,12 @@ package com.researchjournal.controller;
 
 import com.researchjournal.dto.UserDTO;
 import com.researchjournal.entity.Role;
+import com.researchjournal.security.UserPrincipal;
 import com.researchjournal.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,8 +20,8 @@ public class UserController {
     private final UserService userService;
     
     @GetMapping("/me")
-    public ResponseEntity<UserDTO> getCurrentUser(Authentication authentication) {
-        return ResponseEntity.ok(userService.getUserByEmail(authentication.getName()));
+    public ResponseEntity<UserDTO> getCurrentUser(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(userService.getUserById(principal.getId()));
     }
     
     @GetMapping
@@ -0,0 +1,26 @@
+package com.researchjournal.dto;
+
+import com.researchjournal.entity.PaperStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusRequest {
+    
+    @NotEmpty(message = "Paper ids are required")
+    private List<Long> paperIds;
+    
+    @NotNull(message = "Status is required")
+    private PaperStatus status;
+    
+    private String editorComments;
+}
@@ -0,0 +1,21 @@
+package com.researchjournal.dto;
+
+import com.researchjournal.entity.PaperStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusResultDTO {
+    private PaperStatus status;
+    private int updated;
+    private List<Long> paperIds;
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,17 @@
+package com.researchjournal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CitationDTO {
+    private Long paperId;
+    private String title;
+    private Integer citationCount;
+    private Double impactScore;
+}
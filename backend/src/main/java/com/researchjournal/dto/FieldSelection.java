@@ -0,0 +1,140 @@
+package com.researchjournal.dto;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+// Parsed from ?fields=id,title,reviews.status&include=author,reviews.
+// "fields" lists the properties to return (dotted names reach into embedded reviews);
+// "include" names the associations to expand. Without either, everything is returned.
+public final class FieldSelection {
+    
+    public static final String PAPER_FILTER = "paperFields";
+    public static final String REVIEW_FILTER = "reviewFields";
+    public static final FieldSelection ALL = new FieldSelection(null, null, Map.of());
+    
+    private static final Set<String> PAPER_ASSOCIATIONS = Set.of("author", "assignedEditor", "assignedReviewers", "reviews");
+    private static final Set<String> REVIEW_ASSOCIATIONS = Set.of("reviewer");
+    
+    private final Set<String> fields;
+    private final Set<String> include;
+    private final Map<String, FieldSelection> nested;
+    
+    private FieldSelection(Set<String> fields, Set<String> include, Map<String, FieldSelection> nested) {
+        this.fields = fields;
+        this.include = include;
+        this.nested = nested;
+    }
+    
+    public static FieldSelection of(String fields, String include) {
+        if (!StringUtils.hasText(fields) && !StringUtils.hasText(include)) {
+            return ALL;
+        }
+        
+        Set<String> topLevel = null;
+        Map<String, Set<String>> nestedFields = new HashMap<>();
+        if (StringUtils.hasText(fields)) {
+            topLevel = new TreeSet<>();
+            for (String field : split(fields)) {
+                int dot = field.indexOf('.');
+                if (dot > 0) {
+                    String association = field.substring(0, dot);
+                    topLevel.add(association);
+                    nestedFields.computeIfAbsent(association, key -> new TreeSet<>()).add(field.substring(dot + 1));
+                } else {
+                    topLevel.add(field);
+                }
+            }
+            // The id always comes back so clients can correlate partial objects
+            topLevel.add("id");
+        }
+        Set<String> includes = StringUtils.hasText(include) ? new TreeSet<>(split(include)) : null;
+        
+        Map<String, FieldSelection> nested = new HashMap<>();
+        nestedFields.forEach((association, names) -> {
+            names.add("id");
+            nested.put(association, new FieldSelection(names, null, Map.of()));
+        });
+        return new FieldSelection(topLevel, includes, nested);
+    }
+    
+    public boolean isAll() {
+        return fields == null && include == null;
+    }
+    
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+    
+    // Associations are only fetched and built when requested, so unselected ones are never loaded
+    public boolean expands(String association) {
+        if (include != null) {
+            return include.contains(association) || (fields != null && fields.contains(association));
+        }
+        return includes(association);
+    }
+    
+    public FieldSelection nested(String association) {
+        return nested.getOrDefault(association, ALL);
+    }
+    
+    public FilterProvider filters(String filterId) {
+        SimpleFilterProvider provider = new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+        if (PAPER_FILTER.equals(filterId)) {
+            provider.addFilter(PAPER_FILTER, propertyFilter(PAPER_ASSOCIATIONS));
+            provider.addFilter(REVIEW_FILTER, nested("reviews").propertyFilter(REVIEW_ASSOCIATIONS));
+        } else {
+            provider.addFilter(filterId, propertyFilter(REVIEW_ASSOCIATIONS));
+        }
+        return provider;
+    }
+    
+    public MappingJacksonValue wrap(Object body, String filterId) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!isAll()) {
+            value.setFilters(filters(filterId));
+        }
+        return value;
+    }
+    
+    // Part of the ETag, so different projections of the same entity never share a validator
+    public String fingerprint() {
+        if (isAll()) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder();
+        key.append(fields != null ? String.join(",", fields) : "*");
+        key.append(';').append(include != null ? String.join(",", include) : "*");
+        new TreeMap<>(nested).forEach((association, selection) ->
+                key.append(';').append(association).append('=').append(selection.fingerprint()));
+        return key.toString();
+    }
+    
+    private SimpleBeanPropertyFilter propertyFilter(Set<String> associations) {
+        if (fields != null) {
+            Set<String> visible = new HashSet<>(fields);
+            if (include != null) {
+                visible.addAll(include);
+            }
+            return SimpleBeanPropertyFilter.filterOutAllExcept(visible);
+        }
+        if (include != null) {
+            Set<String> hidden = new HashSet<>(associations);
+            hidden.removeAll(include);
+            return SimpleBeanPropertyFilter.serializeAllExcept(hidden);
+        }
+        return SimpleBeanPropertyFilter.serializeAll();
+    }
+    
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .toList();
+    }
+}
@@ -0,0 +1,21 @@
+package com.researchjournal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueDTO {
+    private Long id;
+    private Long volumeId;
+    private Integer volumeNumber;
+    private Integer number;
+    private String title;
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,19 @@
+package com.researchjournal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssuePlacementRequest {
+    
+    private Long paperId;
+    
+    private Integer firstPage;
+    
+    private Integer lastPage;
+}
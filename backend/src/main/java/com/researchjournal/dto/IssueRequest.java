@@ -0,0 +1,24 @@
+package com.researchjournal.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueRequest {
+    
+    @NotNull(message = "Volume is required")
+    private Long volumeId;
+    
+    @NotNull(message = "Issue number is required")
+    @Min(1)
+    private Integer number;
+    
+    private String title;
+}
@@ -0,0 +1,23 @@
+package com.researchjournal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueTocDTO {
+    private Long issueId;
+    private Integer volumeNumber;
+    private Integer volumeYear;
+    private Integer issueNumber;
+    private String title;
+    private LocalDateTime publishedAt;
+    private List<IssueTocEntryDTO> papers;
+}
@@ -0,0 +1,24 @@
+package com.researchjournal.dto;
+
+import com.researchjournal.entity.PaperStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueTocEntryDTO {
+    private Long paperId;
+    private String title;
+    private String authorName;
+    private String authorInstitution;
+    private PaperStatus status;
+    private Integer firstPage;
+    private Integer lastPage;
+    private LocalDateTime publishedAt;
+}
@@ -1,6 +1,8 @@
 package com.researchjournal.dto;
 
+import com.researchjournal.entity.DuplicateKind;
 import com.researchjournal.entity.PaperStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +13,7 @@ import java.util.List;
 
 @Data
 @Builder
+@JsonFilter(FieldSelection.PAPER_FILTER)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PaperDTO {
@@ -25,6 +28,8 @@ public class PaperDTO {
     private String editorComments;
     private Double plagiarismScore;
     private String plagiarismReport;
+    private Long duplicateOfId;
+    private DuplicateKind duplicateKind;
     private UserDTO assignedEditor;
     private List<UserDTO> assignedReviewers;
     private List<ReviewDTO> reviews;
@@ -0,0 +1,24 @@
+package com.researchjournal.dto;
+
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.eventlog.LifecycleEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaperHistoryEntryDTO {
+    private Long sequence;
+    private LifecycleEventType type;
+    private LocalDateTime occurredAt;
+    private PaperStatus fromStatus;
+    private PaperStatus toStatus;
+    private Long actorId;
+    private Long subjectId;
+}
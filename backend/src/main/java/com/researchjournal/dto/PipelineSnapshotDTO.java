@@ -0,0 +1,22 @@
+package com.researchjournal.dto;
+
+import com.researchjournal.entity.PaperStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineSnapshotDTO {
+    private LocalDateTime at;
+    private Long lastSequence;
+    private Long totalPapers;
+    private Map<PaperStatus, Long> statusCounts;
+    private Map<Long, PaperStatus> paperStatuses;
+}
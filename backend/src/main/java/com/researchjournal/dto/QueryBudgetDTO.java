@@ -0,0 +1,25 @@
+package com.researchjournal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryBudgetDTO {
+    // "GET /api/papers/{id}"
+    private String endpoint;
+    private Long requests;
+    private Integer maxStatements;
+    private Integer maxEntities;
+    private Long maxAllocatedKb;
+    // Declared budget; null when the dimension is unchecked
+    private Integer statementBudget;
+    private Integer entityBudget;
+    private Long allocatedKbBudget;
+    private Long violations;
+    private String lastViolation;
+}
@@ -2,6 +2,7 @@ package com.researchjournal.dto;
 
 import com.researchjournal.entity.ReviewRecommendation;
 import com.researchjournal.entity.ReviewStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@JsonFilter(FieldSelection.REVIEW_FILTER)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ReviewDTO {
@@ -0,0 +1,26 @@
+package com.researchjournal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnaroundStatsDTO {
+    private String metric;
+    private String groupBy;
+    private String group;
+    private Long count;
+    private Double p50Hours;
+    private Double p90Hours;
+    private Double p99Hours;
+    private Double meanHours;
+    private Double maxHours;
+    // Bucket label (e.g. "7-14d") -> count, in ascending order
+    private Map<String, Long> histogram;
+}
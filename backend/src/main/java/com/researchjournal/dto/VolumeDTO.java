@@ -0,0 +1,20 @@
+package com.researchjournal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VolumeDTO {
+    private Long id;
+    private Integer number;
+    private Integer year;
+    private String title;
+    private List<IssueDTO> issues;
+}
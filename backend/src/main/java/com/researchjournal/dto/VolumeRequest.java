@@ -0,0 +1,24 @@
+package com.researchjournal.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VolumeRequest {
+    
+    @NotNull(message = "Volume number is required")
+    @Min(1)
+    private Integer number;
+    
+    @NotNull(message = "Year is required")
+    private Integer year;
+    
+    private String title;
+}
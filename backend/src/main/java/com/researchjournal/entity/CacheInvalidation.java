@@ -0,0 +1,41 @@
+package com.researchjournal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "cache_invalidations", indexes = @Index(name = "idx_cache_invalidations_published", columnList = "publishedAtMillis"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 16)
+    private String entityType;
+    
+    @Column(nullable = false)
+    private Long entityId;
+    
+    private Long relatedId;
+    
+    // Comma-separated paper ids of a batch
+    @Column(columnDefinition = "TEXT")
+    private String entityIds;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(nullable = false, length = 100)
+    private String origin;
+    
+    @Column(nullable = false)
+    private Long publishedAtMillis;
+}
@@ -0,0 +1,6 @@
+package com.researchjournal.entity;
+
+public enum DuplicateKind {
+    IDENTICAL_FILE,
+    SIMILAR_TEXT
+}
@@ -0,0 +1,47 @@
+package com.researchjournal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "extracted_texts")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractedText {
+    
+    // SHA-256 of the manuscript bytes, so identical uploads share one extraction
+    @Id
+    @Column(length = 64)
+    private String digest;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExtractionStatus status;
+    
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] compressedText;
+    
+    private Integer charCount;
+    
+    private Boolean truncated;
+    
+    @Column(length = 500)
+    private String failureReason;
+    
+    // When the job was queued while PENDING, when it finished afterwards
+    @Column(nullable = false)
+    private LocalDateTime extractedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        extractedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,9 @@
+package com.researchjournal.entity;
+
+public enum ExtractionStatus {
+    // Stored before the job is queued; picked up again by the sweep if it never ran
+    PENDING,
+    COMPLETED,
+    UNSUPPORTED,
+    FAILED
+}
@@ -0,0 +1,60 @@
+package com.researchjournal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row per (user, Idempotency-Key). The primary key is a hash of both, so the row doubles as the
+// cross-replica lock while the first request runs and as the stored result for its retries.
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires", columnList = "expiresAtMillis"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(length = 64)
+    private String recordKey;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    // SHA-256 of method, path and the body; for multipart uploads, of the length and the leading parts
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    
+    @Column(nullable = false)
+    private Boolean completed;
+    
+    // Renewed while the request runs, so only a request that died loses its claim
+    @Column(nullable = false)
+    private Long lockedAtMillis;
+    
+    @Column(nullable = false)
+    private Long expiresAtMillis;
+    
+    // Set in the request's own transaction as its changes commit, with what it created or changed;
+    // a claim taken over after that is answered from these instead of running the request again
+    private Long committedAtMillis;
+    
+    @Column(length = 20)
+    private String resourceType;
+    
+    private Long resourceId;
+    
+    private Integer responseStatus;
+    
+    @Column(length = 100)
+    private String contentType;
+    
+    @Column(length = 100)
+    private String etag;
+    
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    private byte[] responseBody;
+}
@@ -0,0 +1,42 @@
+package com.researchjournal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "issues", uniqueConstraints = @UniqueConstraint(name = "uk_issues_volume_number",
+        columnNames = {"volume_id", "number"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Issue {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "volume_id", nullable = false)
+    private Volume volume;
+    
+    @Column(nullable = false)
+    private Integer number;
+    
+    private String title;
+    
+    // Set when the issue goes out; until then its table of contents is only visible to editors
+    private LocalDateTime publishedAt;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
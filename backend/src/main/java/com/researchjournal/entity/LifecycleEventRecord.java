@@ -0,0 +1,44 @@
+package com.researchjournal.entity;
+
+import com.researchjournal.eventlog.LifecycleEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The shared, durable lifecycle journal. Sequences are handed out under the lifecycle_sequence row lock,
+// so they are dense and become visible in order; every replica mirrors this table into its local event log.
+@Entity
+@Table(name = "lifecycle_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LifecycleEventRecord {
+    
+    @Id
+    private Long sequence;
+    
+    @Column(nullable = false)
+    private Long timestampMillis;
+    
+    @Column(nullable = false)
+    private Long paperId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private LifecycleEventType type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private PaperStatus fromStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private PaperStatus toStatus;
+    
+    private Long actorId;
+    
+    private Long subjectId;
+}
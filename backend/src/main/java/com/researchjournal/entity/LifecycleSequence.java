@@ -0,0 +1,28 @@
+package com.researchjournal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Single row holding the last journal sequence and timestamp; writers lock it until they commit
+@Entity
+@Table(name = "lifecycle_sequence")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LifecycleSequence {
+    
+    public static final int ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(nullable = false)
+    private Long lastSequence;
+    
+    @Column(nullable = false)
+    private Long lastTimestampMillis;
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -12,7 +14,8 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "papers")
+@Table(name = "papers", indexes = @Index(name = "idx_papers_updated_at_id", columnList = "updatedAt, id"))
+@BatchSize(size = 50)
 @Data
 @Builder
 @NoArgsConstructor
@@ -44,9 +47,19 @@ public class Paper {
     
     private String fileName;
     
+    @Column(length = 64)
+    private String fileDigest;
+    
+    private Long fileSize;
+    
     @Column(nullable = false)
     private Integer version = 1;
     
+    // Row version for optimistic locking; "version" above is the manuscript version
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long lockVersion;
+    
     @Column(columnDefinition = "TEXT")
     private String editorComments;
     
@@ -55,27 +68,59 @@ public class Paper {
     @Column(columnDefinition = "TEXT")
     private String plagiarismReport;
     
+    // Journal papers cited by the manuscript's reference list (comma-separated ids) and the
+    // digest of the manuscript they were parsed from
+    @Column(columnDefinition = "TEXT")
+    private String citedPaperIds;
+    
+    @Column(length = 64)
+    private String citationsDigest;
+    
+    // Earlier submission this one looked like a copy of when it was submitted
+    private Long duplicateOfId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private DuplicateKind duplicateKind;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_editor_id")
     private User assignedEditor;
     
+    // Collections stay out of equals/hashCode: hashing an entity would otherwise load them
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
         name = "paper_reviewers",
         joinColumns = @JoinColumn(name = "paper_id"),
         inverseJoinColumns = @JoinColumn(name = "reviewer_id")
     )
     @Builder.Default
+    @EqualsAndHashCode.Exclude
     private Set<User> assignedReviewers = new HashSet<>();
     
     @OneToMany(mappedBy = "paper", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     @Builder.Default
+    @EqualsAndHashCode.Exclude
     private List<Review> reviews = new ArrayList<>();
     
     @OneToMany(mappedBy = "paper", cascade = CascadeType.ALL)
     @Builder.Default
+    @EqualsAndHashCode.Exclude
     private List<Revision> revisions = new ArrayList<>();
     
+    // Place in a journal issue: order within the issue and printed page range
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "issue_id")
+    private Issue issue;
+    
+    private Integer issuePosition;
+    
+    private Integer firstPage;
+    
+    private Integer lastPage;
+    
     private LocalDateTime submittedAt;
     
     private LocalDateTime publishedAt;
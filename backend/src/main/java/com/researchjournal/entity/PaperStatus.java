@@ -1,5 +1,8 @@
 package com.researchjournal.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum PaperStatus {
     SUBMITTED,
     UNDER_REVIEW,
@@ -8,5 +11,32 @@ public enum PaperStatus {
     ACCEPTED,
     REJECTED,
     PUBLISHED,
-    ARCHIVED
+    ARCHIVED;
+    
+    // Editorial workflow steps; checked by bulk transitions
+    public Set<PaperStatus> allowedNext() {
+        return switch (this) {
+            case SUBMITTED -> EnumSet.of(UNDER_REVIEW, REJECTED);
+            case UNDER_REVIEW -> EnumSet.of(REVISION_REQUIRED, ACCEPTED, REJECTED);
+            case REVISION_REQUIRED -> EnumSet.of(REVISED, REJECTED);
+            case REVISED -> EnumSet.of(UNDER_REVIEW, REVISION_REQUIRED, ACCEPTED, REJECTED);
+            case ACCEPTED -> EnumSet.of(PUBLISHED, REJECTED);
+            case REJECTED, PUBLISHED -> EnumSet.of(ARCHIVED);
+            case ARCHIVED -> EnumSet.noneOf(PaperStatus.class);
+        };
+    }
+    
+    public boolean canTransitionTo(PaperStatus target) {
+        return allowedNext().contains(target);
+    }
+    
+    public static Set<PaperStatus> allowedBefore(PaperStatus target) {
+        Set<PaperStatus> sources = EnumSet.noneOf(PaperStatus.class);
+        for (PaperStatus status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
@@ -50,6 +50,10 @@ public class Review {
     
     private Integer paperVersion;
     
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long lockVersion;
+    
     private LocalDateTime dueDate;
     
     private LocalDateTime completedAt;
@@ -30,6 +30,11 @@ public class Revision {
     
     private String fileName;
     
+    @Column(length = 64)
+    private String fileDigest;
+    
+    private Long fileSize;
+    
     @Column(columnDefinition = "TEXT")
     private String changesSummary;
     
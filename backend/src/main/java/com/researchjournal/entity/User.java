@@ -4,13 +4,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@BatchSize(size = 50)
 @Data
 @Builder
 @NoArgsConstructor
@@ -47,21 +50,31 @@ public class User {
     @Column(nullable = false)
     private Boolean enabled = true;
     
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
     
+    // Collections stay out of equals/hashCode: hashing an entity would otherwise load them
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL)
+    @EqualsAndHashCode.Exclude
     private Set<Paper> papers = new HashSet<>();
     
     @OneToMany(mappedBy = "reviewer", cascade = CascadeType.ALL)
+    @EqualsAndHashCode.Exclude
     private Set<Review> reviews = new HashSet<>();
     
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        if (tokenVersion == null) {
+            tokenVersion = 0;
+        }
     }
     
     @PreUpdate
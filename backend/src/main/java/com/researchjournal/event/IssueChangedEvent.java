@@ -0,0 +1,9 @@
+package com.researchjournal.event;
+
+// An issue's metadata, contents or page ranges changed
+public record IssueChangedEvent(Long issueId, boolean remote) {
+    
+    public IssueChangedEvent(Long issueId) {
+        this(issueId, false);
+    }
+}
@@ -0,0 +1,4 @@
+package com.researchjournal.event;
+
+public record ManuscriptStoredEvent(Long paperId, String storageKey, String fileName, String digest) {
+}
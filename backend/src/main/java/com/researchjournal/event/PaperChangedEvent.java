@@ -0,0 +1,10 @@
+package com.researchjournal.event;
+
+// Published after any write to a paper; listeners reload what they need by id.
+// "remote" marks changes replayed from another replica, which must not be re-broadcast.
+public record PaperChangedEvent(Long paperId, boolean remote) {
+    
+    public PaperChangedEvent(Long paperId) {
+        this(paperId, false);
+    }
+}
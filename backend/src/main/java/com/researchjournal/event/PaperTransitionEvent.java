@@ -0,0 +1,9 @@
+package com.researchjournal.event;
+
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.eventlog.LifecycleEventType;
+
+// Written to the lifecycle journal within the transaction that caused it
+public record PaperTransitionEvent(Long paperId, LifecycleEventType type, PaperStatus fromStatus,
+                                   PaperStatus toStatus, Long subjectId) {
+}
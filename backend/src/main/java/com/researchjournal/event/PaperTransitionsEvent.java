@@ -0,0 +1,8 @@
+package com.researchjournal.event;
+
+import java.util.List;
+
+// Published once for a set-based write to many papers instead of one PaperTransitionEvent each,
+// so the journal takes them under one sequence lock and in one batched insert
+public record PaperTransitionsEvent(List<PaperTransitionEvent> transitions) {
+}
@@ -0,0 +1,13 @@
+package com.researchjournal.event;
+
+import java.util.List;
+
+// Published once for a set-based write to many papers instead of one PaperChangedEvent each,
+// so listeners can reload them in a single query. Other replicas receive it as one invalidation
+// and replay it with remote set.
+public record PapersChangedEvent(List<Long> paperIds, boolean remote) {
+    
+    public PapersChangedEvent(List<Long> paperIds) {
+        this(paperIds, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.researchjournal.event;
+
+public record ReviewChangedEvent(Long reviewId, Long paperId, boolean remote) {
+    
+    public ReviewChangedEvent(Long reviewId, Long paperId) {
+        this(reviewId, paperId, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.researchjournal.event;
+
+public record UserChangedEvent(Long userId, boolean remote) {
+    
+    public UserChangedEvent(Long userId) {
+        this(userId, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.researchjournal.eventlog;
+
+import com.researchjournal.entity.PaperStatus;
+
+// subjectId is the editor, reviewer, review or revision the transition is about, when there is one
+public record LifecycleEvent(long sequence, long timestampMillis, long paperId, LifecycleEventType type,
+                             PaperStatus fromStatus, PaperStatus toStatus, Long actorId, Long subjectId) {
+}
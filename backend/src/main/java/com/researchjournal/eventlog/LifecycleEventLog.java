@@ -0,0 +1,185 @@
+package com.researchjournal.eventlog;
+
+import com.researchjournal.entity.PaperStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// This replica's copy of the lifecycle journal (see LifecycleJournal), in memory-mapped segment files that
+// history reads and replays run against. It only ever receives the journal's events in sequence order, so it
+// can be thrown away and rebuilt from the database at any time.
+// Sequences start at 1 and are dense, and timestamps never decrease, so both can be binary searched.
+@Slf4j
+@Component
+public class LifecycleEventLog {
+    
+    private final Path directory;
+    private final int recordsPerSegment;
+    // Appended to under the lock; readers work on a snapshot copy
+    private volatile List<LogSegment> segments = List.of();
+    private boolean dirty;
+    
+    public LifecycleEventLog(@Value("${eventlog.dir:./data/eventlog}") String directory,
+                             @Value("${eventlog.segment-size-mb:16}") int segmentSizeMb) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.recordsPerSegment = (int) ((segmentSizeMb * 1024L * 1024L - LogSegment.HEADER_SIZE) / LogSegment.RECORD_SIZE);
+    }
+    
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+        List<LogSegment> opened = new ArrayList<>();
+        for (Path file : files) {
+            LogSegment segment = LogSegment.open(file);
+            if (!opened.isEmpty() && segment.baseSequence != last(opened).lastSequence() + 1) {
+                throw new IOException("Event log segment " + file + " does not continue the previous one");
+            }
+            opened.add(segment);
+        }
+        segments = List.copyOf(opened);
+        log.info("Lifecycle event log at {} holds {} events in {} segments", directory, lastSequence(), opened.size());
+    }
+    
+    // Events must arrive in journal order: exactly the next sequence
+    public synchronized void append(LifecycleEvent event) {
+        List<LogSegment> current = segments;
+        LogSegment active = current.isEmpty() ? null : last(current);
+        long expected = active == null ? 1 : active.lastSequence() + 1;
+        if (event.sequence() != expected) {
+            throw new IllegalStateException("Event log expects sequence " + expected + ", got " + event.sequence());
+        }
+        if (active == null || active.isFull()) {
+            active = roll(expected);
+        }
+        active.append(event);
+        dirty = true;
+    }
+    
+    // Drops every segment, e.g. when the local copy no longer matches the journal
+    public synchronized void reset() throws IOException {
+        for (LogSegment segment : segments) {
+            Files.deleteIfExists(segment.file);
+        }
+        segments = List.of();
+        dirty = false;
+    }
+    
+    public long lastSequence() {
+        List<LogSegment> current = segments;
+        return current.isEmpty() ? 0 : last(current).lastSequence();
+    }
+    
+    public LifecycleEvent read(long sequence) {
+        List<LogSegment> current = segments;
+        LogSegment segment = current.get(segmentIndex(current, sequence));
+        return segment.read((int) (sequence - segment.baseSequence));
+    }
+    
+    // Sequential replay of [fromSequence, toSequence]
+    public void replay(long fromSequence, long toSequence, Consumer<LifecycleEvent> consumer) {
+        List<LogSegment> current = segments;
+        if (current.isEmpty() || fromSequence > toSequence) {
+            return;
+        }
+        for (int i = segmentIndex(current, Math.max(1, fromSequence)); i < current.size(); i++) {
+            LogSegment segment = current.get(i);
+            int start = (int) Math.max(0, fromSequence - segment.baseSequence);
+            int end = (int) Math.min(segment.count(), toSequence - segment.baseSequence + 1);
+            for (int index = start; index < end; index++) {
+                consumer.accept(segment.read(index));
+            }
+            if (segment.lastSequence() >= toSequence) {
+                return;
+            }
+        }
+    }
+    
+    // Last sequence recorded at or before the given time, 0 if none
+    public long sequenceAt(long timestampMillis) {
+        List<LogSegment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            LogSegment segment = current.get(i);
+            if (segment.count() == 0 || segment.timestampAt(0) > timestampMillis) {
+                continue;
+            }
+            int low = 0;
+            int high = segment.count() - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (segment.timestampAt(mid) <= timestampMillis) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return segment.baseSequence + low;
+        }
+        return 0;
+    }
+    
+    // Mapped pages reach the OS on every write; this bounds what a power loss can take
+    @Scheduled(fixedDelayString = "${eventlog.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (dirty && !segments.isEmpty()) {
+            last(segments).force();
+            dirty = false;
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+    
+    private LogSegment roll(long baseSequence) {
+        List<LogSegment> current = segments;
+        if (!current.isEmpty()) {
+            last(current).force();
+        }
+        try {
+            Path file = directory.resolve(String.format("%020d.log", baseSequence));
+            LogSegment segment = LogSegment.create(file, baseSequence, recordsPerSegment);
+            List<LogSegment> next = new ArrayList<>(current);
+            next.add(segment);
+            segments = List.copyOf(next);
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create event log segment", ex);
+        }
+    }
+    
+    private static int segmentIndex(List<LogSegment> segments, long sequence) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segments.get(mid).baseSequence <= sequence) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+    
+    private static LogSegment last(List<LogSegment> segments) {
+        return segments.get(segments.size() - 1);
+    }
+}
@@ -0,0 +1,16 @@
+package com.researchjournal.eventlog;
+
+// Stored by ordinal: only ever append new constants
+public enum LifecycleEventType {
+    SNAPSHOT,
+    SUBMITTED,
+    REVISION_SUBMITTED,
+    EDITOR_ASSIGNED,
+    REVIEWER_ASSIGNED,
+    REVIEWER_REMOVED,
+    REVIEW_STARTED,
+    REVIEW_SUBMITTED,
+    STATUS_CHANGED,
+    PUBLISHED,
+    DELETED
+}
@@ -0,0 +1,129 @@
+package com.researchjournal.eventlog;
+
+import com.researchjournal.entity.LifecycleEventRecord;
+import com.researchjournal.entity.LifecycleSequence;
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.event.PaperTransitionEvent;
+import com.researchjournal.repository.LifecycleEventRecordRepository;
+import com.researchjournal.repository.LifecycleSequenceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// Writes lifecycle transitions to the lifecycle_events table, the one durable copy shared by all replicas.
+// Appends join the caller's transaction and lock the sequence row until it commits: transitions are
+// serialized cluster-wide, but sequences stay dense and a reader never sees a later one before an earlier one.
+@Component
+@RequiredArgsConstructor
+public class LifecycleJournal {
+    
+    private static final int BASELINE_BATCH = 1000;
+    
+    private final LifecycleSequenceRepository sequenceRepository;
+    private final LifecycleEventRecordRepository eventRepository;
+    private final EntityManager entityManager;
+    
+    @Transactional
+    public long append(long paperId, LifecycleEventType type, PaperStatus fromStatus, PaperStatus toStatus,
+                       Long actorId, Long subjectId) {
+        LifecycleSequence counter = lockCounter();
+        return appendLocked(counter, paperId, type, fromStatus, toStatus, actorId, subjectId);
+    }
+    
+    // A bulk write's transitions under one lock and one sequence allocation, flushed as a single JDBC batch
+    // (one multi-row INSERT with rewriteBatchedStatements); returns the last sequence
+    @Transactional
+    public long appendAll(List<PaperTransitionEvent> transitions, Long actorId) {
+        LifecycleSequence counter = lockCounter();
+        long sequence = counter.getLastSequence();
+        Session session = entityManager.unwrap(Session.class);
+        Integer batchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(Math.max(transitions.size(), 1));
+        try {
+            for (PaperTransitionEvent transition : transitions) {
+                sequence = appendLocked(counter, transition.paperId(), transition.type(), transition.fromStatus(),
+                        transition.toStatus(), actorId, transition.subjectId());
+            }
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(batchSize);
+        }
+        return sequence;
+    }
+    
+    // Papers that predate the journal start from a snapshot of their current status; only the first replica does it
+    @Transactional
+    public int recordBaselineIfEmpty(Supplier<List<Object[]>> idAndStatusRows) {
+        LifecycleSequence counter = lockCounter();
+        if (counter.getLastSequence() > 0) {
+            return 0;
+        }
+        List<Object[]> rows = idAndStatusRows.get();
+        for (int i = 0; i < rows.size(); i++) {
+            appendLocked(counter, (Long) rows.get(i)[0], LifecycleEventType.SNAPSHOT, null, (PaperStatus) rows.get(i)[1], null, null);
+            if ((i + 1) % BASELINE_BATCH == 0) {
+                // Keeps the persistence context small; the row lock is held regardless
+                entityManager.flush();
+                entityManager.clear();
+                counter = lockCounter();
+            }
+        }
+        return rows.size();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<LifecycleEvent> readAfter(long sequence, int limit) {
+        return eventRepository.findBySequenceGreaterThanOrderBySequenceAsc(sequence, PageRequest.of(0, limit)).stream()
+                .map(LifecycleJournal::toEvent)
+                .toList();
+    }
+    
+    @Transactional(readOnly = true)
+    public LifecycleEvent read(long sequence) {
+        return eventRepository.findById(sequence).map(LifecycleJournal::toEvent).orElse(null);
+    }
+    
+    // SELECT ... FOR UPDATE, held until the transaction ends; once locked, later calls in the same
+    // transaction (a bulk status change appends one event per paper) issue no further statement
+    private LifecycleSequence lockCounter() {
+        LifecycleSequence counter = entityManager.find(LifecycleSequence.class, LifecycleSequence.ID, LockModeType.PESSIMISTIC_WRITE);
+        if (counter == null) {
+            sequenceRepository.createIfAbsent();
+            counter = entityManager.find(LifecycleSequence.class, LifecycleSequence.ID, LockModeType.PESSIMISTIC_WRITE);
+        }
+        return counter;
+    }
+    
+    private long appendLocked(LifecycleSequence counter, long paperId, LifecycleEventType type, PaperStatus fromStatus,
+                              PaperStatus toStatus, Long actorId, Long subjectId) {
+        long sequence = counter.getLastSequence() + 1;
+        // Timestamps never decrease, so replicas can binary search the log by time
+        long timestamp = Math.max(counter.getLastTimestampMillis(), System.currentTimeMillis());
+        counter.setLastSequence(sequence);
+        counter.setLastTimestampMillis(timestamp);
+        // persist, not save: the id is assigned, and save would first SELECT it to decide between insert and merge
+        entityManager.persist(LifecycleEventRecord.builder()
+                .sequence(sequence)
+                .timestampMillis(timestamp)
+                .paperId(paperId)
+                .type(type)
+                .fromStatus(fromStatus)
+                .toStatus(toStatus)
+                .actorId(actorId)
+                .subjectId(subjectId)
+                .build());
+        return sequence;
+    }
+    
+    private static LifecycleEvent toEvent(LifecycleEventRecord record) {
+        return new LifecycleEvent(record.getSequence(), record.getTimestampMillis(), record.getPaperId(), record.getType(),
+                record.getFromStatus(), record.getToStatus(), record.getActorId(), record.getSubjectId());
+    }
+}
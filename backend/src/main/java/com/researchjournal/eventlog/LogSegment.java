@@ -0,0 +1,145 @@
+package com.researchjournal.eventlog;
+
+import com.researchjournal.entity.PaperStatus;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// One preallocated, memory-mapped file of fixed-size records:
+//   header: magic(4) format(4) baseSequence(8)
+//   record: sequence(8) timestamp(8) paperId(8) actorId(8) subjectId(8) type(1) from(1) to(1) pad(1) crc32c(4)
+// Unwritten space is zero, so recovery stops at the first record whose sequence or checksum is off.
+class LogSegment {
+    
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 48;
+    private static final int MAGIC = 0x504C4F47;
+    private static final int FORMAT = 1;
+    private static final long NONE = 0L;
+    
+    final Path file;
+    final long baseSequence;
+    final int capacity;
+    private final MappedByteBuffer buffer;
+    // Written only by the appender; readers see complete records up to this count
+    private volatile int count;
+    
+    private LogSegment(Path file, long baseSequence, int capacity, MappedByteBuffer buffer) {
+        this.file = file;
+        this.baseSequence = baseSequence;
+        this.capacity = capacity;
+        this.buffer = buffer;
+    }
+    
+    static LogSegment create(Path file, long baseSequence, int capacity) throws IOException {
+        LogSegment segment = new LogSegment(file, baseSequence, capacity, map(file, capacity));
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putInt(4, FORMAT);
+        segment.buffer.putLong(8, baseSequence);
+        return segment;
+    }
+    
+    // The capacity comes from the file itself, so changing the configured size only affects new segments
+    static LogSegment open(Path file) throws IOException {
+        int capacity = (int) ((Files.size(file) - HEADER_SIZE) / RECORD_SIZE);
+        if (capacity <= 0) {
+            throw new IOException("Truncated event log segment: " + file);
+        }
+        MappedByteBuffer buffer = map(file, capacity);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IOException("Not an event log segment: " + file);
+        }
+        LogSegment segment = new LogSegment(file, buffer.getLong(8), capacity, buffer);
+        int valid = 0;
+        while (valid < capacity && segment.isValid(valid)) {
+            valid++;
+        }
+        segment.count = valid;
+        return segment;
+    }
+    
+    private static MappedByteBuffer map(Path file, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping beyond the end grows the file to its full, zero-filled size
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        }
+    }
+    
+    int count() {
+        return count;
+    }
+    
+    boolean isFull() {
+        return count >= capacity;
+    }
+    
+    long lastSequence() {
+        return baseSequence + count - 1;
+    }
+    
+    void append(LifecycleEvent event) {
+        int offset = HEADER_SIZE + count * RECORD_SIZE;
+        buffer.putLong(offset, event.sequence());
+        buffer.putLong(offset + 8, event.timestampMillis());
+        buffer.putLong(offset + 16, event.paperId());
+        buffer.putLong(offset + 24, event.actorId() != null ? event.actorId() : NONE);
+        buffer.putLong(offset + 32, event.subjectId() != null ? event.subjectId() : NONE);
+        buffer.put(offset + 40, (byte) event.type().ordinal());
+        buffer.put(offset + 41, statusCode(event.fromStatus()));
+        buffer.put(offset + 42, statusCode(event.toStatus()));
+        buffer.put(offset + 43, (byte) 0);
+        buffer.putInt(offset + 44, checksum(offset));
+        count++;
+    }
+    
+    // index is relative to this segment; callers stay below count()
+    LifecycleEvent read(int index) {
+        int offset = HEADER_SIZE + index * RECORD_SIZE;
+        long actorId = buffer.getLong(offset + 24);
+        long subjectId = buffer.getLong(offset + 32);
+        return new LifecycleEvent(
+                buffer.getLong(offset),
+                buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16),
+                LifecycleEventType.values()[buffer.get(offset + 40)],
+                status(buffer.get(offset + 41)),
+                status(buffer.get(offset + 42)),
+                actorId != NONE ? actorId : null,
+                subjectId != NONE ? subjectId : null);
+    }
+    
+    long timestampAt(int index) {
+        return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE + 8);
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    private boolean isValid(int index) {
+        int offset = HEADER_SIZE + index * RECORD_SIZE;
+        int type = buffer.get(offset + 40);
+        return buffer.getLong(offset) == baseSequence + index
+                && type >= 0 && type < LifecycleEventType.values().length
+                && buffer.getInt(offset + 44) == checksum(offset);
+    }
+    
+    private int checksum(int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, RECORD_SIZE - 4));
+        return (int) crc.getValue();
+    }
+    
+    private static byte statusCode(PaperStatus status) {
+        return status == null ? 0 : (byte) (status.ordinal() + 1);
+    }
+    
+    private static PaperStatus status(byte code) {
+        return code == 0 ? null : PaperStatus.values()[code - 1];
+    }
+}
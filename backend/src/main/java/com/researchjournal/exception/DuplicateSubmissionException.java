@@ -0,0 +1,14 @@
+package com.researchjournal.exception;
+
+import lombok.Getter;
+
+@Getter
+public class DuplicateSubmissionException extends RuntimeException {
+    
+    private final Long duplicateOfId;
+    
+    public DuplicateSubmissionException(String message, Long duplicateOfId) {
+        super(message);
+        this.duplicateOfId = duplicateOfId;
+    }
+}
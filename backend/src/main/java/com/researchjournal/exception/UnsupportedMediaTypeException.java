@@ -0,0 +1,8 @@
+package com.researchjournal.exception;
+
+public class UnsupportedMediaTypeException extends RuntimeException {
+    
+    public UnsupportedMediaTypeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,4 @@
+package com.researchjournal.extraction;
+
+public record ExtractedContent(String text, boolean truncated) {
+}
@@ -0,0 +1,8 @@
+package com.researchjournal.extraction;
+
+public class ExtractionLimitException extends RuntimeException {
+    
+    public ExtractionLimitException(String message) {
+        super(message);
+    }
+}
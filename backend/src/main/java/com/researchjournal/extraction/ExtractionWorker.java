@@ -0,0 +1,39 @@
+package com.researchjournal.extraction;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Main class of the short-lived JVM that IsolatedExtractor starts for each manuscript.
+// Arguments: manuscript file, original file name, output file, then the extractor limits.
+// The text goes to the output file, the reason for a failure to the last line of stderr.
+public final class ExtractionWorker {
+    
+    static final int COMPLETED = 0;
+    static final int TRUNCATED = 10;
+    static final int LIMIT_EXCEEDED = 11;
+    static final int FAILED = 12;
+    // -XX:+ExitOnOutOfMemoryError exits with this code
+    static final int OUT_OF_MEMORY = 3;
+    
+    private ExtractionWorker() {
+    }
+    
+    public static void main(String[] args) {
+        int status;
+        try {
+            ManuscriptTextExtractor extractor = ManuscriptTextExtractor.fromArguments(args, 3);
+            // The parent enforces the time limit by killing this process
+            ExtractedContent content = extractor.extract(Path.of(args[0]), null, args[1], Long.MAX_VALUE);
+            Files.writeString(Path.of(args[2]), content.text(), StandardCharsets.UTF_8);
+            status = content.truncated() ? TRUNCATED : COMPLETED;
+        } catch (ExtractionLimitException ex) {
+            System.err.println(ex.getMessage());
+            status = LIMIT_EXCEEDED;
+        } catch (Exception ex) {
+            System.err.println(ex);
+            status = FAILED;
+        }
+        System.exit(status);
+    }
+}
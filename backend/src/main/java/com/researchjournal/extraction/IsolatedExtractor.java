@@ -0,0 +1,189 @@
+package com.researchjournal.extraction;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+
+// Enforces the per-manuscript limits from outside the parser. With extraction.isolation=process (the
+// default) every manuscript is parsed in a child JVM capped by -Xmx and killed at the time limit, so a
+// hostile PDF can neither exhaust the server's heap nor keep a worker busy inside PDDocument.load.
+// extraction.isolation=thread parses in-process and abandons the parsing thread at the time limit;
+// it bounds time but not memory.
+@Slf4j
+@Component
+public class IsolatedExtractor {
+    
+    private static final String LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+    
+    private final ManuscriptTextExtractor extractor;
+    private final boolean isolateProcess;
+    private final long timeoutNanos;
+    private final int workerHeapMb;
+    private final List<String> classpathArguments;
+    private final ExecutorService parsers;
+    
+    public IsolatedExtractor(ManuscriptTextExtractor extractor,
+                             @Value("${extraction.isolation:process}") String isolation,
+                             @Value("${extraction.timeout-seconds:60}") long timeoutSeconds,
+                             @Value("${extraction.worker-heap-mb:256}") int workerHeapMb,
+                             @Value("${extraction.worker-classpath:}") String workerClasspath) {
+        this.extractor = extractor;
+        this.isolateProcess = !"thread".equalsIgnoreCase(isolation);
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        this.workerHeapMb = workerHeapMb;
+        this.classpathArguments = classpathArguments(workerClasspath.isBlank()
+                ? System.getProperty("java.class.path") : workerClasspath);
+        AtomicInteger counter = new AtomicInteger();
+        this.parsers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "text-extraction-parser-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        log.info("Manuscript text extraction runs {}", isolateProcess
+                ? "in worker JVMs with " + workerHeapMb + " MB heap" : "in-process");
+    }
+    
+    public boolean supports(String fileName) {
+        return extractor.supports(fileName);
+    }
+    
+    // Throws ExtractionLimitException when the manuscript needs more time or memory than allowed
+    public ExtractedContent extract(Path localFile, InputStream content, String fileName) throws IOException {
+        return isolateProcess ? extractInWorker(localFile, content, fileName) : extractOnThread(localFile, content, fileName);
+    }
+    
+    private ExtractedContent extractInWorker(Path localFile, InputStream content, String fileName) throws IOException {
+        List<Path> scratch = new ArrayList<>();
+        Process process = null;
+        try {
+            Path input = localFile;
+            if (input == null) {
+                // Remote blobs are copied once so the worker can read them with random access
+                input = Files.createTempFile("manuscript-", suffix(fileName));
+                scratch.add(input);
+                Files.copy(content, input, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path output = Files.createTempFile("manuscript-", ".txt");
+            scratch.add(output);
+            Path errors = Files.createTempFile("manuscript-", ".err");
+            scratch.add(errors);
+            
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-Xmx" + workerHeapMb + "m");
+            command.add("-XX:+ExitOnOutOfMemoryError");
+            command.add("-XX:TieredStopAtLevel=1");
+            command.add("-Djava.awt.headless=true");
+            command.add("-Dlogback.configurationFile=logback-extraction-worker.xml");
+            command.addAll(classpathArguments);
+            command.add(input.toString());
+            command.add(fileName);
+            command.add(output.toString());
+            command.addAll(List.of(extractor.limitArguments()));
+            
+            process = new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(errors.toFile())
+                    .start();
+            if (!process.waitFor(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new ExtractionLimitException("Extraction exceeded its time limit");
+            }
+            return switch (process.exitValue()) {
+                case ExtractionWorker.COMPLETED -> new ExtractedContent(Files.readString(output, StandardCharsets.UTF_8), false);
+                case ExtractionWorker.TRUNCATED -> new ExtractedContent(Files.readString(output, StandardCharsets.UTF_8), true);
+                case ExtractionWorker.LIMIT_EXCEEDED -> throw new ExtractionLimitException(lastLine(errors));
+                case ExtractionWorker.OUT_OF_MEMORY -> throw new ExtractionLimitException("Extraction exceeded its memory limit");
+                default -> throw new IOException("Extraction worker failed (exit " + process.exitValue() + "): " + lastLine(errors));
+            };
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the extraction worker", ex);
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            for (Path path : scratch) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    private ExtractedContent extractOnThread(Path localFile, InputStream content, String fileName) throws IOException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        Future<ExtractedContent> future = parsers.submit(() -> extractor.extract(localFile, content, fileName, deadline));
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // The parser stops at its next deadline check; nobody waits for it
+            future.cancel(true);
+            throw new ExtractionLimitException("Extraction exceeded its time limit");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(cause);
+        }
+    }
+    
+    // A Spring Boot fat jar keeps its dependencies nested, so the worker is started through the
+    // jar's own launcher; the thin jar of the "startup" build and IDE runs use the classpath as is
+    private static List<String> classpathArguments(String classpath) {
+        String worker = ExtractionWorker.class.getName();
+        if (!classpath.contains(java.io.File.pathSeparator) && classpath.endsWith(".jar")) {
+            try (JarFile jar = new JarFile(classpath)) {
+                if (jar.getEntry("BOOT-INF/classes/") != null) {
+                    return List.of("-cp", classpath, "-Dloader.main=" + worker, LAUNCHER);
+                }
+            } catch (IOException ex) {
+                log.warn("Could not inspect {}: {}", classpath, ex.getMessage());
+            }
+        }
+        return List.of("-cp", classpath, worker);
+    }
+    
+    private static String suffix(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(dot).toLowerCase(Locale.ROOT) : ".bin";
+    }
+    
+    private static String lastLine(Path errors) throws IOException {
+        List<String> lines = Files.readAllLines(errors, StandardCharsets.UTF_8);
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            if (!lines.get(i).isBlank()) {
+                return lines.get(i).trim();
+            }
+        }
+        return "no output";
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        parsers.shutdownNow();
+    }
+}
@@ -0,0 +1,239 @@
+package com.researchjournal.extraction;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+@Component
+public class ManuscriptTextExtractor {
+    
+    private static final Pattern HYPHENATED_BREAK = Pattern.compile("(\\p{L})-\\s*\\n\\s*(\\p{L})");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String WORD_NAMESPACE = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    
+    private final int maxPages;
+    private final int maxChars;
+    private final long maxMemoryMb;
+    private final long maxDocxXmlMb;
+    
+    public ManuscriptTextExtractor(@Value("${extraction.max-pages:500}") int maxPages,
+                                   @Value("${extraction.max-chars:2000000}") int maxChars,
+                                   @Value("${extraction.max-memory-mb:32}") long maxMemoryMb,
+                                   @Value("${extraction.max-docx-xml-mb:64}") long maxDocxXmlMb) {
+        this.maxPages = maxPages;
+        this.maxChars = maxChars;
+        this.maxMemoryMb = maxMemoryMb;
+        this.maxDocxXmlMb = maxDocxXmlMb;
+    }
+    
+    // Passed on to the worker JVM so it parses with the same limits
+    public String[] limitArguments() {
+        return new String[]{String.valueOf(maxPages), String.valueOf(maxChars),
+                String.valueOf(maxMemoryMb), String.valueOf(maxDocxXmlMb)};
+    }
+    
+    static ManuscriptTextExtractor fromArguments(String[] args, int offset) {
+        return new ManuscriptTextExtractor(Integer.parseInt(args[offset]), Integer.parseInt(args[offset + 1]),
+                Long.parseLong(args[offset + 2]), Long.parseLong(args[offset + 3]));
+    }
+    
+    public boolean supports(String fileName) {
+        String lower = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        return lower.endsWith(".pdf") || lower.endsWith(".docx");
+    }
+    
+    // Either localFile or content is used; local files let PDFBox read with random access
+    public ExtractedContent extract(Path localFile, InputStream content, String fileName,
+                                    long deadlineNanos) throws IOException {
+        BoundedWriter writer = new BoundedWriter(maxChars);
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        try {
+            if (lower.endsWith(".pdf")) {
+                extractPdf(localFile, content, writer, deadlineNanos);
+            } else if (lower.endsWith(".docx")) {
+                extractDocx(localFile != null ? new FileInputStream(localFile.toFile()) : content, writer, deadlineNanos);
+            } else {
+                throw new IllegalArgumentException("Unsupported manuscript type: " + fileName);
+            }
+        } catch (CapacityReachedException ex) {
+            // Keep what fits; the rest of an oversized manuscript is not worth the memory
+        }
+        return new ExtractedContent(normalize(writer.toString()), writer.isTruncated());
+    }
+    
+    private void extractPdf(Path localFile, InputStream content, Writer writer, long deadlineNanos) throws IOException {
+        // Keeps PDFBox's stream buffers off the heap beyond this size; the heap itself is capped by
+        // the worker JVM's -Xmx (see IsolatedExtractor)
+        MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(maxMemoryMb * 1024 * 1024);
+        try (PDDocument document = localFile != null
+                ? PDDocument.load(localFile.toFile(), memory)
+                : PDDocument.load(content, memory)) {
+            PDFTextStripper stripper = new PDFTextStripper() {
+                @Override
+                protected void startPage(PDPage page) throws IOException {
+                    checkDeadline(deadlineNanos);
+                    super.startPage(page);
+                }
+            };
+            stripper.setSortByPosition(false);
+            stripper.setEndPage(maxPages);
+            stripper.writeText(document, writer);
+        }
+    }
+    
+    private void extractDocx(InputStream content, Writer writer, long deadlineNanos) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(content)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if ("word/document.xml".equals(entry.getName())) {
+                    // Counting the inflated bytes guards against zip bombs
+                    InputStream xml = new LimitedInputStream(zip, maxDocxXmlMb * 1024 * 1024);
+                    readDocumentXml(xml, writer, deadlineNanos);
+                    return;
+                }
+            }
+        }
+        throw new IOException("Not a Word document: word/document.xml is missing");
+    }
+    
+    private void readDocumentXml(InputStream xml, Writer writer, long deadlineNanos) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(xml);
+            boolean inText = false;
+            int events = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (++events % 4096 == 0) {
+                    checkDeadline(deadlineNanos);
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = true;
+                        case "tab" -> writer.write('\t');
+                        case "br", "cr" -> writer.write('\n');
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    if ("t".equals(reader.getLocalName())) {
+                        inText = false;
+                    } else if ("p".equals(reader.getLocalName())) {
+                        writer.write('\n');
+                    }
+                } else if (inText && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                    writer.write(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException ex) {
+            throw new IOException("Malformed Word document", ex);
+        }
+    }
+    
+    private static void checkDeadline(long deadlineNanos) {
+        if (System.nanoTime() > deadlineNanos) {
+            throw new ExtractionLimitException("Extraction exceeded its time limit");
+        }
+    }
+    
+    static String normalize(String raw) {
+        String text = Normalizer.normalize(raw, Normalizer.Form.NFKC);
+        text = HYPHENATED_BREAK.matcher(text).replaceAll("$1$2");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+    
+    private static final class CapacityReachedException extends RuntimeException {
+        private CapacityReachedException() {
+            super(null, null, false, false);
+        }
+    }
+    
+    private static final class BoundedWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder();
+        private final int capacity;
+        private boolean truncated;
+        
+        private BoundedWriter(int capacity) {
+            this.capacity = capacity;
+        }
+        
+        @Override
+        public void write(char[] chars, int off, int len) {
+            int room = capacity - buffer.length();
+            if (len > room) {
+                buffer.append(chars, off, Math.max(0, room));
+                truncated = true;
+                throw new CapacityReachedException();
+            }
+            buffer.append(chars, off, len);
+        }
+        
+        @Override
+        public void flush() {
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        private boolean isTruncated() {
+            return truncated;
+        }
+        
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+    
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+        
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1 && --remaining < 0) {
+                throw new ExtractionLimitException("Document body exceeds the size limit");
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0 && (remaining -= read) < 0) {
+                throw new ExtractionLimitException("Document body exceeds the size limit");
+            }
+            return read;
+        }
+        
+        @Override
+        public void close() {
+            // The zip stream is closed by its owner
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.researchjournal.perf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Per-request cost an endpoint is expected to stay within; -1 leaves a dimension unchecked.
+// Budgets are QueryBudgetTest's measurements on its dataset plus two statements; list endpoints grow past them
+// with real data (one more statement per @BatchSize batch), so re-measure there when changing a query.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    
+    // JDBC statements prepared by Hibernate while handling the request
+    int statements() default -1;
+    
+    // Entities loaded into the persistence context
+    int entities() default -1;
+    
+    // Bytes allocated by the request thread, in kilobytes
+    long allocatedKb() default -1;
+}
@@ -0,0 +1,44 @@
+package com.researchjournal.perf;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Measures each controller call from just before the handler runs until the response is written,
+// so authentication lookups in the filter chain are not charged to the endpoint
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    
+    private final QueryBudgetMonitor monitor;
+    private final boolean enforce;
+    
+    public QueryBudgetInterceptor(QueryBudgetMonitor monitor, boolean enforce) {
+        this.monitor = monitor;
+        this.enforce = enforce;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            int statementLimit = enforce && budget != null ? budget.statements() : -1;
+            RequestCost.begin(request.getMethod() + " " + uri(request), statementLimit);
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestCost.Snapshot cost = RequestCost.end();
+        if (cost != null && handler instanceof HandlerMethod handlerMethod) {
+            monitor.record(request.getMethod(), uri(request), handlerMethod.getMethodAnnotation(QueryBudget.class), cost);
+        }
+    }
+    
+    // The mapping pattern rather than the concrete path, so /api/papers/1 and /api/papers/2 share stats
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
@@ -0,0 +1,120 @@
+package com.researchjournal.perf;
+
+import com.researchjournal.dto.QueryBudgetDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-endpoint worst case and budget violations since startup, exported as metrics and as a report
+@Slf4j
+@Component
+public class QueryBudgetMonitor {
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    
+    public QueryBudgetMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public void record(String method, String uri, QueryBudget budget, RequestCost.Snapshot cost) {
+        String endpoint = method + " " + uri;
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats(method, uri, budget));
+        stats.statements.record(cost.statements());
+        stats.entities.record(cost.entities());
+        if (cost.allocatedBytes() >= 0) {
+            stats.allocated.record(cost.allocatedBytes());
+        }
+        
+        String violation = violation(budget, cost);
+        synchronized (stats) {
+            stats.requests++;
+            stats.maxStatements = Math.max(stats.maxStatements, cost.statements());
+            stats.maxEntities = Math.max(stats.maxEntities, cost.entities());
+            stats.maxAllocatedBytes = Math.max(stats.maxAllocatedBytes, cost.allocatedBytes());
+            if (violation != null) {
+                stats.violations++;
+                stats.lastViolation = violation;
+            }
+        }
+        if (violation != null) {
+            stats.violationCounter.increment();
+            log.warn("{} over budget: {}", endpoint, violation);
+        }
+    }
+    
+    public List<QueryBudgetDTO> getReport() {
+        List<QueryBudgetDTO> report = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> {
+            synchronized (stats) {
+                report.add(QueryBudgetDTO.builder()
+                        .endpoint(endpoint)
+                        .requests(stats.requests)
+                        .maxStatements(stats.maxStatements)
+                        .maxEntities(stats.maxEntities)
+                        .maxAllocatedKb(stats.maxAllocatedBytes < 0 ? null : stats.maxAllocatedBytes / 1024)
+                        .statementBudget(stats.budget != null && stats.budget.statements() >= 0 ? stats.budget.statements() : null)
+                        .entityBudget(stats.budget != null && stats.budget.entities() >= 0 ? stats.budget.entities() : null)
+                        .allocatedKbBudget(stats.budget != null && stats.budget.allocatedKb() >= 0 ? stats.budget.allocatedKb() : null)
+                        .violations(stats.violations)
+                        .lastViolation(stats.lastViolation)
+                        .build());
+            }
+        });
+        // Violations first, then the endpoints issuing the most statements
+        report.sort(Comparator.comparing(QueryBudgetDTO::getViolations).reversed()
+                .thenComparing(Comparator.comparing(QueryBudgetDTO::getMaxStatements).reversed()));
+        return report;
+    }
+    
+    private static String violation(QueryBudget budget, RequestCost.Snapshot cost) {
+        if (budget == null) {
+            return null;
+        }
+        List<String> exceeded = new ArrayList<>();
+        if (budget.statements() >= 0 && cost.statements() > budget.statements()) {
+            exceeded.add(cost.statements() + " statements > " + budget.statements());
+        }
+        if (budget.entities() >= 0 && cost.entities() > budget.entities()) {
+            exceeded.add(cost.entities() + " entities > " + budget.entities());
+        }
+        if (budget.allocatedKb() >= 0 && cost.allocatedBytes() / 1024 > budget.allocatedKb()) {
+            exceeded.add(cost.allocatedBytes() / 1024 + " KB allocated > " + budget.allocatedKb());
+        }
+        return exceeded.isEmpty() ? null : String.join(", ", exceeded);
+    }
+    
+    private final class EndpointStats {
+        private final QueryBudget budget;
+        private final DistributionSummary statements;
+        private final DistributionSummary entities;
+        private final DistributionSummary allocated;
+        private final Counter violationCounter;
+        private long requests;
+        private int maxStatements;
+        private int maxEntities;
+        private long maxAllocatedBytes = -1;
+        private long violations;
+        private String lastViolation;
+        
+        private EndpointStats(String method, String uri, QueryBudget budget) {
+            this.budget = budget;
+            this.statements = DistributionSummary.builder("http.server.requests.sql.statements")
+                    .tag("method", method).tag("uri", uri).register(meterRegistry);
+            this.entities = DistributionSummary.builder("http.server.requests.entities.loaded")
+                    .tag("method", method).tag("uri", uri).register(meterRegistry);
+            this.allocated = DistributionSummary.builder("http.server.requests.allocated")
+                    .baseUnit("bytes").tag("method", method).tag("uri", uri).register(meterRegistry);
+            this.violationCounter = Counter.builder("http.server.requests.budget.violations")
+                    .tag("method", method).tag("uri", uri).register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.researchjournal.perf;
+
+import com.researchjournal.exception.QueryBudgetExceededException;
+
+import java.lang.management.ManagementFactory;
+
+// Cost counters of the request running on the current thread; Hibernate callbacks on threads
+// without a request (schedulers, background indexing) are ignored
+public final class RequestCost {
+    
+    private static final ThreadLocal<RequestCost> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    
+    private final String endpoint;
+    private final int statementLimit;
+    private final long allocatedAtStart;
+    private int statements;
+    private int entities;
+    
+    private RequestCost(String endpoint, int statementLimit) {
+        this.endpoint = endpoint;
+        this.statementLimit = statementLimit;
+        this.allocatedAtStart = allocatedBytes();
+    }
+    
+    // statementLimit >= 0 makes the statement past the limit fail the request
+    public static void begin(String endpoint, int statementLimit) {
+        CURRENT.set(new RequestCost(endpoint, statementLimit));
+    }
+    
+    public static Snapshot end() {
+        RequestCost cost = CURRENT.get();
+        if (cost == null) {
+            return null;
+        }
+        CURRENT.remove();
+        long allocated = cost.allocatedAtStart < 0 ? -1 : allocatedBytes() - cost.allocatedAtStart;
+        return new Snapshot(cost.statements, cost.entities, allocated);
+    }
+    
+    static void onStatement() {
+        RequestCost cost = CURRENT.get();
+        if (cost == null) {
+            return;
+        }
+        cost.statements++;
+        if (cost.statementLimit >= 0 && cost.statements > cost.statementLimit) {
+            throw new QueryBudgetExceededException(
+                    cost.endpoint + " exceeded its budget of " + cost.statementLimit + " SQL statements");
+        }
+    }
+    
+    static void onEntityLoaded() {
+        RequestCost cost = CURRENT.get();
+        if (cost != null) {
+            cost.entities++;
+        }
+    }
+    
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+    
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+    
+    // allocatedBytes is -1 when the JVM cannot measure per-thread allocation
+    public record Snapshot(int statements, int entities, long allocatedBytes) {
+    }
+}
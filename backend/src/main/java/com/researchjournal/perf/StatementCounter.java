@@ -0,0 +1,13 @@
+package com.researchjournal.perf;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Sees every SQL string Hibernate prepares, including native and Spring Data @Modifying queries
+public class StatementCounter implements StatementInspector {
+    
+    @Override
+    public String inspect(String sql) {
+        RequestCost.onStatement();
+        return sql;
+    }
+}
@@ -0,0 +1,21 @@
+package com.researchjournal.repository;
+
+import com.researchjournal.entity.ExtractedText;
+import com.researchjournal.entity.ExtractionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ExtractedTextRepository extends JpaRepository<ExtractedText, String> {
+    
+    @Query("SELECT t.digest FROM ExtractedText t WHERE t.status = :status AND t.extractedAt < :before ORDER BY t.extractedAt")
+    List<String> findDigestsByStatusBefore(@Param("status") ExtractionStatus status,
+                                           @Param("before") LocalDateTime before,
+                                           Pageable pageable);
+}
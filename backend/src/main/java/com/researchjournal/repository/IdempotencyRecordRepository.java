@@ -0,0 +1,64 @@
+package com.researchjournal.repository;
+
+import com.researchjournal.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Atomic across replicas: returns 1 for the request that created the row, 0 if it already existed
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (record_key, user_id, fingerprint, completed, locked_at_millis, expires_at_millis) " +
+            "VALUES (:key, :userId, :fingerprint, false, :now, :expires)", nativeQuery = true)
+    int tryClaim(@Param("key") String key, @Param("userId") Long userId, @Param("fingerprint") String fingerprint,
+                 @Param("now") long now, @Param("expires") long expires);
+    
+    // Takes over a claim whose request died without completing or releasing it
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.lockedAtMillis = :now WHERE r.recordKey = :key " +
+            "AND r.completed = false AND r.lockedAtMillis = :lockedAt")
+    int takeOver(@Param("key") String key, @Param("lockedAt") long lockedAt, @Param("now") long now);
+    
+    // Heartbeat of a running request; 0 once it completed, was released or was taken over
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.lockedAtMillis = :now WHERE r.recordKey = :key " +
+            "AND r.completed = false AND r.lockedAtMillis = :lockedAt")
+    int renew(@Param("key") String key, @Param("lockedAt") long lockedAt, @Param("now") long now);
+    
+    // Joins the request's business transaction, so the mark commits or rolls back with its changes
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.committedAtMillis = :now, r.resourceType = :type, r.resourceId = :id " +
+            "WHERE r.recordKey = :key AND r.completed = false AND r.committedAtMillis IS NULL")
+    int markCommitted(@Param("key") String key, @Param("type") String type, @Param("id") Long id, @Param("now") long now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.completed = true, r.responseStatus = :status, r.contentType = :contentType, " +
+            "r.etag = :etag, r.responseBody = :body WHERE r.recordKey = :key AND r.completed = false")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("contentType") String contentType,
+                 @Param("etag") String etag, @Param("body") byte[] body);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordKey = :key AND r.completed = false AND r.committedAtMillis IS NULL")
+    int release(@Param("key") String key);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordKey = :key AND r.expiresAtMillis < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") long now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAtMillis < :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,21 @@
+package com.researchjournal.repository;
+
+import com.researchjournal.entity.Issue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IssueRepository extends JpaRepository<Issue, Long> {
+    boolean existsByVolumeIdAndNumber(Long volumeId, Integer number);
+    
+    @Query("SELECT i FROM Issue i JOIN FETCH i.volume WHERE i.id = :id")
+    Optional<Issue> findWithVolumeById(@Param("id") Long id);
+    
+    @Query("SELECT i FROM Issue i JOIN FETCH i.volume v ORDER BY v.number DESC, i.number DESC")
+    List<Issue> findAllWithVolume();
+}
@@ -0,0 +1,14 @@
+package com.researchjournal.repository;
+
+import com.researchjournal.entity.LifecycleEventRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LifecycleEventRecordRepository extends JpaRepository<LifecycleEventRecord, Long> {
+    
+    List<LifecycleEventRecord> findBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Pageable pageable);
+}
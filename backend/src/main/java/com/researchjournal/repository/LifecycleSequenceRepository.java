@@ -0,0 +1,17 @@
+package com.researchjournal.repository;
+
+import com.researchjournal.entity.LifecycleSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LifecycleSequenceRepository extends JpaRepository<LifecycleSequence, Integer> {
+    
+    // Concurrent first writers on several replicas end up with the same single row
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO lifecycle_sequence (id, last_sequence, last_timestamp_millis) VALUES ("
+            + LifecycleSequence.ID + ", 0, 0)", nativeQuery = true)
+    int createIfAbsent();
+}
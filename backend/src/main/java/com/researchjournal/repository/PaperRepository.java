@@ -1,14 +1,25 @@
 package com.researchjournal.repository;
 
+import com.researchjournal.entity.Issue;
 import com.researchjournal.entity.Paper;
 import com.researchjournal.entity.PaperStatus;
 import com.researchjournal.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaperRepository extends JpaRepository<Paper, Long> {
@@ -29,6 +40,180 @@ public interface PaperRepository extends JpaRepository<Paper, Long> {
     
     List<Paper> findByStatusOrderByPublishedAtDesc(PaperStatus status);
     
+    // Lightweight rows for public search: id plus the facet dimensions, newest first
+    @Query("SELECT p.id, p.keywords, p.publishedAt, a.institution FROM Paper p JOIN p.author a " +
+           "WHERE p.status IN :statuses AND (p.title LIKE %:keyword% OR p.abstractText LIKE %:keyword% " +
+           "OR p.keywords LIKE %:keyword% OR p.id IN :textMatches) " +
+           "ORDER BY p.publishedAt DESC, p.id DESC")
+    List<Object[]> searchPublicRows(@Param("keyword") String keyword,
+                                    @Param("statuses") Collection<PaperStatus> statuses,
+                                    @Param("textMatches") Collection<Long> textMatches);
+    
+    // Forward-only cursor for catalog exports, oldest change first so clients can resume from the last updatedAt.
+    // Connector/J only streams rows instead of buffering the whole result for a fetch size of Integer.MIN_VALUE.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Paper p JOIN FETCH p.author WHERE p.status IN :statuses " +
+           "AND (:since IS NULL OR p.updatedAt >= :since) ORDER BY p.updatedAt, p.id")
+    Stream<Paper> streamForExport(@Param("statuses") Collection<PaperStatus> statuses,
+                                  @Param("since") LocalDateTime since);
+    
+    // Keyset page for OAI-PMH harvesting: rows strictly after (afterTime, afterId) in (updatedAt, id) order
+    @Query("SELECT p FROM Paper p JOIN FETCH p.author WHERE p.status IN :statuses AND p.updatedAt < :until " +
+           "AND (p.updatedAt > :afterTime OR (p.updatedAt = :afterTime AND p.id > :afterId)) ORDER BY p.updatedAt, p.id")
+    List<Paper> findHarvestPage(@Param("statuses") Collection<PaperStatus> statuses,
+                                @Param("afterTime") LocalDateTime afterTime,
+                                @Param("afterId") Long afterId,
+                                @Param("until") LocalDateTime until,
+                                Pageable pageable);
+    
+    @Query("SELECT MIN(p.updatedAt) FROM Paper p WHERE p.status IN :statuses")
+    LocalDateTime findEarliestUpdate(@Param("statuses") Collection<PaperStatus> statuses);
+    
     @Query("SELECT COUNT(p) FROM Paper p WHERE p.status = :status")
     Long countByStatus(@Param("status") PaperStatus status);
+    
+    @Query("SELECT COUNT(p) > 0 FROM Paper p JOIN p.assignedReviewers r WHERE p.id = :paperId AND r.id = :reviewerId")
+    boolean isReviewerAssigned(@Param("paperId") Long paperId, @Param("reviewerId") Long reviewerId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Paper p SET p.fileDigest = :digest, p.fileSize = :size, p.lockVersion = p.lockVersion + 1 WHERE p.id = :id")
+    int updateFileDigest(@Param("id") Long id, @Param("digest") String digest, @Param("size") Long size);
+    
+    @Query("SELECT p.id, p.keywords, p.status FROM Paper p")
+    List<Object[]> findKeywordRows();
+    
+    @Query("SELECT p.id, p.keywords, p.status FROM Paper p WHERE p.id = :id")
+    List<Object[]> findKeywordRow(@Param("id") Long id);
+    
+    @Query("SELECT p.id, p.keywords, p.status FROM Paper p WHERE p.id IN :ids")
+    List<Object[]> findKeywordRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id, p.title, p.keywords, a.firstName, a.lastName FROM Paper p JOIN p.author a " +
+           "WHERE p.status IN :statuses")
+    List<Object[]> findSuggestRows(@Param("statuses") Collection<PaperStatus> statuses);
+    
+    @Query("SELECT p.id, p.title, p.keywords, a.firstName, a.lastName FROM Paper p JOIN p.author a " +
+           "WHERE p.id = :id AND p.status IN :statuses")
+    List<Object[]> findSuggestRow(@Param("id") Long id, @Param("statuses") Collection<PaperStatus> statuses);
+    
+    @Query("SELECT p.id, p.title, p.keywords, a.firstName, a.lastName FROM Paper p JOIN p.author a " +
+           "WHERE p.id IN :ids AND p.status IN :statuses")
+    List<Object[]> findSuggestRowsByIdIn(@Param("ids") Collection<Long> ids,
+                                         @Param("statuses") Collection<PaperStatus> statuses);
+    
+    // paper id, submittedAt, publishedAt, editor id
+    @Query("SELECT p.id, p.submittedAt, p.publishedAt, e.id FROM Paper p LEFT JOIN p.assignedEditor e " +
+           "WHERE p.publishedAt IS NOT NULL")
+    List<Object[]> findDecisionRows();
+    
+    @Query("SELECT p.id, p.submittedAt, p.publishedAt, e.id FROM Paper p LEFT JOIN p.assignedEditor e " +
+           "WHERE p.id = :id AND p.publishedAt IS NOT NULL")
+    List<Object[]> findDecisionRow(@Param("id") Long id);
+    
+    @Query("SELECT p.id, p.submittedAt, p.publishedAt, e.id FROM Paper p LEFT JOIN p.assignedEditor e " +
+           "WHERE p.id IN :ids AND p.publishedAt IS NOT NULL")
+    List<Object[]> findDecisionRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // paper id, author id, status, title, abstract, file digest
+    @Query("SELECT p.id, p.author.id, p.status, p.title, p.abstractText, p.fileDigest FROM Paper p")
+    List<Object[]> findDuplicateCheckRows();
+    
+    @Query("SELECT p.id, p.author.id, p.status, p.title, p.abstractText, p.fileDigest FROM Paper p WHERE p.id = :id")
+    List<Object[]> findDuplicateCheckRow(@Param("id") Long id);
+    
+    @Query("SELECT p.id, p.author.id, p.status, p.title, p.abstractText, p.fileDigest FROM Paper p WHERE p.id IN :ids")
+    List<Object[]> findDuplicateCheckRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id, p.title FROM Paper p")
+    List<Object[]> findIdAndTitle();
+    
+    @Query("SELECT p.id, p.title, p.citedPaperIds FROM Paper p WHERE p.status IN :statuses ORDER BY p.id")
+    List<Object[]> findCitationRows(@Param("statuses") Collection<PaperStatus> statuses);
+    
+    @Query("SELECT p.fileDigest, p.citationsDigest FROM Paper p WHERE p.id = :id")
+    List<Object[]> findCitationSource(@Param("id") Long id);
+    
+    @Query("SELECT p.id FROM Paper p WHERE p.fileDigest IS NOT NULL " +
+           "AND (p.citationsDigest IS NULL OR p.citationsDigest <> p.fileDigest)")
+    List<Long> findIdsWithStaleCitations();
+    
+    // Not a visible change to the paper, so neither lockVersion nor updatedAt moves
+    @Modifying
+    @Transactional
+    @Query("UPDATE Paper p SET p.citedPaperIds = :cited, p.citationsDigest = :digest WHERE p.id = :id")
+    int updateCitations(@Param("id") Long id, @Param("cited") String cited, @Param("digest") String digest);
+    
+    @Query("SELECT p.id, p.status FROM Paper p")
+    List<Object[]> findIdAndStatus();
+    
+    @Query("SELECT p.id FROM Paper p WHERE p.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+    
+    @Query("SELECT p.fileDigest FROM Paper p WHERE p.id = :id")
+    Optional<String> findFileDigestById(@Param("id") Long id);
+    
+    @Query("SELECT p.id FROM Paper p WHERE p.fileDigest = :digest")
+    List<Long> findIdsByFileDigest(@Param("digest") String digest);
+    
+    @Query("SELECT p.id, p.filePath, p.fileName, p.fileDigest FROM Paper p WHERE p.filePath IS NOT NULL")
+    List<Object[]> findStoredManuscripts();
+    
+    @Query("SELECT p.id, p.filePath, p.fileName FROM Paper p WHERE p.fileDigest = :digest AND p.filePath IS NOT NULL")
+    List<Object[]> findStoredManuscriptsByDigest(@Param("digest") String digest);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Paper p SET p.plagiarismScore = :score, p.plagiarismReport = :report, p.lockVersion = p.lockVersion + 1 WHERE p.id = :id")
+    int updatePlagiarismResult(@Param("id") Long id, @Param("score") Double score, @Param("report") String report);
+    
+    @Query("SELECT p.id, p.status FROM Paper p WHERE p.id IN :ids")
+    List<Object[]> findStatusRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Set-based status change for many papers. Only rows still in one of the "from" statuses are
+    // touched, so the caller can compare the count with what it validated. publishedAt and
+    // editorComments keep their value when passed as null (CASE, not COALESCE: Hibernate cannot
+    // type a parameter leading a COALESCE in a SET clause).
+    @Modifying
+    @Query("UPDATE Paper p SET p.status = :status, " +
+           "p.publishedAt = CASE WHEN :publishedAt IS NULL THEN p.publishedAt ELSE :publishedAt END, " +
+           "p.editorComments = CASE WHEN :comments IS NULL THEN p.editorComments ELSE :comments END, p.updatedAt = :now, " +
+           "p.lockVersion = p.lockVersion + 1 WHERE p.id IN :ids AND p.status IN :from")
+    int updateStatusIn(@Param("ids") Collection<Long> ids,
+                       @Param("from") Collection<PaperStatus> from,
+                       @Param("status") PaperStatus status,
+                       @Param("publishedAt") LocalDateTime publishedAt,
+                       @Param("comments") String comments,
+                       @Param("now") LocalDateTime now);
+    
+    // paper id, status, issue id (null when not placed)
+    @Query("SELECT p.id, p.status, i.id FROM Paper p LEFT JOIN p.issue i WHERE p.id IN :ids")
+    List<Object[]> findPlacementRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id, p.status FROM Paper p WHERE p.issue.id = :issueId")
+    List<Object[]> findStatusRowsByIssueId(@Param("issueId") Long issueId);
+    
+    // Table of contents in issue order: paper id, title, author first and last name, institution,
+    // status, first page, last page, publishedAt
+    @Query("SELECT p.id, p.title, a.firstName, a.lastName, a.institution, p.status, p.firstPage, p.lastPage, p.publishedAt " +
+           "FROM Paper p JOIN p.author a WHERE p.issue.id = :issueId ORDER BY p.issuePosition, p.id")
+    List<Object[]> findTocRows(@Param("issueId") Long issueId);
+    
+    // Placement is not part of the paper's representation, so neither lockVersion nor updatedAt moves
+    @Modifying
+    @Query("UPDATE Paper p SET p.issue = NULL, p.issuePosition = NULL, p.firstPage = NULL, p.lastPage = NULL " +
+           "WHERE p.issue.id = :issueId")
+    int clearIssue(@Param("issueId") Long issueId);
+    
+    @Modifying
+    @Query("UPDATE Paper p SET p.issue = :issue, p.issuePosition = :position, p.firstPage = :firstPage, " +
+           "p.lastPage = :lastPage WHERE p.id = :id")
+    int placeInIssue(@Param("id") Long id,
+                     @Param("issue") Issue issue,
+                     @Param("position") Integer position,
+                     @Param("firstPage") Integer firstPage,
+                     @Param("lastPage") Integer lastPage);
 }
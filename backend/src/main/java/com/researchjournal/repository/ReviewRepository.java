@@ -3,6 +3,8 @@ package com.researchjournal.repository;
 import com.researchjournal.entity.Review;
 import com.researchjournal.entity.ReviewStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +16,28 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByReviewerIdAndStatus(Long reviewerId, ReviewStatus status);
     List<Review> findByPaperIdAndPaperVersion(Long paperId, Integer paperVersion);
     Boolean existsByPaperIdAndReviewerId(Long paperId, Long reviewerId);
+    
+    @Query("SELECT r.id, r.lockVersion FROM Review r WHERE r.paper.id = :paperId ORDER BY r.id")
+    List<Object[]> findVersionsByPaperId(@Param("paperId") Long paperId);
+    
+    @Query("SELECT p.lockVersion, u.updatedAt FROM Review r JOIN r.paper p JOIN r.reviewer u WHERE r.id = :id")
+    List<Object[]> findEmbeddedVersionsById(@Param("id") Long id);
+    
+    // review id, createdAt, completedAt, reviewer id, editor id, paper id
+    @Query("SELECT r.id, r.createdAt, r.completedAt, r.reviewer.id, e.id, p.id FROM Review r JOIN r.paper p " +
+           "LEFT JOIN p.assignedEditor e WHERE r.completedAt IS NOT NULL")
+    List<Object[]> findCompletedTurnaroundRows();
+    
+    @Query("SELECT r.id, r.createdAt, r.completedAt, r.reviewer.id, e.id, p.id FROM Review r JOIN r.paper p " +
+           "LEFT JOIN p.assignedEditor e WHERE r.id = :id AND r.completedAt IS NOT NULL")
+    List<Object[]> findCompletedTurnaroundRow(@Param("id") Long id);
+    
+    // paper id, submittedAt, editor id, first completed review
+    @Query("SELECT p.id, p.submittedAt, e.id, MIN(r.completedAt) FROM Review r JOIN r.paper p " +
+           "LEFT JOIN p.assignedEditor e WHERE r.completedAt IS NOT NULL GROUP BY p.id, p.submittedAt, e.id")
+    List<Object[]> findFirstReviewRows();
+    
+    @Query("SELECT p.id, p.submittedAt, e.id, MIN(r.completedAt) FROM Review r JOIN r.paper p " +
+           "LEFT JOIN p.assignedEditor e WHERE p.id = :paperId AND r.completedAt IS NOT NULL GROUP BY p.id, p.submittedAt, e.id")
+    List<Object[]> findFirstReviewRow(@Param("paperId") Long paperId);
 }
@@ -2,7 +2,11 @@ package com.researchjournal.repository;
 
 import com.researchjournal.entity.Revision;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +16,9 @@ public interface RevisionRepository extends JpaRepository<Revision, Long> {
     List<Revision> findByPaperId(Long paperId);
     List<Revision> findByPaperIdOrderByVersionNumberDesc(Long paperId);
     Optional<Revision> findByPaperIdAndVersionNumber(Long paperId, Integer versionNumber);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Revision r SET r.fileDigest = :digest, r.fileSize = :size WHERE r.id = :id")
+    int updateFileDigest(@Param("id") Long id, @Param("digest") String digest, @Param("size") Long size);
 }
@@ -3,10 +3,16 @@ package com.researchjournal.repository;
 import com.researchjournal.entity.Role;
 import com.researchjournal.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,4 +20,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email);
     List<User> findByRole(Role role);
     List<User> findByRoleAndEnabled(Role role, Boolean enabled);
+    
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findBumpedTokenVersions();
+    
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+    
+    // Every user a paper representation can embed: author, editor, assigned reviewers and review authors
+    @Query("SELECT u.id, u.updatedAt FROM User u WHERE u.id IN (SELECT p.author.id FROM Paper p WHERE p.id = :paperId) " +
+           "OR u.id IN (SELECT p.assignedEditor.id FROM Paper p WHERE p.id = :paperId) " +
+           "OR u.id IN (SELECT r.id FROM Paper p JOIN p.assignedReviewers r WHERE p.id = :paperId) " +
+           "OR u.id IN (SELECT rv.reviewer.id FROM Review rv WHERE rv.paper.id = :paperId) ORDER BY u.id")
+    List<Object[]> findVersionsEmbeddedInPaper(@Param("paperId") Long paperId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
@@ -0,0 +1,13 @@
+package com.researchjournal.repository;
+
+import com.researchjournal.entity.Volume;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VolumeRepository extends JpaRepository<Volume, Long> {
+    List<Volume> findAllByOrderByNumberDesc();
+    boolean existsByNumber(Integer number);
+}
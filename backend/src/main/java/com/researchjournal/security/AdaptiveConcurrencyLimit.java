@@ -0,0 +1,106 @@
+package com.researchjournal.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gradient-based concurrency limit: compares recent latency with a slowly moving baseline and
+// shrinks the number of requests allowed in flight as soon as latency starts to climb,
+// so excess work is rejected before it piles up in the connection pool and Tomcat queues.
+@Component
+public class AdaptiveConcurrencyLimit {
+    
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double BASELINE_DRIFT = 0.002;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double anonymousShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private volatile double estimatedLimit;
+    private double baselineRttNanos;
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    
+    public AdaptiveConcurrencyLimit(@Value("${ratelimit.adaptive.initial-limit:40}") int initialLimit,
+                                    @Value("${ratelimit.adaptive.min-limit:8}") int minLimit,
+                                    @Value("${ratelimit.adaptive.max-limit:400}") int maxLimit,
+                                    @Value("${ratelimit.adaptive.anonymous-share:0.5}") double anonymousShare) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.anonymousShare = anonymousShare;
+        this.estimatedLimit = initialLimit;
+    }
+    
+    // Anonymous traffic only gets a share of the limit so signed-in users keep working under load
+    public boolean tryAcquire(boolean authenticated) {
+        int limit = authenticated ? getLimit() : Math.max(1, (int) (getLimit() * anonymousShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    // sampled=false for requests whose latency says nothing about our own capacity, like uploads
+    public void release(long startNanos, boolean sampled) {
+        int current = inFlight.getAndDecrement();
+        if (sampled) {
+            onSample(System.nanoTime() - startNanos, current);
+        }
+    }
+    
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        long now = System.nanoTime();
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+        if (now - windowStart < WINDOW_NANOS || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        
+        double shortRtt = (double) windowRttSum / windowSamples;
+        // The baseline follows improvements at once but creeps up only slowly, so a sustained
+        // slowdown eventually becomes the new normal without masking a fresh one
+        if (baselineRttNanos == 0 || shortRtt < baselineRttNanos) {
+            baselineRttNanos = shortRtt;
+        } else {
+            baselineRttNanos += (shortRtt - baselineRttNanos) * BASELINE_DRIFT;
+        }
+        
+        double limit = estimatedLimit;
+        // Only grow when the limit was actually in use; an idle server proves nothing
+        if (windowMaxInFlight >= limit / 2 || shortRtt > baselineRttNanos) {
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineRttNanos / shortRtt));
+            double queueAllowance = Math.sqrt(limit);
+            double target = limit * gradient + queueAllowance;
+            limit = limit * (1 - SMOOTHING) + target * SMOOTHING;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, limit));
+        }
+        
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+}
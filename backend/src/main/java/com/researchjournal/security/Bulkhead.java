@@ -0,0 +1,89 @@
+package com.researchjournal.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Isolation compartments for request handling with their default sizes: requests allowed to run at once,
+// requests allowed to wait and for how long, and the size and checkout timeout of their own connection pool.
+// Override with bulkhead.<class>.max-concurrent, .max-queued, .queue-timeout-ms, .pool-size and .pool-timeout-ms.
+public enum Bulkhead {
+    
+    PUBLIC(30, 10, 200, 4, 1000),
+    READ(40, 20, 500, 4, 3000),
+    WRITE(30, 30, 2000, 6, 5000),
+    UPLOAD(8, 4, 1000, 2, 5000);
+    
+    private static final String PAPERS = "/api/papers";
+    private static final Pattern PAPER = Pattern.compile("/api/papers/\\d+");
+    private static final Pattern REVISION = Pattern.compile("/api/papers/\\d+/revision");
+    
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final int poolSize;
+    private final long poolTimeoutMillis;
+    
+    Bulkhead(int maxConcurrent, int maxQueued, long queueTimeoutMillis, int poolSize, long poolTimeoutMillis) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.poolSize = poolSize;
+        this.poolTimeoutMillis = poolTimeoutMillis;
+    }
+    
+    public int defaultMaxConcurrent() {
+        return maxConcurrent;
+    }
+    
+    public int defaultMaxQueued() {
+        return maxQueued;
+    }
+    
+    public long defaultQueueTimeoutMillis() {
+        return queueTimeoutMillis;
+    }
+    
+    public int defaultPoolSize() {
+        return poolSize;
+    }
+    
+    public long defaultPoolTimeoutMillis() {
+        return poolTimeoutMillis;
+    }
+    
+    public String propertyName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+    
+    // Everything under /api/public and all anonymous calls share one compartment, so crawlers can
+    // never occupy the threads and connections that signed-in staff need for reading and writing.
+    // Only signed-in manuscript uploads get UPLOAD; a multipart content type alone earns nothing.
+    public static Bulkhead of(HttpServletRequest request, boolean authenticated) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!authenticated || path.startsWith("/api/public/")) {
+            return PUBLIC;
+        }
+        String method = request.getMethod();
+        if (isManuscriptUpload(method, path, request.getContentType())) {
+            return UPLOAD;
+        }
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) {
+            return READ;
+        }
+        return WRITE;
+    }
+    
+    // POST /api/papers and PUT /api/papers/{id} as multipart, and POST /api/papers/{id}/revision
+    private static boolean isManuscriptUpload(String method, String path, String contentType) {
+        boolean multipart = contentType != null
+                && contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+        if (HttpMethod.POST.matches(method)) {
+            return (multipart && PAPERS.equals(path)) || REVISION.matcher(path).matches();
+        }
+        return HttpMethod.PUT.matches(method) && multipart && PAPER.matcher(path).matches();
+    }
+}
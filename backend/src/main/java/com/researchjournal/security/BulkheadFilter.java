@@ -0,0 +1,83 @@
+package com.researchjournal.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Runs after rate limiting; while the request holds its bulkhead, its JDBC work uses that bulkhead's pool
+@Component
+public class BulkheadFilter extends OncePerRequestFilter {
+    
+    private final BulkheadRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    
+    public BulkheadFilter(BulkheadRegistry registry,
+                          ObjectMapper objectMapper,
+                          @Value("${bulkhead.enabled:true}") boolean enabled) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.getPrincipal() instanceof UserPrincipal;
+        Bulkhead bulkhead = Bulkhead.of(request, authenticated);
+        
+        boolean admitted;
+        try {
+            admitted = registry.enter(bulkhead);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response);
+            return;
+        }
+        
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            registry.exit(bulkhead);
+        }
+    }
+    
+    private void reject(HttpServletResponse response) throws IOException {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", "Server is busy, please retry shortly");
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,111 @@
+package com.researchjournal.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Concurrency limits per bulkhead. A request beyond max-concurrent waits up to queue-timeout-ms, but only
+// max-queued requests may wait at once, so a bulkhead never holds more than max-concurrent + max-queued
+// Tomcat threads and the remaining threads stay available to the other bulkheads.
+@Slf4j
+@Component
+public class BulkheadRegistry {
+    
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+    
+    private final Map<Bulkhead, Compartment> compartments = new EnumMap<>(Bulkhead.class);
+    
+    public BulkheadRegistry(Environment environment,
+                            MeterRegistry meterRegistry,
+                            @Value("${server.tomcat.threads.max:200}") int requestThreads) {
+        int reservable = 0;
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            Compartment compartment = new Compartment(environment, bulkhead, meterRegistry);
+            compartments.put(bulkhead, compartment);
+            reservable += compartment.maxConcurrent + compartment.maxQueued;
+        }
+        if (reservable > requestThreads) {
+            log.warn("Bulkheads can hold {} request threads but Tomcat has {}; a busy bulkhead may still starve the others",
+                    reservable, requestThreads);
+        }
+    }
+    
+    // The bulkhead the current thread is handling a request for, or null outside request handling
+    public static Bulkhead current() {
+        return CURRENT.get();
+    }
+    
+    // Returns false when the bulkhead is saturated and its queue is full or the wait timed out
+    public boolean enter(Bulkhead bulkhead) throws InterruptedException {
+        Compartment compartment = compartments.get(bulkhead);
+        if (!compartment.acquire()) {
+            compartment.rejected.increment();
+            return false;
+        }
+        CURRENT.set(bulkhead);
+        return true;
+    }
+    
+    public void exit(Bulkhead bulkhead) {
+        CURRENT.remove();
+        compartments.get(bulkhead).permits.release();
+    }
+    
+    private static final class Compartment {
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final long queueTimeoutNanos;
+        // Fair, so queued requests are admitted in arrival order rather than overtaken by new ones
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Timer queueWait;
+        private final Counter rejected;
+        
+        private Compartment(Environment environment, Bulkhead bulkhead, MeterRegistry meterRegistry) {
+            String prefix = "bulkhead." + bulkhead.propertyName();
+            this.maxConcurrent = Math.max(1, environment.getProperty(prefix + ".max-concurrent", Integer.class, bulkhead.defaultMaxConcurrent()));
+            this.maxQueued = Math.max(0, environment.getProperty(prefix + ".max-queued", Integer.class, bulkhead.defaultMaxQueued()));
+            this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(
+                    environment.getProperty(prefix + ".queue-timeout-ms", Long.class, bulkhead.defaultQueueTimeoutMillis()));
+            this.permits = new Semaphore(maxConcurrent, true);
+            
+            String name = bulkhead.propertyName();
+            this.queueWait = Timer.builder("http.server.bulkhead.queue.wait").tag("bulkhead", name).register(meterRegistry);
+            this.rejected = Counter.builder("http.server.requests.rejected")
+                    .tag("class", name).tag("reason", "bulkhead").register(meterRegistry);
+            Gauge.builder("http.server.bulkhead.limit", () -> maxConcurrent).tag("bulkhead", name).register(meterRegistry);
+            Gauge.builder("http.server.bulkhead.active", permits, p -> maxConcurrent - p.availablePermits())
+                    .tag("bulkhead", name).register(meterRegistry);
+            Gauge.builder("http.server.bulkhead.queued", queued, AtomicInteger::get).tag("bulkhead", name).register(meterRegistry);
+        }
+        
+        private boolean acquire() throws InterruptedException {
+            // tryAcquire() without a timeout would barge past queued requests
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return false;
+            }
+            long start = System.nanoTime();
+            try {
+                return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                queued.decrementAndGet();
+                queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
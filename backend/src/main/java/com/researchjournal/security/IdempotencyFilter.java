@@ -0,0 +1,291 @@
+package com.researchjournal.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchjournal.service.IdempotencyService;
+import com.researchjournal.service.IdempotencyService.Claim;
+import com.researchjournal.service.IdempotencyService.StoredResponse;
+import com.researchjournal.storage.Digests;
+import com.researchjournal.storage.MultipartStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Idempotency-Key support for signed-in POST/PUT/PATCH calls: the first request with a key runs
+// and its response is stored, retries with the same key and payload get that response back without
+// running again. Runs inside the bulkhead so its lookups use the request's connection pool.
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final int maxBufferedBody;
+    
+    public IdempotencyFilter(IdempotencyService idempotencyService,
+                             ObjectMapper objectMapper,
+                             @Value("${idempotency.max-buffered-body-kb:256}") int maxBufferedBodyKb) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.maxBufferedBody = maxBufferedBodyKb * 1024;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return request.getHeader(HEADER) == null
+                || !(HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method) || HttpMethod.PATCH.matches(method))
+                || !path.startsWith("/api/")
+                || path.startsWith("/api/auth/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long userId = currentUserId();
+        if (userId == null) {
+            // Left to the authorization rules further down the chain
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        HttpServletRequest effectiveRequest;
+        String bodyDigest;
+        if (isMultipart(request)) {
+            // Uploads are streamed to storage, so only their first max-buffered-body-kb is read here
+            // and handed to the controller ahead of the rest of the stream
+            byte[] head = request.getInputStream().readNBytes(maxBufferedBody);
+            bodyDigest = multipartDigest(request, head);
+            effectiveRequest = new BufferedBodyRequest(request, head, request.getInputStream());
+        } else {
+            byte[] body = request.getInputStream().readNBytes(maxBufferedBody + 1);
+            if (body.length > maxBufferedBody) {
+                reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large for " + HEADER);
+                return;
+            }
+            MessageDigest digest = Digests.sha256();
+            digest.update(body);
+            bodyDigest = Digests.hex(digest);
+            effectiveRequest = new BufferedBodyRequest(request, body, null);
+        }
+        String fingerprint = IdempotencyService.fingerprint(request.getMethod(), path, bodyDigest);
+        
+        Claim claim = idempotencyService.claim(userId, key, fingerprint);
+        switch (claim.state()) {
+            case REPLAY -> replay(response, claim.response());
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                reject(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still being processed");
+            }
+            case MISMATCH -> reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+            case CLAIMED -> execute(effectiveRequest, response, filterChain, claim, fingerprint);
+        }
+    }
+    
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         Claim claim, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        idempotencyService.begin(claim);
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (isFinal(wrapper.getStatus())) {
+                idempotencyService.complete(claim, fingerprint, new StoredResponse(wrapper.getStatus(),
+                        wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG), wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            idempotencyService.end();
+            if (!stored) {
+                idempotencyService.release(claim);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+    
+    // Successes and client errors are the answer to this request; server errors, conflicts and
+    // throttling are worth retrying, so they release the key instead
+    private static boolean isFinal(int status) {
+        return status < 500 && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value()
+                && status != HttpStatus.REQUEST_TIMEOUT.value();
+    }
+    
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader("Idempotent-Replayed", "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.etag());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+    
+    // The announced length, then each part's name, file name, content type and as much of its content as
+    // the head holds. Parsed rather than hashed raw, so a retry with a new boundary still matches.
+    private static String multipartDigest(HttpServletRequest request, byte[] head) {
+        MessageDigest digest = Digests.sha256();
+        digest.update(Long.toString(request.getContentLengthLong()).getBytes(StandardCharsets.UTF_8));
+        String boundary = MultipartStream.boundary(request.getContentType());
+        if (boundary == null) {
+            return Digests.hex(digest);
+        }
+        MultipartStream multipart = new MultipartStream(new ByteArrayInputStream(head), boundary);
+        byte[] buffer = new byte[8192];
+        try {
+            MultipartStream.Part part;
+            while ((part = multipart.nextPart()) != null) {
+                digest.update((byte) 0);
+                digest.update((part.name() + "\n" + part.fileName() + "\n" + part.contentType()).getBytes(StandardCharsets.UTF_8));
+                int read;
+                while ((read = part.body().read(buffer)) >= 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        } catch (IOException ex) {
+            // The head ends inside a part, or the body is malformed and the controller will say so
+        }
+        return Digests.hex(digest);
+    }
+    
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+    
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", message);
+        error.put("status", status.value());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+    
+    // The body, or for uploads its head, had to be read for the fingerprint; this hands the same
+    // bytes to the controller, followed by whatever is left of the request stream
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private final InputStream rest;
+        private ServletInputStream restStream;
+        
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body, InputStream rest) {
+            super(request);
+            this.body = body;
+            this.rest = rest;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            if (rest == null) {
+                return stream(new ByteArrayInputStream(body));
+            }
+            // The rest of the request can only be read once
+            if (restStream == null) {
+                restStream = stream(new SequenceInputStream(new ByteArrayInputStream(body), rest));
+            }
+            return restStream;
+        }
+        
+        private static ServletInputStream stream(InputStream in) {
+            return new ServletInputStream() {
+                private boolean finished;
+                
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+                
+                @Override
+                public int read() throws IOException {
+                    int b = in.read();
+                    finished = b < 0;
+                    return b;
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int count = in.read(b, off, len);
+                    finished = count < 0;
+                    return count;
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        
+        @Override
+        public int getContentLength() {
+            return rest == null ? body.length : super.getContentLength();
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return rest == null ? body.length : super.getContentLengthLong();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.researchjournal.security;
+
+import com.researchjournal.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class LoginThrottle {
+    
+    private static final int SWEEP_INTERVAL = 1024;
+    
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final AtomicInteger writesSinceSweep = new AtomicInteger();
+    
+    @Value("${security.login.max-account-failures:5}")
+    private int maxAccountFailures;
+    
+    @Value("${security.login.max-ip-failures:50}")
+    private int maxIpFailures;
+    
+    @Value("${security.login.failure-window-seconds:900}")
+    private long failureWindowSeconds;
+    
+    @Value("${security.login.lockout-seconds:300}")
+    private long lockoutSeconds;
+    
+    public void checkAllowed(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        checkKey(accountKey(email), now);
+        checkKey(ipKey(clientIp), now);
+    }
+    
+    public void recordFailure(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        recordFailure(accountKey(email), maxAccountFailures, now);
+        recordFailure(ipKey(clientIp), maxIpFailures, now);
+        if (writesSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            writesSinceSweep.set(0);
+            sweep(now);
+        }
+    }
+    
+    public void recordSuccess(String email) {
+        attempts.remove(accountKey(email));
+    }
+    
+    private void checkKey(String key, long now) {
+        Attempts entry = attempts.get(key);
+        if (entry != null && entry.blockedUntil > now) {
+            long retryAfter = Math.max(1, (entry.blockedUntil - now) / 1000);
+            throw new TooManyRequestsException("Too many failed login attempts, please try again later", retryAfter);
+        }
+    }
+    
+    private void recordFailure(String key, int limit, long now) {
+        long windowMillis = failureWindowSeconds * 1000;
+        attempts.compute(key, (k, entry) -> {
+            if (entry == null || now - entry.windowStart > windowMillis) {
+                entry = new Attempts(now);
+            }
+            entry.failures++;
+            if (entry.failures >= limit) {
+                entry.blockedUntil = now + lockoutSeconds * 1000;
+                entry.failures = 0;
+                entry.windowStart = now;
+            }
+            return entry;
+        });
+    }
+    
+    private void sweep(long now) {
+        long windowMillis = failureWindowSeconds * 1000;
+        attempts.entrySet().removeIf(e -> e.getValue().blockedUntil <= now
+                && now - e.getValue().windowStart > windowMillis);
+    }
+    
+    private String accountKey(String email) {
+        return "account:" + (email != null ? email.toLowerCase(Locale.ROOT) : "");
+    }
+    
+    private String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+    
+    private static final class Attempts {
+        private int failures;
+        private long windowStart;
+        private long blockedUntil;
+        
+        private Attempts(long windowStart) {
+            this.windowStart = windowStart;
+        }
+    }
+}
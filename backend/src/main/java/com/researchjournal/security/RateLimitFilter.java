@@ -0,0 +1,113 @@
+package com.researchjournal.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Runs after JWT authentication so signed-in users are limited by id rather than by IP
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private final RequestRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Map<TrafficClass, Counter> rateLimited = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, Counter> shed = new EnumMap<>(TrafficClass.class);
+    
+    public RateLimitFilter(RequestRateLimiter rateLimiter,
+                           AdaptiveConcurrencyLimit concurrencyLimit,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${ratelimit.enabled:true}") boolean enabled) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            rateLimited.put(trafficClass, Counter.builder("http.server.requests.rejected")
+                    .tag("class", trafficClass.propertyName()).tag("reason", "rate-limit").register(meterRegistry));
+            shed.put(trafficClass, Counter.builder("http.server.requests.rejected")
+                    .tag("class", trafficClass.propertyName()).tag("reason", "overload").register(meterRegistry));
+        }
+        Gauge.builder("http.server.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight).register(meterRegistry);
+        Gauge.builder("http.server.ratelimit.clients", rateLimiter, RequestRateLimiter::trackedClients).register(meterRegistry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        TrafficClass trafficClass = TrafficClass.of(request);
+        Long userId = currentUserId();
+        boolean authenticated = userId != null;
+        String clientKey = authenticated ? "user:" + userId : "ip:" + request.getRemoteAddr();
+        
+        long retryAfter = rateLimiter.tryAcquire(trafficClass, clientKey, authenticated);
+        if (retryAfter > 0) {
+            rateLimited.get(trafficClass).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please slow down", retryAfter);
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire(authenticated)) {
+            shed.get(trafficClass).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry shortly", 1);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Upload and export time is dominated by the client's bandwidth, not by our capacity
+            concurrencyLimit.release(start, trafficClass != TrafficClass.UPLOAD && trafficClass != TrafficClass.EXPORT);
+        }
+    }
+    
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, String message, long retryAfterSeconds) throws IOException {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", message);
+        error.put("status", status.value());
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,94 @@
+package com.researchjournal.security;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Token buckets per client and traffic class. Budgets come from
+// ratelimit.<class>.<anonymous|authenticated>.rate / .burst, falling back to the TrafficClass defaults.
+@Component
+public class RequestRateLimiter {
+    
+    private static final int SWEEP_INTERVAL = 4096;
+    
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger createdSinceSweep = new AtomicInteger();
+    private final Map<TrafficClass, Budget> anonymousBudgets = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, Budget> authenticatedBudgets = new EnumMap<>(TrafficClass.class);
+    
+    public RequestRateLimiter(Environment environment) {
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            anonymousBudgets.put(trafficClass, budget(environment, trafficClass, false));
+            authenticatedBudgets.put(trafficClass, budget(environment, trafficClass, true));
+        }
+    }
+    
+    // Returns 0 when the request may proceed, otherwise the seconds until a token is available
+    public long tryAcquire(TrafficClass trafficClass, String clientKey, boolean authenticated) {
+        Budget budget = (authenticated ? authenticatedBudgets : anonymousBudgets).get(trafficClass);
+        if (budget.ratePerNano <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        String key = trafficClass.ordinal() + ":" + clientKey;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(budget.burst, now));
+            if (createdSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+                createdSinceSweep.set(0);
+                sweep(now);
+            }
+        }
+        return bucket.take(budget, now);
+    }
+    
+    public int trackedClients() {
+        return buckets.size();
+    }
+    
+    // A bucket idle for minutes has refilled and carries no state worth keeping
+    private void sweep(long now) {
+        long idle = TimeUnit.MINUTES.toNanos(5);
+        buckets.values().removeIf(bucket -> bucket.idleSince(now) > idle);
+    }
+    
+    private static Budget budget(Environment environment, TrafficClass trafficClass, boolean authenticated) {
+        String prefix = "ratelimit." + trafficClass.propertyName() + (authenticated ? ".authenticated" : ".anonymous");
+        double rate = environment.getProperty(prefix + ".rate", Double.class, trafficClass.defaultRate(authenticated));
+        double burst = environment.getProperty(prefix + ".burst", Double.class, trafficClass.defaultBurst(authenticated));
+        return new Budget(rate / TimeUnit.SECONDS.toNanos(1), Math.max(1, burst));
+    }
+    
+    private record Budget(double ratePerNano, double burst) {
+    }
+    
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+        
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.updatedAt = now;
+        }
+        
+        private synchronized long take(Budget budget, long now) {
+            tokens = Math.min(budget.burst, tokens + (now - updatedAt) * budget.ratePerNano);
+            updatedAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            double waitNanos = (1 - tokens) / budget.ratePerNano;
+            return Math.max(1, (long) Math.ceil(waitNanos / TimeUnit.SECONDS.toNanos(1)));
+        }
+        
+        private synchronized long idleSince(long now) {
+            return now - updatedAt;
+        }
+    }
+}
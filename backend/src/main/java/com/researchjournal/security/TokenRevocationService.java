@@ -0,0 +1,64 @@
+package com.researchjournal.security;
+
+import com.researchjournal.event.UserChangedEvent;
+import com.researchjournal.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+    
+    private final UserRepository userRepository;
+    
+    // userId -> lowest token version still accepted; users never bumped are absent
+    private final Map<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+    
+    private volatile boolean loaded;
+    
+    // Loaded on the first token check instead of during context refresh, so startup (and the
+    // CDS training run, which has no database) does not wait on this query
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                // Revocations recorded before the load must not be lowered by older rows
+                for (Object[] row : userRepository.findBumpedTokenVersions()) {
+                    minimumVersions.merge((Long) row[0], (Integer) row[1], Math::max);
+                }
+                loaded = true;
+            }
+        }
+    }
+    
+    public boolean isCurrent(UserPrincipal principal) {
+        ensureLoaded();
+        return principal.getTokenVersion() >= minimumVersions.getOrDefault(principal.getId(), 0);
+    }
+    
+    public void revokeBefore(Long userId, int tokenVersion) {
+        minimumVersions.merge(userId, tokenVersion, Math::max);
+    }
+    
+    public void revokeAll(Long userId) {
+        minimumVersions.put(userId, Integer.MAX_VALUE);
+    }
+    
+    // Role changes, disabling and deletion on another replica
+    @EventListener(condition = "#event.remote()")
+    public void onRemoteUserChanged(UserChangedEvent event) {
+        Optional<Integer> tokenVersion = userRepository.findTokenVersionById(event.userId());
+        if (tokenVersion.isPresent()) {
+            revokeBefore(event.userId(), tokenVersion.get());
+        } else {
+            revokeAll(event.userId());
+        }
+    }
+}
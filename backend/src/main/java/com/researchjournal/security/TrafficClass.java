@@ -0,0 +1,74 @@
+package com.researchjournal.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+import java.util.Set;
+
+// Endpoint classes with their default token-bucket budgets (requests per second and burst),
+// separately for anonymous clients (keyed by IP) and signed-in users (keyed by user id)
+public enum TrafficClass {
+    
+    AUTH(1, 10, 1, 10),
+    PUBLIC(20, 40, 50, 100),
+    SEARCH(3, 10, 10, 20),
+    LISTING(1, 2, 5, 10),
+    UPLOAD(0.05, 1, 0.2, 3),
+    EXPORT(0.01, 2, 0.05, 3),
+    API(10, 20, 30, 60);
+    
+    private static final Set<String> LISTING_PATHS = Set.of("/api/papers", "/api/reviews", "/api/users");
+    
+    private final double anonymousRate;
+    private final double anonymousBurst;
+    private final double authenticatedRate;
+    private final double authenticatedBurst;
+    
+    TrafficClass(double anonymousRate, double anonymousBurst, double authenticatedRate, double authenticatedBurst) {
+        this.anonymousRate = anonymousRate;
+        this.anonymousBurst = anonymousBurst;
+        this.authenticatedRate = authenticatedRate;
+        this.authenticatedBurst = authenticatedBurst;
+    }
+    
+    public double defaultRate(boolean authenticated) {
+        return authenticated ? authenticatedRate : anonymousRate;
+    }
+    
+    public double defaultBurst(boolean authenticated) {
+        return authenticated ? authenticatedBurst : anonymousBurst;
+    }
+    
+    public String propertyName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+    
+    public static TrafficClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            return UPLOAD;
+        }
+        if (path.startsWith("/api/public/search") || path.equals("/api/papers/search")) {
+            return SEARCH;
+        }
+        if (path.equals("/api/public/export")) {
+            return EXPORT;
+        }
+        if (path.startsWith("/api/public/")) {
+            return PUBLIC;
+        }
+        if (HttpMethod.GET.matches(request.getMethod()) && LISTING_PATHS.contains(path)) {
+            return LISTING;
+        }
+        return API;
+    }
+}
@@ -0,0 +1,65 @@
+package com.researchjournal.security;
+
+import com.researchjournal.entity.Role;
+import com.researchjournal.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+    
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final Role role;
+    private final int tokenVersion;
+    private final boolean enabled;
+    
+    public static UserPrincipal fromUser(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getRole(),
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0,
+                Boolean.TRUE.equals(user.getEnabled())
+        );
+    }
+    
+    // Built from verified token claims; the password hash never leaves the login path
+    public static UserPrincipal fromClaims(Long id, String email, Role role, int tokenVersion) {
+        return new UserPrincipal(id, email, null, role, tokenVersion, true);
+    }
+    
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+    
+    @Override
+    public String getUsername() {
+        return email;
+    }
+    
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+    
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+    
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+}
@@ -5,11 +5,11 @@ import com.researchjournal.entity.Role;
 import com.researchjournal.entity.User;
 import com.researchjournal.repository.UserRepository;
 import com.researchjournal.security.JwtTokenProvider;
+import com.researchjournal.security.LoginThrottle;
+import com.researchjournal.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,9 +17,9 @@ import org.springframework.stereotype.Service;
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginThrottle loginThrottle;
     private final JwtTokenProvider jwtTokenProvider;
-    private final AuthenticationManager authenticationManager;
     
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -28,7 +28,7 @@ public class AuthService {
         
         User user = User.builder()
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.encode(request.getPassword()))
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .institution(request.getInstitution())
@@ -40,7 +40,7 @@ public class AuthService {
         
         userRepository.save(user);
         
-        String token = jwtTokenProvider.generateToken(user.getEmail());
+        String token = jwtTokenProvider.generateToken(user);
         
         return AuthResponse.builder()
                 .token(token)
@@ -52,15 +52,27 @@ public class AuthService {
                 .build();
     }
     
-    public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginThrottle.checkAllowed(request.getEmail(), clientIp);
         
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        String encodedPassword = user != null ? user.getPassword() : passwordHasher.dummyHash();
         
-        String token = jwtTokenProvider.generateToken(authentication);
+        if (!passwordHasher.matches(request.getPassword(), encodedPassword) || user == null) {
+            loginThrottle.recordFailure(request.getEmail(), clientIp);
+            throw new BadCredentialsException("Invalid email or password");
+        }
+        if (!Boolean.TRUE.equals(user.getEnabled())) {
+            throw new DisabledException("User is disabled");
+        }
+        loginThrottle.recordSuccess(request.getEmail());
+        
+        if (passwordHasher.needsRehash(encodedPassword)) {
+            Long userId = user.getId();
+            passwordHasher.rehashAsync(request.getPassword(), hash -> userRepository.updatePassword(userId, hash));
+        }
+        
+        String token = jwtTokenProvider.generateToken(user);
         
         return AuthResponse.builder()
                 .token(token)
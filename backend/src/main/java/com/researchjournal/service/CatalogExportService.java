@@ -0,0 +1,237 @@
+package com.researchjournal.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchjournal.entity.Paper;
+import com.researchjournal.repository.PaperRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Streams the published catalog row by row from a database cursor straight into the response,
+// so memory use does not depend on how many papers are exported
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+    
+    public enum Format {
+        JSONL("application/x-ndjson", "jsonl"),
+        CSV("text/csv; charset=UTF-8", "csv"),
+        // Gzipped JSON lines, one per row group, each holding an array per column
+        COLUMNAR("application/gzip", "columns.jsonl.gz");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value);
+            }
+        }
+    }
+    
+    private static final String[] COLUMNS = {
+            "id", "title", "authors", "institution", "keywords", "abstract", "status", "publishedAt", "updatedAt", "version"
+    };
+    // Entities read through the cursor are dropped from the persistence context this often
+    private static final int DETACH_INTERVAL = 500;
+    private static final int ROW_GROUP_SIZE = 1000;
+    
+    private final PaperRepository paperRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(readOnly = true)
+    public void export(Format format, LocalDateTime since, HttpServletResponse response) throws IOException {
+        response.setContentType(format.contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog." + format.extension + "\"");
+        
+        try (Stream<Paper> papers = paperRepository.streamForExport(PublicSearchService.PUBLIC_STATUSES, since);
+             RowWriter writer = open(format, response.getOutputStream())) {
+            int rows = 0;
+            for (Iterator<Paper> it = papers.iterator(); it.hasNext(); ) {
+                writer.write(values(it.next()));
+                if (++rows % DETACH_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+    
+    private RowWriter open(Format format, OutputStream out) throws IOException {
+        return switch (format) {
+            case JSONL -> new JsonLinesWriter(generator(out));
+            case CSV -> new CsvWriter(out);
+            case COLUMNAR -> new ColumnarWriter(out);
+        };
+    }
+    
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+    
+    // Values in COLUMNS order
+    private static Object[] values(Paper paper) {
+        return new Object[]{
+                paper.getId(),
+                paper.getTitle(),
+                paper.getAuthor().getFirstName() + " " + paper.getAuthor().getLastName(),
+                paper.getAuthor().getInstitution(),
+                KeywordIndex.split(paper.getKeywords()),
+                paper.getAbstractText(),
+                paper.getStatus().name(),
+                format(paper.getPublishedAt()),
+                format(paper.getUpdatedAt()),
+                paper.getVersion()
+        };
+    }
+    
+    private static String format(LocalDateTime time) {
+        return time != null ? time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+    
+    private interface RowWriter extends Closeable {
+        void write(Object[] values) throws IOException;
+    }
+    
+    private static class JsonLinesWriter implements RowWriter {
+        
+        private final JsonGenerator generator;
+        
+        JsonLinesWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+        
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                generator.writeObjectField(COLUMNS[i], values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+    
+    private static class CsvWriter implements RowWriter {
+        
+        private final Writer writer;
+        
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeRow(COLUMNS);
+        }
+        
+        @Override
+        public void write(Object[] values) throws IOException {
+            writeRow(values);
+        }
+        
+        private void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof List<?> list) {
+                    value = String.join(";", list.stream().map(String::valueOf).toList());
+                }
+                if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+        
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+    
+    private class ColumnarWriter implements RowWriter {
+        
+        private final GZIPOutputStream gzip;
+        private final JsonGenerator generator;
+        private final Object[][] columns = new Object[COLUMNS.length][ROW_GROUP_SIZE];
+        private int rows;
+        
+        ColumnarWriter(OutputStream out) throws IOException {
+            this.gzip = new GZIPOutputStream(out, 64 * 1024);
+            this.generator = generator(gzip);
+        }
+        
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                columns[i][rows] = values[i];
+            }
+            if (++rows == ROW_GROUP_SIZE) {
+                writeRowGroup();
+            }
+        }
+        
+        private void writeRowGroup() throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("rows", rows);
+            generator.writeObjectFieldStart("columns");
+            for (int i = 0; i < COLUMNS.length; i++) {
+                generator.writeArrayFieldStart(COLUMNS[i]);
+                for (int row = 0; row < rows; row++) {
+                    generator.writeObject(columns[i][row]);
+                }
+                generator.writeEndArray();
+                Arrays.fill(columns[i], null);
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rows = 0;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (rows > 0) {
+                writeRowGroup();
+            }
+            generator.close();
+            gzip.finish();
+        }
+    }
+}
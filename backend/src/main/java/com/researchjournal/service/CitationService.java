@@ -0,0 +1,186 @@
+package com.researchjournal.service;
+
+import com.researchjournal.citation.CitationGraph;
+import com.researchjournal.citation.ReferenceMatcher;
+import com.researchjournal.dto.CitationDTO;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.repository.PaperRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Citations between journal papers. References are parsed from extracted manuscript text once per
+// manuscript version and stored on the citing paper; the graph over published papers, with citation
+// counts and impact scores, is rebuilt in memory when something changed and served from there.
+@Slf4j
+@Service
+public class CitationService {
+    
+    private final PaperRepository paperRepository;
+    private final TextExtractionService textExtractionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ForkJoinPool pool;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "citation-parser");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile CitationGraph graph = CitationGraph.EMPTY;
+    private volatile ReferenceMatcher matcher = ReferenceMatcher.EMPTY;
+    
+    public CitationService(PaperRepository paperRepository,
+                           TextExtractionService textExtractionService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${citations.parallelism:0}") int parallelism) {
+        this.paperRepository = paperRepository;
+        this.textExtractionService = textExtractionService;
+        this.eventPublisher = eventPublisher;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        executor.execute(() -> {
+            rebuild();
+            int parsed = 0;
+            for (Long paperId : paperRepository.findIdsWithStaleCitations()) {
+                if (refreshReferences(paperId)) {
+                    parsed++;
+                }
+            }
+            if (parsed > 0) {
+                rebuild();
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${citations.rebuild-interval-ms:300000}",
+               initialDelayString = "${citations.rebuild-interval-ms:300000}")
+    public void rebuildIfChanged() {
+        if (dirty.getAndSet(false)) {
+            rebuild();
+        }
+    }
+    
+    // Titles, statuses or manuscripts may have changed; only the replica that made the change re-parses
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaperChanged(PaperChangedEvent event) {
+        dirty.set(true);
+        if (!event.remote()) {
+            executor.execute(() -> refreshReferences(event.paperId()));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapersChanged(PapersChangedEvent event) {
+        dirty.set(true);
+        if (!event.remote()) {
+            executor.execute(() -> event.paperIds().forEach(this::refreshReferences));
+        }
+    }
+    
+    public Optional<List<CitationDTO>> getReferences(Long paperId) {
+        CitationGraph current = graph;
+        int node = current.indexOf(paperId);
+        return node < 0 ? Optional.empty() : Optional.of(convertToDTOs(current, current.references(node)));
+    }
+    
+    public Optional<List<CitationDTO>> getCitedBy(Long paperId) {
+        CitationGraph current = graph;
+        int node = current.indexOf(paperId);
+        return node < 0 ? Optional.empty() : Optional.of(convertToDTOs(current, current.citedBy(node)));
+    }
+    
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        Map<Long, String> titles = new HashMap<>();
+        for (Object[] row : paperRepository.findIdAndTitle()) {
+            titles.put((Long) row[0], (String) row[1]);
+        }
+        matcher = ReferenceMatcher.of(titles);
+        
+        List<Object[]> rows = paperRepository.findCitationRows(PublicSearchService.PUBLIC_STATUSES);
+        long[] ids = new long[rows.size()];
+        String[] paperTitles = new String[rows.size()];
+        long[][] references = new long[rows.size()][];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (Long) row[0];
+            paperTitles[i] = (String) row[1];
+            references[i] = parseIds((String) row[2]);
+        }
+        graph = CitationGraph.build(ids, paperTitles, references, pool);
+        log.info("Citation graph rebuilt with {} papers and {} citations in {} ms", graph.size(), graph.citationTotal(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private boolean refreshReferences(Long paperId) {
+        try {
+            List<Object[]> source = paperRepository.findCitationSource(paperId);
+            if (source.isEmpty()) {
+                return false;
+            }
+            String digest = (String) source.get(0)[0];
+            if (digest == null || digest.equals(source.get(0)[1])) {
+                return false;
+            }
+            // Not extracted yet: text extraction publishes another change event once it is
+            Optional<String> text = textExtractionService.getText(digest);
+            if (text.isEmpty()) {
+                return false;
+            }
+            
+            Set<Long> cited = matcher.match(text.get());
+            cited.remove(paperId);
+            String ids = cited.stream().map(String::valueOf).collect(Collectors.joining(","));
+            paperRepository.updateCitations(paperId, ids, digest);
+            dirty.set(true);
+            // Lets other replicas know their graph is stale
+            eventPublisher.publishEvent(new PaperChangedEvent(paperId));
+            return true;
+        } catch (Exception ex) {
+            log.warn("Could not parse references of paper {}: {}", paperId, ex.getMessage());
+            return false;
+        }
+    }
+    
+    private static long[] parseIds(String ids) {
+        if (ids == null || ids.isBlank()) {
+            return new long[0];
+        }
+        return Arrays.stream(ids.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+    
+    private static List<CitationDTO> convertToDTOs(CitationGraph graph, int[] nodes) {
+        return Arrays.stream(nodes)
+                .mapToObj(node -> CitationDTO.builder()
+                        .paperId(graph.paperId(node))
+                        .title(graph.title(node))
+                        .citationCount(graph.citationCount(node))
+                        .impactScore(Math.round(graph.impact(node) * 1000) / 1000.0)
+                        .build())
+                .sorted(Comparator.comparing(CitationDTO::getImpactScore).reversed())
+                .toList();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,240 @@
+package com.researchjournal.service;
+
+import com.researchjournal.citation.ReferenceMatcher;
+import com.researchjournal.entity.DuplicateKind;
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.exception.DuplicateSubmissionException;
+import com.researchjournal.repository.PaperRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Spots resubmissions of existing papers before a new one is created: identical manuscripts by their
+// content digest, and near-identical title/abstract pairs by a 64-bit SimHash. The SimHash is split
+// into eight 8-bit bands, so any fingerprint within 7 bits of a new one shares a band with it and
+// only the papers in the new fingerprint's eight band buckets are compared.
+@Slf4j
+@Component
+public class DuplicateSubmissionIndex {
+    
+    public record Match(Long paperId, DuplicateKind kind, int distance) {
+    }
+    
+    private record Entry(Long paperId, Long authorId, PaperStatus status, String title, String digest, long fingerprint) {
+    }
+    
+    private static final int BANDS = 8;
+    private static final int BAND_BITS = 64 / BANDS;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MIN_WORDS = 8;
+    
+    private final PaperRepository paperRepository;
+    private final int maxDistance;
+    private final boolean rejectSameAuthor;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> papersByDigest = new HashMap<>();
+    private final List<Map<Integer, Set<Long>>> papersByBand = new ArrayList<>(BANDS);
+    
+    public DuplicateSubmissionIndex(PaperRepository paperRepository,
+                                    @Value("${duplicates.max-distance:7}") int maxDistance,
+                                    @Value("${duplicates.reject-same-author:true}") boolean rejectSameAuthor) {
+        this.paperRepository = paperRepository;
+        // Beyond BANDS - 1 bits a near-duplicate may share no band and would be missed
+        this.maxDistance = Math.max(0, Math.min(maxDistance, BANDS - 1));
+        this.rejectSameAuthor = rejectSameAuthor;
+        for (int band = 0; band < BANDS; band++) {
+            papersByBand.add(new HashMap<>());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = paperRepository.findDuplicateCheckRows();
+        lock.writeLock().lock();
+        try {
+            rows.forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Duplicate submission index loaded with {} papers", rows.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaperChanged(PaperChangedEvent event) {
+        List<Object[]> rows = paperRepository.findDuplicateCheckRow(event.paperId());
+        lock.writeLock().lock();
+        try {
+            removeLocked(event.paperId());
+            rows.forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapersChanged(PapersChangedEvent event) {
+        List<Object[]> rows = paperRepository.findDuplicateCheckRowsByIdIn(event.paperIds());
+        lock.writeLock().lock();
+        try {
+            event.paperIds().forEach(this::removeLocked);
+            rows.forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Throws when the author resubmits one of their own papers that is still in play (they should
+    // revise it instead); otherwise returns the closest earlier submission so the paper can be flagged
+    public Optional<Match> check(Long authorId, String title, String abstractText, String digest) {
+        long fingerprint = fingerprint(title, abstractText);
+        Entry best = null;
+        Match bestMatch = null;
+        
+        lock.readLock().lock();
+        try {
+            if (digest != null) {
+                for (Long paperId : papersByDigest.getOrDefault(digest, Set.of())) {
+                    Entry entry = entries.get(paperId);
+                    Match match = new Match(paperId, DuplicateKind.IDENTICAL_FILE, 0);
+                    if (best == null || better(entry, match, best, bestMatch, authorId)) {
+                        best = entry;
+                        bestMatch = match;
+                    }
+                }
+            }
+            if (fingerprint != 0) {
+                for (int band = 0; band < BANDS; band++) {
+                    for (Long paperId : papersByBand.get(band).getOrDefault(band(fingerprint, band), Set.of())) {
+                        Entry entry = entries.get(paperId);
+                        int distance = Long.bitCount(fingerprint ^ entry.fingerprint());
+                        if (distance > maxDistance) {
+                            continue;
+                        }
+                        Match match = new Match(paperId, DuplicateKind.SIMILAR_TEXT, distance);
+                        if (best == null || better(entry, match, best, bestMatch, authorId)) {
+                            best = entry;
+                            bestMatch = match;
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        if (best == null) {
+            return Optional.empty();
+        }
+        if (rejectSameAuthor && best.authorId().equals(authorId) && best.status() != PaperStatus.REJECTED) {
+            throw new DuplicateSubmissionException(String.format(
+                    "This manuscript duplicates your submission #%d \"%s\"; submit a revision of that paper instead",
+                    best.paperId(), best.title()), best.paperId());
+        }
+        return Optional.of(bestMatch);
+    }
+    
+    // Own papers first (they decide whether to reject), then identical files, then the closest text
+    private static boolean better(Entry entry, Match match, Entry best, Match bestMatch, Long authorId) {
+        boolean own = entry.authorId().equals(authorId);
+        boolean bestOwn = best.authorId().equals(authorId);
+        if (own != bestOwn) {
+            return own;
+        }
+        if (match.kind() != bestMatch.kind()) {
+            return match.kind() == DuplicateKind.IDENTICAL_FILE;
+        }
+        return match.distance() < bestMatch.distance();
+    }
+    
+    // paper id, author id, status, title, abstract, file digest
+    private void putLocked(Object[] row) {
+        Entry entry = new Entry((Long) row[0], (Long) row[1], (PaperStatus) row[2], (String) row[3], (String) row[5],
+                fingerprint((String) row[3], (String) row[4]));
+        entries.put(entry.paperId(), entry);
+        if (entry.digest() != null) {
+            papersByDigest.computeIfAbsent(entry.digest(), d -> new HashSet<>()).add(entry.paperId());
+        }
+        if (entry.fingerprint() != 0) {
+            for (int band = 0; band < BANDS; band++) {
+                papersByBand.get(band).computeIfAbsent(band(entry.fingerprint(), band), b -> new HashSet<>()).add(entry.paperId());
+            }
+        }
+    }
+    
+    private void removeLocked(Long paperId) {
+        Entry entry = entries.remove(paperId);
+        if (entry == null) {
+            return;
+        }
+        if (entry.digest() != null) {
+            removeFrom(papersByDigest, entry.digest(), paperId);
+        }
+        if (entry.fingerprint() != 0) {
+            for (int band = 0; band < BANDS; band++) {
+                removeFrom(papersByBand.get(band), band(entry.fingerprint(), band), paperId);
+            }
+        }
+    }
+    
+    private static <K> void removeFrom(Map<K, Set<Long>> postings, K key, Long paperId) {
+        Set<Long> papers = postings.get(key);
+        if (papers != null && papers.remove(paperId) && papers.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+    
+    private static int band(long fingerprint, int band) {
+        return (int) ((fingerprint >>> (band * BAND_BITS)) & ((1L << BAND_BITS) - 1));
+    }
+    
+    // SimHash over words, so lightly edited text lands a few bits away; 0 means "too short"
+    static long fingerprint(String title, String abstractText) {
+        int[] weights = new int[64];
+        int features = addFeatures(weights, title, TITLE_WEIGHT) + addFeatures(weights, abstractText, 1);
+        if (features < MIN_WORDS) {
+            return 0;
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+    
+    private static int addFeatures(int[] weights, String text, int weight) {
+        if (text == null) {
+            return 0;
+        }
+        String[] words = ReferenceMatcher.words(text);
+        for (String word : words) {
+            long hash = hash(word);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) != 0 ? weight : -weight;
+            }
+        }
+        return words.length;
+    }
+    
+    // FNV-1a, then a SplitMix64 finalizer to spread the bits
+    private static long hash(String word) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,45 @@
+package com.researchjournal.service;
+
+import com.researchjournal.exception.PreconditionFailedException;
+import com.researchjournal.storage.Digests;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// ETags look like "<lockVersion>-<hash>": the row version the client saw, plus a hash of
+// everything else the representation depends on (embedded review versions, field selection)
+public final class EntityTags {
+    
+    private EntityTags() {
+    }
+    
+    public static String format(long lockVersion, String dependencies) {
+        MessageDigest digest = Digests.sha256();
+        digest.update(dependencies.getBytes(StandardCharsets.UTF_8));
+        return "\"" + lockVersion + "-" + Digests.hex(digest).substring(0, 16) + "\"";
+    }
+    
+    // Returns null when the client sent no If-Match or "*", i.e. no version expectation
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("Weak entity tags cannot be used with If-Match");
+        }
+        tag = tag.replace("\"", "");
+        int dash = tag.indexOf('-');
+        try {
+            return Long.parseLong(dash > 0 ? tag.substring(0, dash) : tag);
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("Unrecognized entity tag in If-Match");
+        }
+    }
+    
+    public static void checkVersion(long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new PreconditionFailedException("The resource has changed since it was read");
+        }
+    }
+}
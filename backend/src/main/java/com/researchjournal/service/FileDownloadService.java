@@ -0,0 +1,255 @@
+package com.researchjournal.service;
+
+import com.researchjournal.entity.Paper;
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.entity.Revision;
+import com.researchjournal.entity.Role;
+import com.researchjournal.repository.PaperRepository;
+import com.researchjournal.repository.RevisionRepository;
+import com.researchjournal.security.UserPrincipal;
+import com.researchjournal.storage.BlobStorage;
+import com.researchjournal.storage.Digests;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+@Service
+@RequiredArgsConstructor
+public class FileDownloadService {
+    
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    // Below this size a plain channel transfer is cheaper than handing the file to the connector
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+    
+    private final PaperRepository paperRepository;
+    private final RevisionRepository revisionRepository;
+    private final BlobStorage blobStorage;
+    
+    @Value("${storage.redirect-downloads:true}")
+    private boolean redirectDownloads;
+    
+    @Value("${storage.presign-ttl-seconds:300}")
+    private long presignTtlSeconds;
+    
+    public void sendPaperFile(Long paperId, UserPrincipal principal,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Paper paper = paperRepository.findById(paperId)
+                .orElseThrow(() -> new RuntimeException("Paper not found"));
+        checkFileAccess(paper, principal);
+        
+        if (paper.getFilePath() == null) {
+            throw new RuntimeException("Paper has no uploaded file");
+        }
+        
+        send(paper.getFilePath(), paper.getFileName(), paper.getFileDigest(),
+                (digest, size) -> paperRepository.updateFileDigest(paper.getId(), digest, size),
+                request, response);
+    }
+    
+    public void sendRevisionFile(Long paperId, Integer versionNumber, UserPrincipal principal,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Paper paper = paperRepository.findById(paperId)
+                .orElseThrow(() -> new RuntimeException("Paper not found"));
+        checkFileAccess(paper, principal);
+        
+        Revision revision = revisionRepository.findByPaperIdAndVersionNumber(paperId, versionNumber).orElse(null);
+        if (revision == null) {
+            // The current manuscript version only lives on the paper row
+            if (versionNumber.equals(paper.getVersion())) {
+                sendPaperFile(paperId, principal, request, response);
+                return;
+            }
+            throw new RuntimeException("Revision not found");
+        }
+        if (revision.getFilePath() == null) {
+            throw new RuntimeException("Revision has no uploaded file");
+        }
+        
+        send(revision.getFilePath(), revision.getFileName(), revision.getFileDigest(),
+                (digest, size) -> revisionRepository.updateFileDigest(revision.getId(), digest, size),
+                request, response);
+    }
+    
+    public void checkFileAccess(Paper paper, UserPrincipal principal) {
+        if (!canAccess(paper, principal)) {
+            throw new AccessDeniedException("You do not have access to this file");
+        }
+    }
+    
+    // Staff, anyone once published, and otherwise only the paper's author, editor and assigned reviewers
+    public boolean canAccess(Paper paper, UserPrincipal principal) {
+        if (principal.getRole() == Role.ADMIN || principal.getRole() == Role.EDITOR) {
+            return true;
+        }
+        if (paper.getStatus() == PaperStatus.PUBLISHED || paper.getStatus() == PaperStatus.ARCHIVED) {
+            return true;
+        }
+        if (paper.getAuthor() != null && principal.getId().equals(paper.getAuthor().getId())) {
+            return true;
+        }
+        if (paper.getAssignedEditor() != null && principal.getId().equals(paper.getAssignedEditor().getId())) {
+            return true;
+        }
+        return paperRepository.isReviewerAssigned(paper.getId(), principal.getId());
+    }
+    
+    private void send(String storedName, String fileName, String digest, BiConsumer<String, Long> digestRecorder,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size;
+        try {
+            size = blobStorage.size(storedName);
+        } catch (FileNotFoundException ex) {
+            throw new RuntimeException("File not found");
+        }
+        
+        // Files uploaded before digests were recorded get one computed on first download
+        if (digest == null) {
+            try (InputStream in = blobStorage.open(storedName)) {
+                digest = Digests.sha256(in);
+            }
+            digestRecorder.accept(digest, size);
+        }
+        String etag = "\"" + digest + "\"";
+        
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        
+        String displayName = fileName != null ? fileName : storedName;
+        Optional<Path> localFile = blobStorage.localPath(storedName);
+        
+        // Remote backends serve the bytes themselves; the client re-sends any Range header there
+        if (localFile.isEmpty() && redirectDownloads) {
+            Optional<URL> directUrl = blobStorage.presignedDownloadUrl(storedName, displayName,
+                    Duration.ofSeconds(presignTtlSeconds));
+            if (directUrl.isPresent()) {
+                response.sendRedirect(directUrl.get().toString());
+                return;
+            }
+        }
+        
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean partial = StringUtils.hasText(rangeHeader) && (ifRange == null || ifRange.equals(etag));
+        
+        if (partial) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException ex) {
+                ranges = List.of();
+            }
+            // Malformed and multi-range requests are answered with the whole file, which RFC 9110 permits
+            if (ranges.size() == 1 && size > 0) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(size);
+                    end = range.getRangeEnd(size);
+                } catch (IllegalArgumentException ex) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                if (start >= size) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+        
+        long length = size == 0 ? 0 : end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(displayName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(displayName, StandardCharsets.UTF_8).build().toString());
+        response.setContentLengthLong(length);
+        
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+        
+        if (localFile.isEmpty()) {
+            try (InputStream in = blobStorage.openRange(storedName, start, end)) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+        
+        Path file = localFile.get();
+        if (length >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat streams the range straight from the page cache once the servlet returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+    
+    private boolean matchesAny(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,268 @@
+package com.researchjournal.service;
+
+import com.researchjournal.entity.IdempotencyRecord;
+import com.researchjournal.event.IssueChangedEvent;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.event.ReviewChangedEvent;
+import com.researchjournal.event.UserChangedEvent;
+import com.researchjournal.repository.IdempotencyRecordRepository;
+import com.researchjournal.storage.Digests;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Idempotency-Key bookkeeping. The database row is the source of truth shared by all replicas;
+// completed responses never change until they expire, so each replica also keeps the most recent
+// ones in memory and answers repeated retries without a query.
+// A running request renews its claim every heartbeat-interval-ms, and its transaction marks the row
+// as it commits: a claim is only taken over from a request that died, and never re-runs committed work.
+@Slf4j
+@Service
+public class IdempotencyService {
+    
+    public enum ClaimState { CLAIMED, REPLAY, IN_PROGRESS, MISMATCH }
+    
+    public record StoredResponse(int status, String contentType, String etag, byte[] body) {
+    }
+    
+    public record Claim(ClaimState state, String recordKey, StoredResponse response) {
+    }
+    
+    private record Completed(String fingerprint, long expiresAtMillis, StoredResponse response) {
+    }
+    
+    private static final class InFlight {
+        private final String recordKey;
+        private boolean committed;
+        
+        private InFlight(String recordKey) {
+            this.recordKey = recordKey;
+        }
+    }
+    
+    private final IdempotencyRecordRepository repository;
+    private final long ttlMillis;
+    private final long lockTimeoutMillis;
+    private final Map<String, Completed> recent;
+    // Claims running on this replica and the lockedAtMillis each last wrote
+    private final Map<String, Long> running = new ConcurrentHashMap<>();
+    private final ThreadLocal<InFlight> inFlight = new ThreadLocal<>();
+    
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.lock-timeout-seconds:300}") long lockTimeoutSeconds,
+                              @Value("${idempotency.local-cache-size:1000}") int localCacheSize) {
+        this.repository = repository;
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.lockTimeoutMillis = TimeUnit.SECONDS.toMillis(lockTimeoutSeconds);
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                return size() > localCacheSize;
+            }
+        };
+    }
+    
+    // Keys are scoped to the user, so two clients picking the same key never see each other's results
+    public Claim claim(long userId, String idempotencyKey, String fingerprint) {
+        String recordKey = fingerprint(String.valueOf(userId), idempotencyKey);
+        long now = System.currentTimeMillis();
+        
+        Completed completed = recent(recordKey, now);
+        if (completed != null) {
+            return completed.fingerprint().equals(fingerprint)
+                    ? new Claim(ClaimState.REPLAY, recordKey, completed.response())
+                    : new Claim(ClaimState.MISMATCH, recordKey, null);
+        }
+        
+        // Second round only after the existing row vanished (released, or expired and removed)
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (repository.tryClaim(recordKey, userId, fingerprint, now, now + ttlMillis) == 1) {
+                running.put(recordKey, now);
+                return new Claim(ClaimState.CLAIMED, recordKey, null);
+            }
+            Optional<IdempotencyRecord> existing = repository.findById(recordKey);
+            if (existing.isEmpty()) {
+                continue;
+            }
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAtMillis() < now) {
+                repository.deleteIfExpired(recordKey, now);
+                continue;
+            }
+            if (!record.getFingerprint().equals(fingerprint)) {
+                return new Claim(ClaimState.MISMATCH, recordKey, null);
+            }
+            if (record.getCompleted()) {
+                StoredResponse response = new StoredResponse(record.getResponseStatus(), record.getContentType(),
+                        record.getEtag(), record.getResponseBody() != null ? record.getResponseBody() : new byte[0]);
+                remember(recordKey, new Completed(fingerprint, record.getExpiresAtMillis(), response));
+                return new Claim(ClaimState.REPLAY, recordKey, response);
+            }
+            // The first request crashed or its replica went away without releasing the key
+            if (now - record.getLockedAtMillis() > lockTimeoutMillis) {
+                if (record.getCommittedAtMillis() != null) {
+                    // ...after its changes committed, so only the response was lost
+                    StoredResponse response = completeCommitted(record);
+                    return new Claim(ClaimState.REPLAY, recordKey, response);
+                }
+                if (repository.takeOver(recordKey, record.getLockedAtMillis(), now) == 1) {
+                    log.info("Took over idempotency key abandoned since {}", record.getLockedAtMillis());
+                    running.put(recordKey, now);
+                    return new Claim(ClaimState.CLAIMED, recordKey, null);
+                }
+            }
+            return new Claim(ClaimState.IN_PROGRESS, recordKey, null);
+        }
+        return new Claim(ClaimState.IN_PROGRESS, recordKey, null);
+    }
+    
+    // Binds the claim to the request thread until end(), so the transactions it runs can mark it
+    public void begin(Claim claim) {
+        inFlight.set(new InFlight(claim.recordKey()));
+    }
+    
+    public void end() {
+        inFlight.remove();
+    }
+    
+    public void complete(Claim claim, String fingerprint, StoredResponse response) {
+        running.remove(claim.recordKey());
+        if (repository.complete(claim.recordKey(), response.status(), response.contentType(), response.etag(), response.body()) == 1) {
+            remember(claim.recordKey(), new Completed(fingerprint, System.currentTimeMillis() + ttlMillis, response));
+        }
+    }
+    
+    // Failed attempts are not recorded, so the client's retry runs the request again; unless the
+    // failure came after the request's changes committed, in which case retries get the commit marker
+    public void release(Claim claim) {
+        running.remove(claim.recordKey());
+        if (repository.release(claim.recordKey()) == 0) {
+            repository.findById(claim.recordKey())
+                    .filter(record -> !record.getCompleted() && record.getCommittedAtMillis() != null)
+                    .ifPresent(this::completeCommitted);
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPaperChanged(PaperChangedEvent event) {
+        if (!event.remote()) {
+            markCommitted("paper", event.paperId());
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPapersChanged(PapersChangedEvent event) {
+        if (!event.remote()) {
+            markCommitted("papers", null);
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (!event.remote()) {
+            markCommitted("review", event.reviewId());
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.remote()) {
+            markCommitted("user", event.userId());
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onIssueChanged(IssueChangedEvent event) {
+        if (!event.remote()) {
+            markCommitted("issue", event.issueId());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${idempotency.heartbeat-interval-ms:60000}", initialDelayString = "${idempotency.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        running.forEach((recordKey, lockedAt) -> {
+            long now = System.currentTimeMillis();
+            try {
+                if (repository.renew(recordKey, lockedAt, now) == 1) {
+                    running.replace(recordKey, lockedAt, now);
+                } else {
+                    running.remove(recordKey, lockedAt);
+                }
+            } catch (Exception ex) {
+                log.warn("Renewing idempotency key failed: {}", ex.getMessage());
+            }
+        });
+    }
+    
+    public static String fingerprint(String... parts) {
+        MessageDigest digest = Digests.sha256();
+        for (String part : parts) {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return Digests.hex(digest);
+    }
+    
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:300000}", initialDelayString = "${idempotency.cleanup-interval-ms:300000}")
+    public void cleanup() {
+        try {
+            repository.deleteExpired(System.currentTimeMillis());
+        } catch (Exception ex) {
+            log.warn("Cleaning up idempotency keys failed: {}", ex.getMessage());
+        }
+        long now = System.currentTimeMillis();
+        synchronized (recent) {
+            recent.values().removeIf(completed -> completed.expiresAtMillis() < now);
+        }
+    }
+    
+    // The first transaction of the request to change something is the one it is remembered by
+    private void markCommitted(String resourceType, Long resourceId) {
+        InFlight current = inFlight.get();
+        if (current != null && !current.committed) {
+            current.committed = true;
+            repository.markCommitted(current.recordKey, resourceType, resourceId, System.currentTimeMillis());
+        }
+    }
+    
+    private StoredResponse completeCommitted(IdempotencyRecord record) {
+        String body = "{\"message\":\"Request already processed\",\"resourceType\":" + quoted(record.getResourceType())
+                + ",\"resourceId\":" + record.getResourceId() + "}";
+        StoredResponse response = new StoredResponse(200, MediaType.APPLICATION_JSON_VALUE, null, body.getBytes(StandardCharsets.UTF_8));
+        if (repository.complete(record.getRecordKey(), response.status(), response.contentType(), null, response.body()) == 1) {
+            remember(record.getRecordKey(), new Completed(record.getFingerprint(), record.getExpiresAtMillis(), response));
+        }
+        return response;
+    }
+    
+    private static String quoted(String value) {
+        return value == null ? "null" : "\"" + value + "\"";
+    }
+    
+    private Completed recent(String recordKey, long now) {
+        synchronized (recent) {
+            Completed completed = recent.get(recordKey);
+            return completed != null && completed.expiresAtMillis() >= now ? completed : null;
+        }
+    }
+    
+    private void remember(String recordKey, Completed completed) {
+        synchronized (recent) {
+            recent.put(recordKey, completed);
+        }
+    }
+}
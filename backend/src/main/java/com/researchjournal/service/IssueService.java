@@ -0,0 +1,208 @@
+package com.researchjournal.service;
+
+import com.researchjournal.dto.*;
+import com.researchjournal.entity.Issue;
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.entity.Volume;
+import com.researchjournal.event.IssueChangedEvent;
+import com.researchjournal.repository.IssueRepository;
+import com.researchjournal.repository.PaperRepository;
+import com.researchjournal.repository.VolumeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class IssueService {
+    
+    private static final Set<PaperStatus> PLACEABLE = EnumSet.of(PaperStatus.ACCEPTED, PaperStatus.PUBLISHED, PaperStatus.ARCHIVED);
+    
+    private final VolumeRepository volumeRepository;
+    private final IssueRepository issueRepository;
+    private final PaperRepository paperRepository;
+    private final PaperService paperService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Newest volume first; readers only see issues that have been published
+    public List<VolumeDTO> getVolumes(boolean publishedOnly) {
+        Map<Long, List<IssueDTO>> issuesByVolume = new HashMap<>();
+        for (Issue issue : issueRepository.findAllWithVolume()) {
+            if (!publishedOnly || issue.getPublishedAt() != null) {
+                issuesByVolume.computeIfAbsent(issue.getVolume().getId(), id -> new ArrayList<>()).add(convertToDTO(issue));
+            }
+        }
+        return volumeRepository.findAllByOrderByNumberDesc().stream()
+                .filter(volume -> !publishedOnly || issuesByVolume.containsKey(volume.getId()))
+                .map(volume -> VolumeDTO.builder()
+                        .id(volume.getId())
+                        .number(volume.getNumber())
+                        .year(volume.getYear())
+                        .title(volume.getTitle())
+                        .issues(issuesByVolume.getOrDefault(volume.getId(), List.of()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public VolumeDTO createVolume(VolumeRequest request) {
+        if (volumeRepository.existsByNumber(request.getNumber())) {
+            throw new RuntimeException("Volume " + request.getNumber() + " already exists");
+        }
+        Volume volume = volumeRepository.save(Volume.builder()
+                .number(request.getNumber())
+                .year(request.getYear())
+                .title(request.getTitle())
+                .build());
+        return VolumeDTO.builder()
+                .id(volume.getId())
+                .number(volume.getNumber())
+                .year(volume.getYear())
+                .title(volume.getTitle())
+                .issues(List.of())
+                .build();
+    }
+    
+    @Transactional
+    public IssueDTO createIssue(IssueRequest request) {
+        Volume volume = volumeRepository.findById(request.getVolumeId())
+                .orElseThrow(() -> new RuntimeException("Volume not found"));
+        if (issueRepository.existsByVolumeIdAndNumber(volume.getId(), request.getNumber())) {
+            throw new RuntimeException("Issue " + request.getNumber() + " already exists in volume " + volume.getNumber());
+        }
+        Issue issue = issueRepository.save(Issue.builder()
+                .volume(volume)
+                .number(request.getNumber())
+                .title(request.getTitle())
+                .build());
+        return convertToDTO(issue);
+    }
+    
+    // Replaces the contents of an issue with the given papers, in reading order. Page ranges are
+    // optional but must be complete, ascending and non-overlapping.
+    @Transactional
+    public IssueTocDTO placePapers(Long issueId, List<IssuePlacementRequest> placements) {
+        Issue issue = issueRepository.findWithVolumeById(issueId)
+                .orElseThrow(() -> new RuntimeException("Issue not found"));
+        List<Long> ids = placements.stream().map(IssuePlacementRequest::getPaperId).collect(Collectors.toList());
+        if (ids.contains(null) || new HashSet<>(ids).size() != ids.size()) {
+            throw new RuntimeException("Each paper must be listed exactly once");
+        }
+        validatePages(placements);
+        
+        if (!ids.isEmpty()) {
+            Map<Long, Object[]> rows = new HashMap<>();
+            for (Object[] row : paperRepository.findPlacementRowsByIdIn(ids)) {
+                rows.put((Long) row[0], row);
+            }
+            for (Long id : ids) {
+                Object[] row = rows.get(id);
+                if (row == null) {
+                    throw new RuntimeException("Paper not found: " + id);
+                }
+                if (!PLACEABLE.contains((PaperStatus) row[1])) {
+                    throw new RuntimeException("Paper " + id + " is " + row[1] + "; only accepted or published papers can be placed in an issue");
+                }
+                if (row[2] != null && !issueId.equals(row[2])) {
+                    throw new RuntimeException("Paper " + id + " already belongs to issue " + row[2]);
+                }
+            }
+        }
+        
+        paperRepository.clearIssue(issueId);
+        for (int i = 0; i < placements.size(); i++) {
+            IssuePlacementRequest placement = placements.get(i);
+            paperRepository.placeInIssue(placement.getPaperId(), issue, i + 1, placement.getFirstPage(), placement.getLastPage());
+        }
+        eventPublisher.publishEvent(new IssueChangedEvent(issueId));
+        return buildToc(issue);
+    }
+    
+    // Publishes every accepted paper of the issue in one set-based transition, then the issue itself
+    @Transactional
+    public IssueDTO publishIssue(Long issueId) {
+        Issue issue = issueRepository.findWithVolumeById(issueId)
+                .orElseThrow(() -> new RuntimeException("Issue not found"));
+        List<Object[]> rows = paperRepository.findStatusRowsByIssueId(issueId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Issue has no papers");
+        }
+        List<Long> toPublish = rows.stream()
+                .filter(row -> !PublicSearchService.PUBLIC_STATUSES.contains((PaperStatus) row[1]))
+                .map(row -> (Long) row[0])
+                .collect(Collectors.toList());
+        if (!toPublish.isEmpty()) {
+            paperService.updatePaperStatuses(toPublish, PaperStatus.PUBLISHED, null);
+        }
+        if (issue.getPublishedAt() == null) {
+            issue.setPublishedAt(LocalDateTime.now());
+        }
+        Issue saved = issueRepository.save(issue);
+        eventPublisher.publishEvent(new IssueChangedEvent(issueId));
+        return convertToDTO(saved);
+    }
+    
+    // Every placed paper in issue order, whatever its status; IssueTocCache narrows it for readers
+    public Optional<IssueTocDTO> getToc(Long issueId) {
+        return issueRepository.findWithVolumeById(issueId).map(this::buildToc);
+    }
+    
+    private IssueTocDTO buildToc(Issue issue) {
+        List<IssueTocEntryDTO> papers = new ArrayList<>();
+        for (Object[] row : paperRepository.findTocRows(issue.getId())) {
+            papers.add(IssueTocEntryDTO.builder()
+                    .paperId((Long) row[0])
+                    .title((String) row[1])
+                    .authorName(row[2] + " " + row[3])
+                    .authorInstitution((String) row[4])
+                    .status((PaperStatus) row[5])
+                    .firstPage((Integer) row[6])
+                    .lastPage((Integer) row[7])
+                    .publishedAt((LocalDateTime) row[8])
+                    .build());
+        }
+        return IssueTocDTO.builder()
+                .issueId(issue.getId())
+                .volumeNumber(issue.getVolume().getNumber())
+                .volumeYear(issue.getVolume().getYear())
+                .issueNumber(issue.getNumber())
+                .title(issue.getTitle())
+                .publishedAt(issue.getPublishedAt())
+                .papers(papers)
+                .build();
+    }
+    
+    private static void validatePages(List<IssuePlacementRequest> placements) {
+        Integer previousLast = null;
+        for (IssuePlacementRequest placement : placements) {
+            Integer first = placement.getFirstPage();
+            Integer last = placement.getLastPage();
+            if (first == null && last == null) {
+                continue;
+            }
+            if (first == null || last == null || first < 1 || last < first) {
+                throw new RuntimeException("Invalid page range for paper " + placement.getPaperId());
+            }
+            if (previousLast != null && first <= previousLast) {
+                throw new RuntimeException("Page range of paper " + placement.getPaperId() + " overlaps the paper before it");
+            }
+            previousLast = last;
+        }
+    }
+    
+    private IssueDTO convertToDTO(Issue issue) {
+        return IssueDTO.builder()
+                .id(issue.getId())
+                .volumeId(issue.getVolume().getId())
+                .volumeNumber(issue.getVolume().getNumber())
+                .number(issue.getNumber())
+                .title(issue.getTitle())
+                .publishedAt(issue.getPublishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.researchjournal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchjournal.dto.IssueTocDTO;
+import com.researchjournal.dto.IssueTocEntryDTO;
+import com.researchjournal.event.IssueChangedEvent;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.event.UserChangedEvent;
+import com.researchjournal.storage.Digests;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tables of contents of published issues, kept as ready-to-send JSON. Each is built on its first
+// request and then served from memory until that issue or one of its papers changes; a change to
+// any author's name drops them all. Remote changes arrive through the invalidation bus.
+@Component
+public class IssueTocCache {
+    
+    public record Toc(byte[] json, String etag) {
+    }
+    
+    // paperIds covers every paper placed in the issue, also the unpublished ones left out of the JSON
+    private record Entry(Toc toc, Set<Long> paperIds) {
+    }
+    
+    private final IssueService issueService;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Long> issueByPaper = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, so a build that read the database before it is not kept
+    private long generation;
+    
+    private final Counter hits;
+    private final Counter misses;
+    
+    public IssueTocCache(IssueService issueService, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.issueService = issueService;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("issue.toc.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("issue.toc.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("issue.toc.cache.size", entries, Map::size).register(meterRegistry);
+    }
+    
+    // Empty when the issue does not exist or is not published yet
+    public Optional<Toc> get(Long issueId) {
+        Entry entry = entries.get(issueId);
+        if (entry != null) {
+            hits.increment();
+            return Optional.of(entry.toc());
+        }
+        misses.increment();
+        long started;
+        synchronized (this) {
+            started = generation;
+        }
+        IssueTocDTO toc = issueService.getToc(issueId).orElse(null);
+        if (toc == null || toc.getPublishedAt() == null) {
+            return Optional.empty();
+        }
+        Set<Long> paperIds = new HashSet<>();
+        List<IssueTocEntryDTO> published = new ArrayList<>();
+        for (IssueTocEntryDTO paper : toc.getPapers()) {
+            paperIds.add(paper.getPaperId());
+            if (PublicSearchService.PUBLIC_STATUSES.contains(paper.getStatus())) {
+                published.add(paper);
+            }
+        }
+        toc.setPapers(published);
+        Entry built = new Entry(serialize(toc), paperIds);
+        synchronized (this) {
+            if (generation == started) {
+                entries.put(issueId, built);
+                built.paperIds().forEach(paperId -> issueByPaper.put(paperId, issueId));
+            }
+        }
+        return Optional.of(built.toc());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        invalidate(event.issueId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaperChanged(PaperChangedEvent event) {
+        Long issueId = issueByPaper.get(event.paperId());
+        if (issueId != null) {
+            invalidate(issueId);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapersChanged(PapersChangedEvent event) {
+        Set<Long> issueIds = new HashSet<>();
+        for (Long paperId : event.paperIds()) {
+            Long issueId = issueByPaper.get(paperId);
+            if (issueId != null) {
+                issueIds.add(issueId);
+            }
+        }
+        issueIds.forEach(this::invalidate);
+    }
+    
+    // Author names are printed in every table of contents; renames are rare enough to start over
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        generation++;
+        entries.clear();
+        issueByPaper.clear();
+    }
+    
+    private synchronized void invalidate(Long issueId) {
+        generation++;
+        Entry removed = entries.remove(issueId);
+        if (removed != null) {
+            removed.paperIds().forEach(paperId -> issueByPaper.remove(paperId, issueId));
+        }
+    }
+    
+    private Toc serialize(IssueTocDTO toc) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(toc);
+            MessageDigest digest = Digests.sha256();
+            digest.update(json);
+            return new Toc(json, "\"" + Digests.hex(digest).substring(0, 32) + "\"");
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize table of contents of issue " + toc.getIssueId(), ex);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.researchjournal.service;
+
+import com.researchjournal.dto.FacetCount;
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.repository.PaperRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KeywordIndex {
+    
+    private final PaperRepository paperRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Interned dictionary: each normalized keyword gets a dense int id
+    private final Map<String, Integer> keywordIds = new HashMap<>();
+    private final List<String> keywords = new ArrayList<>();
+    private final List<RoaringBitmap> keywordPostings = new ArrayList<>();
+    private final Map<PaperStatus, RoaringBitmap> statusPostings = new EnumMap<>(PaperStatus.class);
+    // What each paper is currently posted under, so an update can unpost it first
+    private final Map<Integer, int[]> paperKeywords = new HashMap<>();
+    private final Map<Integer, PaperStatus> paperStatuses = new HashMap<>();
+    
+    public static List<String> split(String keywords) {
+        if (!StringUtils.hasText(keywords)) {
+            return List.of();
+        }
+        return Arrays.stream(keywords.split(","))
+                .map(KeywordIndex::normalize)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+    }
+    
+    public static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = paperRepository.findKeywordRows();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                putLocked((Long) row[0], (String) row[1], (PaperStatus) row[2]);
+            }
+            keywordPostings.forEach(RoaringBitmap::runOptimize);
+            statusPostings.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Keyword index loaded: {} papers, {} distinct keywords", rows.size(), keywords.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaperChanged(PaperChangedEvent event) {
+        List<Object[]> rows = paperRepository.findKeywordRow(event.paperId());
+        lock.writeLock().lock();
+        try {
+            if (rows.isEmpty()) {
+                removeLocked(Math.toIntExact(event.paperId()));
+            } else {
+                Object[] row = rows.get(0);
+                putLocked((Long) row[0], (String) row[1], (PaperStatus) row[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapersChanged(PapersChangedEvent event) {
+        List<Object[]> rows = paperRepository.findKeywordRowsByIdIn(event.paperIds());
+        Set<Long> found = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                found.add((Long) row[0]);
+                putLocked((Long) row[0], (String) row[1], (PaperStatus) row[2]);
+            }
+            for (Long paperId : event.paperIds()) {
+                if (!found.contains(paperId)) {
+                    removeLocked(Math.toIntExact(paperId));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Papers tagged with every keyword, optionally restricted to the given statuses
+    public List<Long> findPapers(Collection<String> requiredKeywords, Collection<PaperStatus> statuses) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = statuses == null || statuses.isEmpty() ? null : statusBitmapLocked(statuses);
+            for (String keyword : requiredKeywords) {
+                Integer id = keywordIds.get(normalize(keyword));
+                if (id == null) {
+                    return List.of();
+                }
+                result = result == null ? keywordPostings.get(id).clone() : RoaringBitmap.and(result, keywordPostings.get(id));
+            }
+            if (result == null) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(result.getCardinality());
+            result.forEach((int id) -> ids.add((long) id));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Keyword cloud: per-keyword paper counts within the given statuses, largest first
+    public List<FacetCount> keywordCounts(Collection<PaperStatus> statuses, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap scope = statuses == null || statuses.isEmpty() ? null : statusBitmapLocked(statuses);
+            PriorityQueue<FacetCount> top = new PriorityQueue<>(Comparator.comparingLong(FacetCount::getCount)
+                    .thenComparing(FacetCount::getValue, Comparator.reverseOrder()));
+            for (int id = 0; id < keywordPostings.size(); id++) {
+                RoaringBitmap posting = keywordPostings.get(id);
+                long count = scope == null ? posting.getLongCardinality() : RoaringBitmap.andCardinality(posting, scope);
+                if (count == 0) {
+                    continue;
+                }
+                top.add(new FacetCount(keywords.get(id), count));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<FacetCount> result = new ArrayList<>(top);
+            result.sort(Comparator.comparingLong(FacetCount::getCount).reversed()
+                    .thenComparing(FacetCount::getValue));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private RoaringBitmap statusBitmapLocked(Collection<PaperStatus> statuses) {
+        RoaringBitmap union = new RoaringBitmap();
+        for (PaperStatus status : statuses) {
+            RoaringBitmap posting = statusPostings.get(status);
+            if (posting != null) {
+                union.or(posting);
+            }
+        }
+        return union;
+    }
+    
+    private void putLocked(Long paperId, String paperKeywords, PaperStatus status) {
+        int id = Math.toIntExact(paperId);
+        removeLocked(id);
+        int[] ids = split(paperKeywords).stream()
+                .mapToInt(this::keywordIdLocked)
+                .toArray();
+        for (int keywordId : ids) {
+            keywordPostings.get(keywordId).add(id);
+        }
+        this.paperKeywords.put(id, ids);
+        if (status != null) {
+            statusPostings.computeIfAbsent(status, key -> new RoaringBitmap()).add(id);
+            paperStatuses.put(id, status);
+        }
+    }
+    
+    private void removeLocked(int paperId) {
+        int[] ids = paperKeywords.remove(paperId);
+        if (ids != null) {
+            for (int keywordId : ids) {
+                keywordPostings.get(keywordId).remove(paperId);
+            }
+        }
+        PaperStatus status = paperStatuses.remove(paperId);
+        if (status != null) {
+            statusPostings.get(status).remove(paperId);
+        }
+    }
+    
+    private int keywordIdLocked(String keyword) {
+        return keywordIds.computeIfAbsent(keyword, key -> {
+            keywords.add(key.intern());
+            keywordPostings.add(new RoaringBitmap());
+            return keywords.size() - 1;
+        });
+    }
+}
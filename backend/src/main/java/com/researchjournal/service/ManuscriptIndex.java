@@ -0,0 +1,244 @@
+package com.researchjournal.service;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ManuscriptIndex {
+    
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final int SHINGLE_SIZE = 5;
+    private static final int SIGNATURE_SIZE = 128;
+    private static final int BAND_ROWS = 4;
+    private static final long[] HASH_SEEDS = new long[SIGNATURE_SIZE];
+    
+    static {
+        SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            HASH_SEEDS[i] = random.nextLong() | 1L;
+        }
+    }
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+    private final List<RoaringBitmap> postings = new ArrayList<>();
+    private final Map<Integer, int[]> paperTokens = new HashMap<>();
+    private final Map<Integer, long[]> signatures = new HashMap<>();
+    // Locality-sensitive buckets: papers sharing any band are similarity candidates
+    private final Map<Long, RoaringBitmap> bands = new HashMap<>();
+    
+    public record Match(Long paperId, double similarity) {
+    }
+    
+    public void index(Long paperId, String text) {
+        List<String> words = tokenize(text);
+        long[] signature = signature(words);
+        int id = Math.toIntExact(paperId);
+        
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int[] tokens = words.stream()
+                    .filter(word -> word.length() >= MIN_TOKEN_LENGTH)
+                    .distinct()
+                    .mapToInt(this::tokenIdLocked)
+                    .toArray();
+            for (int token : tokens) {
+                postings.get(token).add(id);
+            }
+            paperTokens.put(id, tokens);
+            if (signature != null) {
+                signatures.put(id, signature);
+                for (long band : bandKeys(signature)) {
+                    bands.computeIfAbsent(band, key -> new RoaringBitmap()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long paperId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(Math.toIntExact(paperId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean contains(Long paperId) {
+        lock.readLock().lock();
+        try {
+            return paperTokens.containsKey(Math.toIntExact(paperId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Papers whose manuscript contains every word of the query
+    public List<Long> search(String query) {
+        List<String> words = tokenize(query).stream()
+                .filter(word -> word.length() >= MIN_TOKEN_LENGTH)
+                .distinct()
+                .toList();
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            for (String word : words) {
+                Integer token = tokenIds.get(word);
+                if (token == null) {
+                    return List.of();
+                }
+                result = result == null ? postings.get(token).clone() : RoaringBitmap.and(result, postings.get(token));
+                if (result.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Long> ids = new ArrayList<>(result.getCardinality());
+            result.forEach((int id) -> ids.add((long) id));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Optional<Match> mostSimilar(Long paperId) {
+        int id = Math.toIntExact(paperId);
+        lock.readLock().lock();
+        try {
+            long[] signature = signatures.get(id);
+            if (signature == null) {
+                return Optional.empty();
+            }
+            RoaringBitmap candidates = new RoaringBitmap();
+            for (long band : bandKeys(signature)) {
+                RoaringBitmap bucket = bands.get(band);
+                if (bucket != null) {
+                    candidates.or(bucket);
+                }
+            }
+            candidates.remove(id);
+            
+            Match best = null;
+            for (int candidate : candidates) {
+                double similarity = estimateJaccard(signature, signatures.get(candidate));
+                if (best == null || similarity > best.similarity()) {
+                    best = new Match((long) candidate, similarity);
+                }
+            }
+            return Optional.ofNullable(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return paperTokens.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void removeLocked(int id) {
+        int[] tokens = paperTokens.remove(id);
+        if (tokens != null) {
+            for (int token : tokens) {
+                postings.get(token).remove(id);
+            }
+        }
+        long[] signature = signatures.remove(id);
+        if (signature != null) {
+            for (long band : bandKeys(signature)) {
+                RoaringBitmap bucket = bands.get(band);
+                if (bucket != null) {
+                    bucket.remove(id);
+                    if (bucket.isEmpty()) {
+                        bands.remove(band);
+                    }
+                }
+            }
+        }
+    }
+    
+    private int tokenIdLocked(String word) {
+        return tokenIds.computeIfAbsent(word, key -> {
+            postings.add(new RoaringBitmap());
+            return postings.size() - 1;
+        });
+    }
+    
+    private static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+    
+    // MinHash over word 5-gram shingles; null when the text is too short to say anything
+    private static long[] signature(List<String> words) {
+        if (words.size() < SHINGLE_SIZE) {
+            return null;
+        }
+        long[] signature = new long[SIGNATURE_SIZE];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int start = 0; start + SHINGLE_SIZE <= words.size(); start++) {
+            long shingle = 1125899906842597L;
+            for (int i = start; i < start + SHINGLE_SIZE; i++) {
+                shingle = 31 * shingle + words.get(i).hashCode();
+            }
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                long hash = mix(shingle * HASH_SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+    
+    private static long[] bandKeys(long[] signature) {
+        long[] keys = new long[SIGNATURE_SIZE / BAND_ROWS];
+        for (int band = 0; band < keys.length; band++) {
+            long key = band;
+            for (int row = band * BAND_ROWS; row < (band + 1) * BAND_ROWS; row++) {
+                key = mix(key * 31 + signature[row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+    
+    private static double estimateJaccard(long[] a, long[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+    
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb93e185a2c53L;
+        return z ^ (z >>> 33);
+    }
+}
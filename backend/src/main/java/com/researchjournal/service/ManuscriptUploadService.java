@@ -0,0 +1,139 @@
+package com.researchjournal.service;
+
+import com.researchjournal.exception.PayloadTooLargeException;
+import com.researchjournal.exception.UnsupportedMediaTypeException;
+import com.researchjournal.storage.*;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Reads multipart submissions straight off the request: text fields are kept in memory and the
+// manuscript is streamed into blob storage while being digested, so each byte is written once.
+// Blocking reads give natural backpressure; limits and type checks abort the upload early.
+@Slf4j
+@Service
+public class ManuscriptUploadService {
+    
+    public static final String FILE_FIELD = "file";
+    
+    private static final int MAX_FIELD_BYTES = 64 * 1024;
+    private static final int MAX_FIELDS = 32;
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] ZIP_MAGIC = {0x50, 0x4B, 0x03, 0x04};
+    private static final byte[] OLE_MAGIC = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    private static final Map<String, byte[]> SIGNATURES = Map.of("pdf", PDF_MAGIC, "docx", ZIP_MAGIC, "doc", OLE_MAGIC);
+    
+    private final BlobStorage blobStorage;
+    private final long maxFileSize;
+    private final long maxRequestSize;
+    
+    public ManuscriptUploadService(BlobStorage blobStorage,
+                                   @Value("${upload.max-file-size:50MB}") DataSize maxFileSize,
+                                   @Value("${upload.max-request-size:51MB}") DataSize maxRequestSize) {
+        this.blobStorage = blobStorage;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxRequestSize = maxRequestSize.toBytes();
+    }
+    
+    public MultipartForm read(HttpServletRequest request, String... requiredFields) throws IOException {
+        String boundary = MultipartStream.boundary(request.getContentType());
+        if (boundary == null) {
+            throw new UnsupportedMediaTypeException("Expected a multipart/form-data request");
+        }
+        // Refuse before reading anything when the client announces an oversized body
+        if (request.getContentLengthLong() > maxRequestSize) {
+            throw new PayloadTooLargeException("Request exceeds " + DataSize.ofBytes(maxRequestSize).toMegabytes() + " MB");
+        }
+        
+        InputStream body = new LimitedInputStream(request.getInputStream(), maxRequestSize,
+                "Request exceeds " + DataSize.ofBytes(maxRequestSize).toMegabytes() + " MB");
+        MultipartStream multipart = new MultipartStream(body, boundary);
+        Map<String, String> fields = new LinkedHashMap<>();
+        UploadedFile file = null;
+        try {
+            MultipartStream.Part part;
+            while ((part = multipart.nextPart()) != null) {
+                if (!part.isFile()) {
+                    if (fields.size() >= MAX_FIELDS) {
+                        throw new PayloadTooLargeException("Too many form fields");
+                    }
+                    fields.putIfAbsent(part.name(), readField(part));
+                } else if (FILE_FIELD.equals(part.name()) && file == null && StringUtils.hasText(part.fileName())) {
+                    file = store(part);
+                }
+                // Other file parts are skipped by the next nextPart() call
+            }
+            for (String required : requiredFields) {
+                if (!fields.containsKey(required)) {
+                    throw new RuntimeException("Missing required field '" + required + "'");
+                }
+            }
+            return new MultipartForm(fields, file);
+        } catch (IOException | RuntimeException ex) {
+            if (file != null) {
+                discard(file.blob().key());
+            }
+            throw ex;
+        }
+    }
+    
+    // For callers whose write failed after the file was already stored
+    public void discard(MultipartForm form) {
+        if (form.file() != null) {
+            discard(form.file().blob().key());
+        }
+    }
+    
+    private void discard(String key) {
+        try {
+            blobStorage.delete(key);
+        } catch (IOException ex) {
+            log.warn("Could not delete discarded upload {}: {}", key, ex.getMessage());
+        }
+    }
+    
+    private static String readField(MultipartStream.Part part) throws IOException {
+        byte[] value = part.body().readNBytes(MAX_FIELD_BYTES + 1);
+        if (value.length > MAX_FIELD_BYTES) {
+            throw new PayloadTooLargeException("Form field '" + part.name() + "' is too large");
+        }
+        return new String(value, StandardCharsets.UTF_8);
+    }
+    
+    private UploadedFile store(MultipartStream.Part part) throws IOException {
+        String fileName = StringUtils.getFilename(StringUtils.cleanPath(part.fileName().replace('\\', '/')));
+        String extension = StringUtils.getFilenameExtension(fileName);
+        byte[] signature = extension != null ? SIGNATURES.get(extension.toLowerCase(Locale.ROOT)) : null;
+        if (signature == null) {
+            throw new UnsupportedMediaTypeException("Only PDF, DOC and DOCX manuscripts are accepted");
+        }
+        
+        BufferedInputStream in = new BufferedInputStream(
+                new LimitedInputStream(part.body(), maxFileSize,
+                        "Manuscript exceeds " + DataSize.ofBytes(maxFileSize).toMegabytes() + " MB"),
+                8192);
+        in.mark(signature.length);
+        byte[] head = in.readNBytes(signature.length);
+        if (head.length == 0) {
+            // An empty file input, as browsers send when nothing was chosen
+            return null;
+        }
+        if (!Arrays.equals(head, signature)) {
+            throw new UnsupportedMediaTypeException("File content does not match its ." + extension + " extension");
+        }
+        in.reset();
+        
+        String key = UUID.randomUUID() + "_" + fileName;
+        StoredBlob blob = blobStorage.store(key, in, -1, part.contentType());
+        return new UploadedFile(fileName, part.contentType(), blob);
+    }
+}
@@ -0,0 +1,392 @@
+package com.researchjournal.service;
+
+import com.researchjournal.entity.Paper;
+import com.researchjournal.repository.PaperRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+// OAI-PMH 2.0 provider (oai_dc only, no sets) over published and archived papers. Datestamps are
+// updatedAt in UTC; list verbs page by (updatedAt, id) keyset, and the resumption token carries the
+// last key seen, so each page is a single index range scan however deep the harvest is.
+@Service
+@RequiredArgsConstructor
+public class OaiPmhService {
+    
+    private static final String OAI_NS = "http://www.openarchives.org/OAI/2.0/";
+    private static final String OAI_SCHEMA = OAI_NS + " http://www.openarchives.org/OAI/2.0/OAI-PMH.xsd";
+    private static final String OAI_DC_NS = "http://www.openarchives.org/OAI/2.0/oai_dc/";
+    private static final String OAI_DC_SCHEMA = OAI_DC_NS + " http://www.openarchives.org/OAI/2.0/oai_dc.xsd";
+    private static final String DC_NS = "http://purl.org/dc/elements/1.1/";
+    private static final String XSI_NS = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final String OAI_DC = "oai_dc";
+    
+    private static final DateTimeFormatter DATESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final LocalDateTime BEGINNING_OF_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
+    private static final Set<String> LIST_ARGUMENTS = Set.of("metadataPrefix", "from", "until", "set", "resumptionToken");
+    private static final Map<String, Set<String>> VERB_ARGUMENTS = Map.of(
+            "Identify", Set.of(),
+            "ListMetadataFormats", Set.of("identifier"),
+            "ListSets", Set.of("resumptionToken"),
+            "GetRecord", Set.of("identifier", "metadataPrefix"),
+            "ListIdentifiers", LIST_ARGUMENTS,
+            "ListRecords", LIST_ARGUMENTS
+    );
+    
+    private final PaperRepository paperRepository;
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+    
+    @Value("${oai.repository-name:Research Journal}")
+    private String repositoryName;
+    
+    @Value("${oai.repository-identifier:research-journal.local}")
+    private String repositoryIdentifier;
+    
+    @Value("${oai.admin-email:admin@journal.com}")
+    private String adminEmail;
+    
+    @Value("${oai.page-size:200}")
+    private int pageSize;
+    
+    @FunctionalInterface
+    private interface Body {
+        void write(XMLStreamWriter xml) throws XMLStreamException;
+    }
+    
+    private static class OaiException extends RuntimeException {
+        
+        private final String code;
+        
+        OaiException(String code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+    
+    // Resumption token contents; until is exclusive
+    private record HarvestState(LocalDateTime afterTime, long afterId, LocalDateTime until, long cursor) {
+        
+        String encode() {
+            String token = afterTime + "|" + afterId + "|" + until + "|" + cursor;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static HarvestState decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException();
+                }
+                return new HarvestState(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                        LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new OaiException("badResumptionToken", "The resumption token is invalid");
+            }
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public void handle(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        boolean repeated = false;
+        for (Map.Entry<String, String[]> entry : request.getParameterMap().entrySet()) {
+            repeated |= entry.getValue().length != 1;
+            arguments.put(entry.getKey(), entry.getValue()[0]);
+        }
+        String baseUrl = request.getRequestURL().toString();
+        
+        Body body;
+        boolean echoArguments = true;
+        try {
+            body = dispatch(arguments, repeated, baseUrl);
+        } catch (OaiException e) {
+            // The request element must not echo arguments that made the request itself invalid
+            echoArguments = !e.code.equals("badVerb") && !e.code.equals("badArgument");
+            body = error(e);
+        }
+        
+        response.setContentType("text/xml; charset=UTF-8");
+        try {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(response.getOutputStream(), "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.setDefaultNamespace(OAI_NS);
+            xml.writeStartElement(OAI_NS, "OAI-PMH");
+            xml.writeDefaultNamespace(OAI_NS);
+            xml.writeNamespace("xsi", XSI_NS);
+            xml.writeAttribute("xsi", XSI_NS, "schemaLocation", OAI_SCHEMA);
+            element(xml, "responseDate", datestamp(Instant.now()));
+            xml.writeStartElement("request");
+            if (echoArguments) {
+                for (Map.Entry<String, String> argument : arguments.entrySet()) {
+                    xml.writeAttribute(argument.getKey(), argument.getValue());
+                }
+            }
+            xml.writeCharacters(baseUrl);
+            xml.writeEndElement();
+            body.write(xml);
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write OAI-PMH response", e);
+        }
+    }
+    
+    private Body dispatch(Map<String, String> arguments, boolean repeated, String baseUrl) {
+        String verb = arguments.get("verb");
+        Set<String> allowed = verb != null ? VERB_ARGUMENTS.get(verb) : null;
+        if (allowed == null) {
+            throw new OaiException("badVerb", "Missing or illegal verb");
+        }
+        if (repeated) {
+            throw new OaiException("badArgument", "Arguments may not be repeated");
+        }
+        for (String name : arguments.keySet()) {
+            if (!name.equals("verb") && !allowed.contains(name)) {
+                throw new OaiException("badArgument", "Illegal argument: " + name);
+            }
+        }
+        
+        return switch (verb) {
+            case "Identify" -> identify(baseUrl);
+            case "ListMetadataFormats" -> listMetadataFormats(arguments.get("identifier"));
+            case "ListSets" -> throw new OaiException("noSetHierarchy", "This repository does not support sets");
+            case "GetRecord" -> getRecord(arguments);
+            case "ListIdentifiers" -> list(arguments, false);
+            default -> list(arguments, true);
+        };
+    }
+    
+    private Body identify(String baseUrl) {
+        LocalDateTime earliest = paperRepository.findEarliestUpdate(PublicSearchService.PUBLIC_STATUSES);
+        return xml -> {
+            xml.writeStartElement("Identify");
+            element(xml, "repositoryName", repositoryName);
+            element(xml, "baseURL", baseUrl);
+            element(xml, "protocolVersion", "2.0");
+            element(xml, "adminEmail", adminEmail);
+            element(xml, "earliestDatestamp", datestamp(earliest != null ? earliest : BEGINNING_OF_TIME));
+            element(xml, "deletedRecord", "no");
+            element(xml, "granularity", "YYYY-MM-DDThh:mm:ssZ");
+            xml.writeEndElement();
+        };
+    }
+    
+    private Body listMetadataFormats(String identifier) {
+        if (identifier != null) {
+            findRecord(identifier);
+        }
+        return xml -> {
+            xml.writeStartElement("ListMetadataFormats");
+            xml.writeStartElement("metadataFormat");
+            element(xml, "metadataPrefix", OAI_DC);
+            element(xml, "schema", "http://www.openarchives.org/OAI/2.0/oai_dc.xsd");
+            element(xml, "metadataNamespace", OAI_DC_NS);
+            xml.writeEndElement();
+            xml.writeEndElement();
+        };
+    }
+    
+    private Body getRecord(Map<String, String> arguments) {
+        String identifier = required(arguments, "identifier");
+        checkMetadataPrefix(required(arguments, "metadataPrefix"));
+        Paper paper = findRecord(identifier);
+        return xml -> {
+            xml.writeStartElement("GetRecord");
+            writeRecord(xml, paper);
+            xml.writeEndElement();
+        };
+    }
+    
+    private Body list(Map<String, String> arguments, boolean withMetadata) {
+        HarvestState state;
+        String token = arguments.get("resumptionToken");
+        if (token != null) {
+            if (arguments.size() != 2) {
+                throw new OaiException("badArgument", "resumptionToken is an exclusive argument");
+            }
+            state = HarvestState.decode(token);
+        } else {
+            checkMetadataPrefix(required(arguments, "metadataPrefix"));
+            if (arguments.containsKey("set")) {
+                throw new OaiException("noSetHierarchy", "This repository does not support sets");
+            }
+            String from = arguments.get("from");
+            String until = arguments.get("until");
+            if (from != null && until != null && from.length() != until.length()) {
+                throw new OaiException("badArgument", "from and until must have the same granularity");
+            }
+            state = new HarvestState(from != null ? parseDate(from, false) : BEGINNING_OF_TIME, 0,
+                    until != null ? parseDate(until, true) : END_OF_TIME, 0);
+        }
+        
+        List<Paper> page = paperRepository.findHarvestPage(PublicSearchService.PUBLIC_STATUSES,
+                state.afterTime(), state.afterId(), state.until(), PageRequest.of(0, pageSize + 1));
+        if (page.isEmpty()) {
+            throw new OaiException("noRecordsMatch", "No records match the request");
+        }
+        boolean more = page.size() > pageSize;
+        List<Paper> records = more ? page.subList(0, pageSize) : page;
+        Paper last = records.get(records.size() - 1);
+        String next = more
+                ? new HarvestState(last.getUpdatedAt(), last.getId(), state.until(), state.cursor() + records.size()).encode()
+                : "";
+        
+        return xml -> {
+            xml.writeStartElement(withMetadata ? "ListRecords" : "ListIdentifiers");
+            for (Paper paper : records) {
+                if (withMetadata) {
+                    writeRecord(xml, paper);
+                } else {
+                    writeHeader(xml, paper);
+                }
+            }
+            // An empty token marks the last page of a harvest that was resumed at least once
+            if (more || state.cursor() > 0) {
+                xml.writeStartElement("resumptionToken");
+                xml.writeAttribute("cursor", String.valueOf(state.cursor()));
+                xml.writeCharacters(next);
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        };
+    }
+    
+    private Body error(OaiException e) {
+        return xml -> {
+            xml.writeStartElement("error");
+            xml.writeAttribute("code", e.code);
+            xml.writeCharacters(e.getMessage());
+            xml.writeEndElement();
+        };
+    }
+    
+    private void writeRecord(XMLStreamWriter xml, Paper paper) throws XMLStreamException {
+        xml.writeStartElement("record");
+        writeHeader(xml, paper);
+        xml.writeStartElement("metadata");
+        xml.writeStartElement("oai_dc", "dc", OAI_DC_NS);
+        xml.writeNamespace("oai_dc", OAI_DC_NS);
+        xml.writeNamespace("dc", DC_NS);
+        xml.writeAttribute("xsi", XSI_NS, "schemaLocation", OAI_DC_SCHEMA);
+        dublinCore(xml, "title", paper.getTitle());
+        dublinCore(xml, "creator", paper.getAuthor().getLastName() + ", " + paper.getAuthor().getFirstName());
+        for (String keyword : KeywordIndex.split(paper.getKeywords())) {
+            dublinCore(xml, "subject", keyword);
+        }
+        dublinCore(xml, "description", paper.getAbstractText());
+        if (paper.getPublishedAt() != null) {
+            dublinCore(xml, "date", paper.getPublishedAt().toLocalDate().toString());
+        }
+        dublinCore(xml, "type", "Text");
+        dublinCore(xml, "identifier", identifier(paper));
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+    
+    private void writeHeader(XMLStreamWriter xml, Paper paper) throws XMLStreamException {
+        xml.writeStartElement("header");
+        element(xml, "identifier", identifier(paper));
+        element(xml, "datestamp", datestamp(paper.getUpdatedAt()));
+        xml.writeEndElement();
+    }
+    
+    private Paper findRecord(String identifier) {
+        String prefix = "oai:" + repositoryIdentifier + ":paper/";
+        try {
+            if (identifier.startsWith(prefix)) {
+                Long id = Long.valueOf(identifier.substring(prefix.length()));
+                Optional<Paper> paper = paperRepository.findById(id)
+                        .filter(p -> PublicSearchService.PUBLIC_STATUSES.contains(p.getStatus()));
+                if (paper.isPresent()) {
+                    return paper.get();
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            // Falls through to idDoesNotExist
+        }
+        throw new OaiException("idDoesNotExist", "No record with identifier " + identifier);
+    }
+    
+    private String identifier(Paper paper) {
+        return "oai:" + repositoryIdentifier + ":paper/" + paper.getId();
+    }
+    
+    private static void checkMetadataPrefix(String metadataPrefix) {
+        if (!OAI_DC.equals(metadataPrefix)) {
+            throw new OaiException("cannotDisseminateFormat", "Only oai_dc is supported");
+        }
+    }
+    
+    private static String required(Map<String, String> arguments, String name) {
+        String value = arguments.get(name);
+        if (value == null || value.isBlank()) {
+            throw new OaiException("badArgument", "Missing argument: " + name);
+        }
+        return value;
+    }
+    
+    // OAI dates are UTC; updatedAt is stored in the server's zone. Until bounds are made exclusive.
+    private static LocalDateTime parseDate(String value, boolean until) {
+        try {
+            Instant instant;
+            if (value.length() == 10) {
+                LocalDate date = LocalDate.parse(value);
+                instant = (until ? date.plusDays(1) : date).atStartOfDay(ZoneOffset.UTC).toInstant();
+            } else {
+                instant = Instant.from(DATESTAMP.withZone(ZoneOffset.UTC).parse(value));
+                if (until) {
+                    instant = instant.plusSeconds(1);
+                }
+            }
+            return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+        } catch (DateTimeParseException e) {
+            throw new OaiException("badArgument", "Illegal date: " + value);
+        }
+    }
+    
+    private static String datestamp(LocalDateTime time) {
+        return datestamp(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+    
+    private static String datestamp(Instant instant) {
+        return DATESTAMP.format(instant.atOffset(ZoneOffset.UTC));
+    }
+    
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(clean(text));
+        xml.writeEndElement();
+    }
+    
+    private static void dublinCore(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        xml.writeStartElement("dc", name, DC_NS);
+        xml.writeCharacters(clean(text));
+        xml.writeEndElement();
+    }
+    
+    // Control characters are not allowed anywhere in XML 1.0, even escaped
+    private static String clean(String text) {
+        return text == null ? "" : text.replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]", "");
+    }
+}
@@ -0,0 +1,269 @@
+package com.researchjournal.service;
+
+import com.researchjournal.dto.PaperHistoryEntryDTO;
+import com.researchjournal.dto.PipelineSnapshotDTO;
+import com.researchjournal.entity.Paper;
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.entity.Role;
+import com.researchjournal.event.PaperTransitionEvent;
+import com.researchjournal.event.PaperTransitionsEvent;
+import com.researchjournal.eventlog.LifecycleEvent;
+import com.researchjournal.eventlog.LifecycleEventLog;
+import com.researchjournal.eventlog.LifecycleEventType;
+import com.researchjournal.eventlog.LifecycleJournal;
+import com.researchjournal.repository.PaperRepository;
+import com.researchjournal.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Paper history and point-in-time pipeline state. Transitions go to the shared lifecycle journal in the
+// transaction that caused them; reads are answered from this replica's mirror of it, which follows the
+// journal within eventlog.poll-interval-ms and right after each local commit.
+@Slf4j
+@Service
+public class PaperHistoryService {
+    
+    private static final int SYNC_BATCH = 1000;
+    private static final Set<LifecycleEventType> REVIEWER_EVENTS = EnumSet.of(LifecycleEventType.REVIEWER_ASSIGNED,
+            LifecycleEventType.REVIEWER_REMOVED, LifecycleEventType.REVIEW_STARTED, LifecycleEventType.REVIEW_SUBMITTED);
+    
+    private record Checkpoint(long[] paperIds, PaperStatus[] statuses) {
+        
+        static Checkpoint of(Map<Long, PaperStatus> statuses) {
+            long[] paperIds = new long[statuses.size()];
+            PaperStatus[] values = new PaperStatus[statuses.size()];
+            int i = 0;
+            for (Map.Entry<Long, PaperStatus> entry : statuses.entrySet()) {
+                paperIds[i] = entry.getKey();
+                values[i++] = entry.getValue();
+            }
+            return new Checkpoint(paperIds, values);
+        }
+        
+        Map<Long, PaperStatus> restore() {
+            Map<Long, PaperStatus> restored = new HashMap<>(paperIds.length * 4 / 3 + 1);
+            for (int i = 0; i < paperIds.length; i++) {
+                restored.put(paperIds[i], statuses[i]);
+            }
+            return restored;
+        }
+    }
+    
+    private final LifecycleEventLog eventLog;
+    private final LifecycleJournal journal;
+    private final PaperRepository paperRepository;
+    private final FileDownloadService fileDownloadService;
+    private final int checkpointInterval;
+    // paperId -> sequences of its events, oldest first
+    private final Map<Long, long[]> sequencesByPaper = new ConcurrentHashMap<>();
+    // Status of every paper as of the last mirrored event, and copies of it every checkpointInterval events
+    private final Map<Long, PaperStatus> statuses = new HashMap<>();
+    private final NavigableMap<Long, Checkpoint> checkpoints = new ConcurrentSkipListMap<>();
+    // Highest sequence this replica appended; commits above the mirror's end trigger an immediate sync
+    private final AtomicLong appendedUpTo = new AtomicLong();
+    private volatile boolean ready;
+    
+    public PaperHistoryService(LifecycleEventLog eventLog, LifecycleJournal journal, PaperRepository paperRepository,
+                               FileDownloadService fileDownloadService,
+                               @Value("${eventlog.checkpoint-interval:50000}") int checkpointInterval) {
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.paperRepository = paperRepository;
+        this.fileDownloadService = fileDownloadService;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+    }
+    
+    @PostConstruct
+    public synchronized void loadIndex() {
+        long started = System.nanoTime();
+        eventLog.replay(1, eventLog.lastSequence(), this::indexEvent);
+        log.info("Indexed lifecycle history of {} papers in {} ms", sequencesByPaper.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    // The local copy may be missing (new pod, emptyDir) or stale (older per-replica logs, another database);
+    // either way the journal wins and the copy is rebuilt from it
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        int baseline = journal.recordBaselineIfEmpty(paperRepository::findIdAndStatus);
+        if (baseline > 0) {
+            log.info("Recorded baseline lifecycle state for {} papers", baseline);
+        }
+        synchronized (this) {
+            long localLast = eventLog.lastSequence();
+            if (localLast > 0 && !eventLog.read(localLast).equals(journal.read(localLast))) {
+                log.warn("Local lifecycle event log does not match the journal at sequence {}; rebuilding it", localLast);
+                eventLog.reset();
+                sequencesByPaper.clear();
+                statuses.clear();
+                checkpoints.clear();
+            }
+            ready = true;
+        }
+        sync();
+    }
+    
+    // BEFORE_COMMIT puts the journal row in the writer's transaction, so a rolled-back change leaves no event
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTransition(PaperTransitionEvent event) {
+        long sequence = journal.append(event.paperId(), event.type(), event.fromStatus(), event.toStatus(),
+                currentUserId(), event.subjectId());
+        appendedUpTo.accumulateAndGet(sequence, Math::max);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTransitions(PaperTransitionsEvent event) {
+        if (event.transitions().isEmpty()) {
+            return;
+        }
+        long sequence = journal.appendAll(event.transitions(), currentUserId());
+        appendedUpTo.accumulateAndGet(sequence, Math::max);
+    }
+    
+    // Lets the writer read its own transition right away; one sync covers a whole batch of them
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransitionCommitted(PaperTransitionEvent event) {
+        syncIfBehind();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransitionsCommitted(PaperTransitionsEvent event) {
+        syncIfBehind();
+    }
+    
+    private void syncIfBehind() {
+        if (eventLog.lastSequence() < appendedUpTo.get()) {
+            sync();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${eventlog.poll-interval-ms:1000}")
+    public synchronized void sync() {
+        if (!ready) {
+            return;
+        }
+        try {
+            List<LifecycleEvent> events;
+            do {
+                events = journal.readAfter(eventLog.lastSequence(), SYNC_BATCH);
+                for (LifecycleEvent event : events) {
+                    eventLog.append(event);
+                    indexEvent(event);
+                }
+            } while (events.size() == SYNC_BATCH);
+        } catch (Exception ex) {
+            log.warn("Syncing the lifecycle event log failed: {}", ex.getMessage());
+        }
+    }
+    
+    // Readable by whoever may read the paper's manuscript; deleted papers' history only by staff
+    public List<PaperHistoryEntryDTO> getHistory(Long paperId, LocalDateTime at, UserPrincipal principal) {
+        boolean staff = principal.getRole() == Role.ADMIN || principal.getRole() == Role.EDITOR;
+        if (!staff) {
+            Paper paper = paperRepository.findById(paperId)
+                    .orElseThrow(() -> new RuntimeException("Paper not found"));
+            if (!fileDownloadService.canAccess(paper, principal)) {
+                throw new AccessDeniedException("You do not have access to this paper's history");
+            }
+        }
+        long[] sequences = sequencesByPaper.getOrDefault(paperId, new long[0]);
+        long until = at == null ? Long.MAX_VALUE : eventLog.sequenceAt(toMillis(at));
+        List<PaperHistoryEntryDTO> history = new ArrayList<>(sequences.length);
+        for (long sequence : sequences) {
+            if (sequence > until) {
+                break;
+            }
+            history.add(convertToDTO(eventLog.read(sequence), staff));
+        }
+        return history;
+    }
+    
+    // Starts from the nearest checkpoint at or before the given time and replays the rest; papers deleted by then are left out
+    public PipelineSnapshotDTO getPipeline(LocalDateTime at, boolean includePapers) {
+        long until = at == null ? eventLog.lastSequence() : eventLog.sequenceAt(toMillis(at));
+        Map.Entry<Long, Checkpoint> checkpoint = checkpoints.floorEntry(until);
+        Map<Long, PaperStatus> statusesAt = checkpoint != null ? checkpoint.getValue().restore() : new HashMap<>();
+        eventLog.replay(checkpoint != null ? checkpoint.getKey() + 1 : 1, until, event -> apply(statusesAt, event));
+        
+        Map<PaperStatus, Long> counts = new EnumMap<>(PaperStatus.class);
+        for (PaperStatus status : PaperStatus.values()) {
+            counts.put(status, 0L);
+        }
+        statusesAt.values().forEach(status -> counts.merge(status, 1L, Long::sum));
+        return PipelineSnapshotDTO.builder()
+                .at(at != null ? at : LocalDateTime.now())
+                .lastSequence(until)
+                .totalPapers((long) statusesAt.size())
+                .statusCounts(counts)
+                .paperStatuses(includePapers ? new TreeMap<>(statusesAt) : null)
+                .build();
+    }
+    
+    private static void apply(Map<Long, PaperStatus> statuses, LifecycleEvent event) {
+        if (event.type() == LifecycleEventType.DELETED) {
+            statuses.remove(event.paperId());
+        } else if (event.toStatus() != null) {
+            statuses.put(event.paperId(), event.toStatus());
+        } else if (event.fromStatus() != null) {
+            statuses.putIfAbsent(event.paperId(), event.fromStatus());
+        }
+    }
+    
+    // Called in sequence order with the monitor held
+    private void indexEvent(LifecycleEvent event) {
+        sequencesByPaper.merge(event.paperId(), new long[]{event.sequence()}, (existing, added) -> {
+            long[] merged = Arrays.copyOf(existing, existing.length + 1);
+            merged[existing.length] = added[0];
+            return merged;
+        });
+        apply(statuses, event);
+        if (event.sequence() % checkpointInterval == 0) {
+            checkpoints.put(event.sequence(), Checkpoint.of(statuses));
+        }
+    }
+    
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+    
+    private static long toMillis(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    // Review is single-blind: who was assigned, removed or acted as a reviewer is only shown to staff
+    private PaperHistoryEntryDTO convertToDTO(LifecycleEvent event, boolean staff) {
+        boolean hidePeople = !staff && REVIEWER_EVENTS.contains(event.type());
+        return PaperHistoryEntryDTO.builder()
+                .sequence(event.sequence())
+                .type(event.type())
+                .occurredAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestampMillis()), ZoneId.systemDefault()))
+                .fromStatus(event.fromStatus())
+                .toStatus(event.toStatus())
+                .actorId(hidePeople ? null : event.actorId())
+                .subjectId(hidePeople ? null : event.subjectId())
+                .build();
+    }
+}
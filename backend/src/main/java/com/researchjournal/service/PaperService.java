@@ -2,18 +2,21 @@ package com.researchjournal.service;
 
 import com.researchjournal.dto.*;
 import com.researchjournal.entity.*;
+import com.researchjournal.event.ManuscriptStoredEvent;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PaperTransitionEvent;
+import com.researchjournal.event.PaperTransitionsEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.eventlog.LifecycleEventType;
 import com.researchjournal.repository.*;
+import com.researchjournal.storage.StoredBlob;
+import com.researchjournal.storage.UploadedFile;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,48 +26,71 @@ import java.util.HashSet;
 @RequiredArgsConstructor
 public class PaperService {
     
+    private static final int MAX_BULK_PAPERS = 1000;
+    
     private final PaperRepository paperRepository;
     private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
     private final RevisionRepository revisionRepository;
     private final UserService userService;
+    private final ManuscriptIndex manuscriptIndex;
+    private final KeywordIndex keywordIndex;
+    private final DuplicateSubmissionIndex duplicateSubmissionIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
-    @Value("${file.upload-dir}")
-    private String uploadDir;
-    
-    public List<PaperDTO> getAllPapers() {
+    public List<PaperDTO> getAllPapers(FieldSelection selection) {
         return paperRepository.findAll().stream()
-                .map(this::convertToDTO)
+                .map(paper -> convertToDTO(paper, selection))
                 .collect(Collectors.toList());
     }
     
-    public PaperDTO getPaperById(Long id) {
+    public PaperDTO getPaperById(Long id, FieldSelection selection) {
         Paper paper = paperRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Paper not found"));
-        return convertToDTO(paper);
+        return convertToDTO(paper, selection);
     }
     
-    public List<PaperDTO> getPapersByAuthor(Long authorId) {
+    public String getPaperEtag(Long id, FieldSelection selection) {
+        Paper paper = paperRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Paper not found"));
+        
+        // Reviews carry their own row versions and are embedded in the representation
+        StringBuilder dependencies = new StringBuilder().append(id).append('|');
+        if (selection.expands("reviews")) {
+            for (Object[] review : reviewRepository.findVersionsByPaperId(id)) {
+                dependencies.append(review[0]).append(':').append(review[1]).append(',');
+            }
+        }
+        // Users have no row version; updatedAt moves on every rename so embedded names cannot go stale
+        dependencies.append('|');
+        for (Object[] user : userRepository.findVersionsEmbeddedInPaper(id)) {
+            dependencies.append(user[0]).append(':').append(user[1]).append(',');
+        }
+        dependencies.append('|').append(selection.fingerprint());
+        return EntityTags.format(paper.getLockVersion(), dependencies.toString());
+    }
+    
+    public List<PaperDTO> getPapersByAuthor(Long authorId, FieldSelection selection) {
         return paperRepository.findByAuthorId(authorId).stream()
-                .map(this::convertToDTO)
+                .map(paper -> convertToDTO(paper, selection))
                 .collect(Collectors.toList());
     }
     
-    public List<PaperDTO> getPapersByStatus(PaperStatus status) {
+    public List<PaperDTO> getPapersByStatus(PaperStatus status, FieldSelection selection) {
         return paperRepository.findByStatus(status).stream()
-                .map(this::convertToDTO)
+                .map(paper -> convertToDTO(paper, selection))
                 .collect(Collectors.toList());
     }
     
-    public List<PaperDTO> getPapersForReviewer(Long reviewerId) {
+    public List<PaperDTO> getPapersForReviewer(Long reviewerId, FieldSelection selection) {
         return paperRepository.findByAssignedReviewerId(reviewerId).stream()
-                .map(this::convertToDTO)
+                .map(paper -> convertToDTO(paper, selection))
                 .collect(Collectors.toList());
     }
     
-    public List<PaperDTO> getPapersForEditor(Long editorId) {
+    public List<PaperDTO> getPapersForEditor(Long editorId, FieldSelection selection) {
         return paperRepository.findByAssignedEditorId(editorId).stream()
-                .map(this::convertToDTO)
+                .map(paper -> convertToDTO(paper, selection))
                 .collect(Collectors.toList());
     }
     
@@ -74,16 +100,39 @@ public class PaperService {
                 .collect(Collectors.toList());
     }
     
-    public List<PaperDTO> searchPapers(String keyword) {
-        return paperRepository.searchByKeyword(keyword).stream()
-                .map(this::convertToDTO)
+    public List<PaperDTO> getPapersByKeywords(List<String> keywords, List<PaperStatus> statuses, FieldSelection selection) {
+        return paperRepository.findAllById(keywordIndex.findPapers(keywords, statuses)).stream()
+                .map(paper -> convertToDTO(paper, selection))
+                .collect(Collectors.toList());
+    }
+    
+    public List<FacetCount> getKeywordCounts(List<PaperStatus> statuses, int limit) {
+        return keywordIndex.keywordCounts(statuses, limit);
+    }
+    
+    public List<PaperDTO> searchPapers(String keyword, FieldSelection selection) {
+        Map<Long, Paper> matches = new LinkedHashMap<>();
+        paperRepository.searchByKeyword(keyword).forEach(paper -> matches.put(paper.getId(), paper));
+        
+        // Full-text hits from extracted manuscripts that the metadata search missed
+        List<Long> textHits = manuscriptIndex.search(keyword).stream()
+                .filter(id -> !matches.containsKey(id))
+                .toList();
+        if (!textHits.isEmpty()) {
+            paperRepository.findAllById(textHits).forEach(paper -> matches.put(paper.getId(), paper));
+        }
+        
+        return matches.values().stream()
+                .map(paper -> convertToDTO(paper, selection))
                 .collect(Collectors.toList());
     }
     
     @Transactional
-    public PaperDTO submitPaper(PaperSubmitRequest request, MultipartFile file, Long authorId) throws IOException {
+    public PaperDTO submitPaper(PaperSubmitRequest request, UploadedFile file, Long authorId) {
         User author = userRepository.findById(authorId)
                 .orElseThrow(() -> new RuntimeException("Author not found"));
+        Optional<DuplicateSubmissionIndex.Match> duplicate = duplicateSubmissionIndex.check(authorId,
+                request.getTitle(), request.getAbstractText(), file != null ? file.blob().digest() : null);
         
         Paper paper = Paper.builder()
                 .title(request.getTitle())
@@ -94,44 +143,55 @@ public class PaperService {
                 .version(1)
                 .build();
         
-        if (file != null && !file.isEmpty()) {
-            String fileName = saveFile(file, paper.getId());
-            paper.setFileName(file.getOriginalFilename());
-            paper.setFilePath(fileName);
+        if (file != null) {
+            attachManuscript(paper, file);
         }
+        duplicate.ifPresent(match -> {
+            paper.setDuplicateOfId(match.paperId());
+            paper.setDuplicateKind(match.kind());
+        });
         
         Paper savedPaper = paperRepository.save(paper);
         
-        // Run plagiarism check (simulated)
         runPlagiarismCheck(savedPaper);
+        publishManuscriptStored(savedPaper);
         
+        eventPublisher.publishEvent(new PaperChangedEvent(savedPaper.getId()));
+        eventPublisher.publishEvent(new PaperTransitionEvent(savedPaper.getId(), LifecycleEventType.SUBMITTED,
+                null, savedPaper.getStatus(), null));
         return convertToDTO(savedPaper);
     }
     
     @Transactional
-    public PaperDTO updatePaper(Long id, PaperSubmitRequest request, MultipartFile file) throws IOException {
+    public PaperDTO updatePaper(Long id, PaperSubmitRequest request, UploadedFile file,
+                                Long expectedVersion) {
         Paper paper = paperRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Paper not found"));
+        EntityTags.checkVersion(paper.getLockVersion(), expectedVersion);
         
         paper.setTitle(request.getTitle());
         paper.setAbstractText(request.getAbstractText());
         paper.setKeywords(request.getKeywords());
         
-        if (file != null && !file.isEmpty()) {
-            String fileName = saveFile(file, paper.getId());
-            paper.setFileName(file.getOriginalFilename());
-            paper.setFilePath(fileName);
+        if (file != null) {
+            attachManuscript(paper, file);
         }
         
         Paper updatedPaper = paperRepository.save(paper);
+        if (file != null) {
+            runPlagiarismCheck(updatedPaper);
+            publishManuscriptStored(updatedPaper);
+        }
+        eventPublisher.publishEvent(new PaperChangedEvent(updatedPaper.getId()));
         return convertToDTO(updatedPaper);
     }
     
     @Transactional
     public PaperDTO submitRevision(Long paperId, String changesSummary, String authorResponse, 
-                                    MultipartFile file) throws IOException {
+                                    UploadedFile file, Long expectedVersion) {
         Paper paper = paperRepository.findById(paperId)
                 .orElseThrow(() -> new RuntimeException("Paper not found"));
+        EntityTags.checkVersion(paper.getLockVersion(), expectedVersion);
         
         // Save current version as revision
         Revision revision = Revision.builder()
@@ -139,32 +199,38 @@ public class PaperService {
                 .versionNumber(paper.getVersion())
                 .filePath(paper.getFilePath())
                 .fileName(paper.getFileName())
+                .fileDigest(paper.getFileDigest())
+                .fileSize(paper.getFileSize())
                 .changesSummary(changesSummary)
                 .authorResponse(authorResponse)
                 .build();
         revisionRepository.save(revision);
+        PaperStatus previousStatus = paper.getStatus();
         
         // Update paper with new version
         paper.setVersion(paper.getVersion() + 1);
         paper.setStatus(PaperStatus.REVISED);
         
-        if (file != null && !file.isEmpty()) {
-            String fileName = saveFile(file, paper.getId());
-            paper.setFileName(file.getOriginalFilename());
-            paper.setFilePath(fileName);
+        if (file != null) {
+            attachManuscript(paper, file);
         }
         
         // Run plagiarism check on new version
         runPlagiarismCheck(paper);
         
         Paper updatedPaper = paperRepository.save(paper);
+        publishManuscriptStored(updatedPaper);
+        eventPublisher.publishEvent(new PaperChangedEvent(updatedPaper.getId()));
+        eventPublisher.publishEvent(new PaperTransitionEvent(updatedPaper.getId(), LifecycleEventType.REVISION_SUBMITTED,
+                previousStatus, updatedPaper.getStatus(), revision.getId()));
         return convertToDTO(updatedPaper);
     }
     
     @Transactional
-    public PaperDTO assignEditor(Long paperId, Long editorId) {
+    public PaperDTO assignEditor(Long paperId, Long editorId, Long expectedVersion) {
         Paper paper = paperRepository.findById(paperId)
                 .orElseThrow(() -> new RuntimeException("Paper not found"));
+        EntityTags.checkVersion(paper.getLockVersion(), expectedVersion);
         User editor = userRepository.findById(editorId)
                 .orElseThrow(() -> new RuntimeException("Editor not found"));
         
@@ -174,13 +240,17 @@ public class PaperService {
         
         paper.setAssignedEditor(editor);
         Paper updatedPaper = paperRepository.save(paper);
+        eventPublisher.publishEvent(new PaperChangedEvent(updatedPaper.getId()));
+        eventPublisher.publishEvent(new PaperTransitionEvent(updatedPaper.getId(), LifecycleEventType.EDITOR_ASSIGNED,
+                updatedPaper.getStatus(), updatedPaper.getStatus(), editorId));
         return convertToDTO(updatedPaper);
     }
     
     @Transactional
-    public PaperDTO assignReviewer(Long paperId, Long reviewerId) {
+    public PaperDTO assignReviewer(Long paperId, Long reviewerId, Long expectedVersion) {
         Paper paper = paperRepository.findById(paperId)
                 .orElseThrow(() -> new RuntimeException("Paper not found"));
+        EntityTags.checkVersion(paper.getLockVersion(), expectedVersion);
         User reviewer = userRepository.findById(reviewerId)
                 .orElseThrow(() -> new RuntimeException("Reviewer not found"));
         
@@ -192,6 +262,7 @@ public class PaperService {
             paper.setAssignedReviewers(new HashSet<>());
         }
         paper.getAssignedReviewers().add(reviewer);
+        PaperStatus previousStatus = paper.getStatus();
         paper.setStatus(PaperStatus.UNDER_REVIEW);
         
         // Create review entry
@@ -205,6 +276,9 @@ public class PaperService {
         reviewRepository.save(review);
         
         Paper updatedPaper = paperRepository.save(paper);
+        eventPublisher.publishEvent(new PaperChangedEvent(updatedPaper.getId()));
+        eventPublisher.publishEvent(new PaperTransitionEvent(updatedPaper.getId(), LifecycleEventType.REVIEWER_ASSIGNED,
+                previousStatus, updatedPaper.getStatus(), reviewerId));
         return convertToDTO(updatedPaper);
     }
     
@@ -217,13 +291,18 @@ public class PaperService {
         
         paper.getAssignedReviewers().remove(reviewer);
         Paper updatedPaper = paperRepository.save(paper);
+        eventPublisher.publishEvent(new PaperChangedEvent(updatedPaper.getId()));
+        eventPublisher.publishEvent(new PaperTransitionEvent(updatedPaper.getId(), LifecycleEventType.REVIEWER_REMOVED,
+                updatedPaper.getStatus(), updatedPaper.getStatus(), reviewerId));
         return convertToDTO(updatedPaper);
     }
     
     @Transactional
-    public PaperDTO updatePaperStatus(Long id, PaperStatus status, String editorComments) {
+    public PaperDTO updatePaperStatus(Long id, PaperStatus status, String editorComments, Long expectedVersion) {
         Paper paper = paperRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Paper not found"));
+        EntityTags.checkVersion(paper.getLockVersion(), expectedVersion);
+        PaperStatus previousStatus = paper.getStatus();
         
         paper.setStatus(status);
         if (editorComments != null) {
@@ -235,15 +314,71 @@ public class PaperService {
         }
         
         Paper updatedPaper = paperRepository.save(paper);
+        eventPublisher.publishEvent(new PaperChangedEvent(updatedPaper.getId()));
+        eventPublisher.publishEvent(new PaperTransitionEvent(updatedPaper.getId(),
+                status == PaperStatus.PUBLISHED ? LifecycleEventType.PUBLISHED : LifecycleEventType.STATUS_CHANGED,
+                previousStatus, status, null));
         return convertToDTO(updatedPaper);
     }
     
+    // Moves a whole set of papers, e.g. an issue being published, with one UPDATE. Nothing changes
+    // unless every paper exists and may move to the new status.
     @Transactional
-    public void deletePaper(Long id) {
-        if (!paperRepository.existsById(id)) {
-            throw new RuntimeException("Paper not found");
+    public BulkStatusResultDTO updatePaperStatuses(List<Long> paperIds, PaperStatus status, String editorComments) {
+        List<Long> ids = paperIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            throw new RuntimeException("No papers given");
+        }
+        if (ids.size() > MAX_BULK_PAPERS) {
+            throw new RuntimeException("At most " + MAX_BULK_PAPERS + " papers can be updated at once");
+        }
+        
+        Map<Long, PaperStatus> previous = new LinkedHashMap<>();
+        for (Object[] row : paperRepository.findStatusRowsByIdIn(ids)) {
+            previous.put((Long) row[0], (PaperStatus) row[1]);
+        }
+        List<Long> missing = ids.stream().filter(id -> !previous.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Papers not found: " + missing);
+        }
+        List<String> invalid = ids.stream()
+                .filter(id -> !previous.get(id).canTransitionTo(status))
+                .map(id -> id + " (" + previous.get(id) + ")")
+                .collect(Collectors.toList());
+        if (!invalid.isEmpty()) {
+            throw new RuntimeException("Cannot change status to " + status + " for papers " + String.join(", ", invalid));
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime publishedAt = status == PaperStatus.PUBLISHED ? now : null;
+        int updated = paperRepository.updateStatusIn(ids, PaperStatus.allowedBefore(status), status, publishedAt,
+                editorComments, now);
+        if (updated != ids.size()) {
+            // Another request moved some of them after the check; roll everything back
+            throw new OptimisticLockingFailureException("Papers changed status during a bulk update");
         }
-        paperRepository.deleteById(id);
+        
+        eventPublisher.publishEvent(new PapersChangedEvent(ids));
+        LifecycleEventType type = status == PaperStatus.PUBLISHED ? LifecycleEventType.PUBLISHED : LifecycleEventType.STATUS_CHANGED;
+        eventPublisher.publishEvent(new PaperTransitionsEvent(ids.stream()
+                .map(id -> new PaperTransitionEvent(id, type, previous.get(id), status, null))
+                .collect(Collectors.toList())));
+        return BulkStatusResultDTO.builder()
+                .status(status)
+                .updated(updated)
+                .paperIds(ids)
+                .publishedAt(publishedAt)
+                .build();
+    }
+    
+    @Transactional
+    public void deletePaper(Long id) {
+        Paper paper = paperRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Paper not found"));
+        PaperStatus previousStatus = paper.getStatus();
+        paperRepository.delete(paper);
+        eventPublisher.publishEvent(new PaperChangedEvent(id));
+        eventPublisher.publishEvent(new PaperTransitionEvent(id, LifecycleEventType.DELETED, previousStatus, null, null));
     }
     
     public List<RevisionDTO> getRevisions(Long paperId) {
@@ -252,84 +387,84 @@ public class PaperService {
                 .collect(Collectors.toList());
     }
     
-    private String saveFile(MultipartFile file, Long paperId) throws IOException {
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-        
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        
-        return fileName;
+    private void attachManuscript(Paper paper, UploadedFile file) {
+        StoredBlob storedFile = file.blob();
+        paper.setFileName(file.originalFilename());
+        paper.setFilePath(storedFile.key());
+        paper.setFileDigest(storedFile.digest());
+        paper.setFileSize(storedFile.size());
     }
     
     private void runPlagiarismCheck(Paper paper) {
-        // Simulated plagiarism check - in real application, integrate with actual service
-        Random random = new Random();
-        double plagiarismScore = random.nextDouble() * 30; // 0-30% similarity
-        
-        paper.setPlagiarismScore(plagiarismScore);
-        
-        StringBuilder report = new StringBuilder();
-        report.append("Plagiarism Check Report\n");
-        report.append("=======================\n");
-        report.append("Document: ").append(paper.getTitle()).append("\n");
-        report.append("Similarity Score: ").append(String.format("%.2f", plagiarismScore)).append("%\n\n");
-        
-        if (plagiarismScore < 10) {
-            report.append("Status: LOW SIMILARITY - Document appears to be original.\n");
-        } else if (plagiarismScore < 20) {
-            report.append("Status: MODERATE SIMILARITY - Some matching content found. Review recommended.\n");
-        } else {
-            report.append("Status: HIGH SIMILARITY - Significant matching content. Manual review required.\n");
-        }
-        
-        paper.setPlagiarismReport(report.toString());
+        // The score is filled in once the manuscript text has been extracted and compared
+        paper.setPlagiarismScore(null);
+        paper.setPlagiarismReport(paper.getFileDigest() != null
+                ? "Plagiarism check pending: manuscript text is being extracted."
+                : "Plagiarism check skipped: no manuscript file uploaded.");
         paperRepository.save(paper);
     }
     
+    private void publishManuscriptStored(Paper paper) {
+        if (paper.getFilePath() != null) {
+            eventPublisher.publishEvent(new ManuscriptStoredEvent(
+                    paper.getId(), paper.getFilePath(), paper.getFileName(), paper.getFileDigest()));
+        }
+    }
+    
     public PaperDTO convertToDTO(Paper paper) {
-        Set<User> assignedReviewers = paper.getAssignedReviewers();
-        List<UserDTO> reviewers = (assignedReviewers != null ? assignedReviewers.stream() : java.util.stream.Stream.<User>empty())
-                .map(userService::convertToDTO)
-                .collect(Collectors.toList());
-        
-        List<Review> paperReviews = paper.getReviews();
-        List<ReviewDTO> reviews = (paperReviews != null ? paperReviews.stream() : java.util.stream.Stream.<Review>empty())
-                .map(this::convertReviewToDTO)
-                .collect(Collectors.toList());
-        
-        return PaperDTO.builder()
+        return convertToDTO(paper, FieldSelection.ALL);
+    }
+    
+    // Associations are only touched when selected, so unrequested ones stay unloaded
+    public PaperDTO convertToDTO(Paper paper, FieldSelection selection) {
+        PaperDTO.PaperDTOBuilder dto = PaperDTO.builder()
                 .id(paper.getId())
                 .title(paper.getTitle())
                 .abstractText(paper.getAbstractText())
                 .keywords(paper.getKeywords())
-                .author(userService.convertToDTO(paper.getAuthor()))
                 .status(paper.getStatus())
                 .fileName(paper.getFileName())
                 .version(paper.getVersion())
                 .editorComments(paper.getEditorComments())
                 .plagiarismScore(paper.getPlagiarismScore())
-                .plagiarismReport(paper.getPlagiarismReport())
-                .assignedEditor(paper.getAssignedEditor() != null ? 
-                        userService.convertToDTO(paper.getAssignedEditor()) : null)
-                .assignedReviewers(reviewers)
-                .reviews(reviews)
+                .duplicateOfId(paper.getDuplicateOfId())
+                .duplicateKind(paper.getDuplicateKind())
                 .submittedAt(paper.getSubmittedAt())
                 .publishedAt(paper.getPublishedAt())
                 .createdAt(paper.getCreatedAt())
-                .updatedAt(paper.getUpdatedAt())
-                .build();
+                .updatedAt(paper.getUpdatedAt());
+        
+        if (selection.includes("plagiarismReport")) {
+            dto.plagiarismReport(paper.getPlagiarismReport());
+        }
+        if (selection.expands("author")) {
+            dto.author(userService.convertToDTO(paper.getAuthor()));
+        }
+        if (selection.expands("assignedEditor") && paper.getAssignedEditor() != null) {
+            dto.assignedEditor(userService.convertToDTO(paper.getAssignedEditor()));
+        }
+        if (selection.expands("assignedReviewers")) {
+            Set<User> assignedReviewers = paper.getAssignedReviewers();
+            dto.assignedReviewers((assignedReviewers != null ? assignedReviewers.stream() : java.util.stream.Stream.<User>empty())
+                    .map(userService::convertToDTO)
+                    .collect(Collectors.toList()));
+        }
+        if (selection.expands("reviews")) {
+            FieldSelection reviewSelection = selection.nested("reviews");
+            List<Review> paperReviews = paper.getReviews();
+            dto.reviews((paperReviews != null ? paperReviews.stream() : java.util.stream.Stream.<Review>empty())
+                    .map(review -> convertReviewToDTO(review, reviewSelection))
+                    .collect(Collectors.toList()));
+        }
+        return dto.build();
     }
     
-    private ReviewDTO convertReviewToDTO(Review review) {
+    private ReviewDTO convertReviewToDTO(Review review, FieldSelection selection) {
         return ReviewDTO.builder()
                 .id(review.getId())
                 .paperId(review.getPaper().getId())
                 .paperTitle(review.getPaper().getTitle())
-                .reviewer(userService.convertToDTO(review.getReviewer()))
+                .reviewer(selection.expands("reviewer") ? userService.convertToDTO(review.getReviewer()) : null)
                 .status(review.getStatus())
                 .comments(review.getComments())
                 .confidentialComments(review.getConfidentialComments())
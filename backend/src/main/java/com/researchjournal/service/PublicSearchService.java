@@ -0,0 +1,127 @@
+package com.researchjournal.service;
+
+import com.researchjournal.dto.FacetCount;
+import com.researchjournal.dto.PaperDTO;
+import com.researchjournal.dto.PublicSearchResult;
+import com.researchjournal.entity.Paper;
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.repository.PaperRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PublicSearchService {
+    
+    public static final Set<PaperStatus> PUBLIC_STATUSES = EnumSet.of(PaperStatus.PUBLISHED, PaperStatus.ARCHIVED);
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_FACET_VALUES = 20;
+    // IN () is not valid SQL, so an empty text-match list is padded with an id that never exists
+    private static final List<Long> NO_TEXT_MATCHES = List.of(-1L);
+    
+    private final PaperRepository paperRepository;
+    private final ManuscriptIndex manuscriptIndex;
+    private final KeywordIndex keywordIndex;
+    private final PaperService paperService;
+    
+    public List<PaperDTO> searchPublished(String keyword) {
+        List<Long> ids = matchingRows(keyword).stream()
+                .map(row -> (Long) row[0])
+                .toList();
+        return loadInOrder(ids);
+    }
+    
+    public PublicSearchResult search(String keyword, String tag, Integer year, String institution, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        String tagFilter = StringUtils.hasText(tag) ? KeywordIndex.normalize(tag) : null;
+        
+        Map<String, Long> keywordCounts = new HashMap<>();
+        Map<String, Long> yearCounts = new HashMap<>();
+        Map<String, Long> institutionCounts = new HashMap<>();
+        List<Long> matches = new ArrayList<>();
+        
+        // One pass over the matching rows both applies the drill-down filters and counts facets
+        for (Object[] row : matchingRows(keyword)) {
+            List<String> keywords = KeywordIndex.split((String) row[1]);
+            LocalDateTime publishedAt = (LocalDateTime) row[2];
+            String paperInstitution = (String) row[3];
+            
+            if (tagFilter != null && !keywords.contains(tagFilter)) {
+                continue;
+            }
+            if (year != null && (publishedAt == null || publishedAt.getYear() != year)) {
+                continue;
+            }
+            if (StringUtils.hasText(institution) && !institution.equalsIgnoreCase(paperInstitution)) {
+                continue;
+            }
+            
+            matches.add((Long) row[0]);
+            keywords.forEach(value -> keywordCounts.merge(value, 1L, Long::sum));
+            if (publishedAt != null) {
+                yearCounts.merge(String.valueOf(publishedAt.getYear()), 1L, Long::sum);
+            }
+            if (StringUtils.hasText(paperInstitution)) {
+                institutionCounts.merge(paperInstitution.trim(), 1L, Long::sum);
+            }
+        }
+        
+        int from = (int) Math.min((long) pageNumber * pageSize, matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+        
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facets.put("keywords", topValues(keywordCounts));
+        facets.put("years", topValues(yearCounts));
+        facets.put("institutions", topValues(institutionCounts));
+        
+        return PublicSearchResult.builder()
+                .content(loadInOrder(matches.subList(from, to)))
+                .page(pageNumber)
+                .size(pageSize)
+                .totalElements((long) matches.size())
+                .totalPages((matches.size() + pageSize - 1) / pageSize)
+                .facets(facets)
+                .build();
+    }
+    
+    private List<Object[]> matchingRows(String keyword) {
+        String term = keyword != null ? keyword.trim() : "";
+        List<Long> textMatches = term.isEmpty() ? List.of() : manuscriptIndex.search(term);
+        return paperRepository.searchPublicRows(term, PUBLIC_STATUSES,
+                textMatches.isEmpty() ? NO_TEXT_MATCHES : textMatches);
+    }
+    
+    // Only the requested page is materialized as entities and DTOs
+    private List<PaperDTO> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Paper> papers = paperRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Paper::getId, Function.identity()));
+        return ids.stream()
+                .map(papers::get)
+                .filter(Objects::nonNull)
+                .map(paperService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    public List<FacetCount> getPublicKeywordCounts(int limit) {
+        return keywordIndex.keywordCounts(PUBLIC_STATUSES, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+    
+    private static List<FacetCount> topValues(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(MAX_FACET_VALUES)
+                .map(entry -> new FacetCount(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+}
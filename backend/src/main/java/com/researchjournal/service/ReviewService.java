@@ -1,11 +1,16 @@
 package com.researchjournal.service;
 
+import com.researchjournal.dto.FieldSelection;
 import com.researchjournal.dto.ReviewDTO;
 import com.researchjournal.dto.ReviewSubmitRequest;
 import com.researchjournal.entity.Review;
 import com.researchjournal.entity.ReviewStatus;
+import com.researchjournal.event.PaperTransitionEvent;
+import com.researchjournal.event.ReviewChangedEvent;
+import com.researchjournal.eventlog.LifecycleEventType;
 import com.researchjournal.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,51 +24,69 @@ public class ReviewService {
     
     private final ReviewRepository reviewRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public List<ReviewDTO> getAllReviews() {
+    public List<ReviewDTO> getAllReviews(FieldSelection selection) {
         return reviewRepository.findAll().stream()
-                .map(this::convertToDTO)
+                .map(review -> convertToDTO(review, selection))
                 .collect(Collectors.toList());
     }
     
-    public ReviewDTO getReviewById(Long id) {
+    public ReviewDTO getReviewById(Long id, FieldSelection selection) {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
-        return convertToDTO(review);
+        return convertToDTO(review, selection);
     }
     
-    public List<ReviewDTO> getReviewsByPaper(Long paperId) {
+    public String getReviewEtag(Long id, FieldSelection selection) {
+        Review review = reviewRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Review not found"));
+        // The paper title and reviewer are embedded, so their versions are part of the tag
+        StringBuilder dependencies = new StringBuilder().append(id).append('|');
+        for (Object[] embedded : reviewRepository.findEmbeddedVersionsById(id)) {
+            dependencies.append(embedded[0]).append(':').append(embedded[1]);
+        }
+        dependencies.append('|').append(selection.fingerprint());
+        return EntityTags.format(review.getLockVersion(), dependencies.toString());
+    }
+    
+    public List<ReviewDTO> getReviewsByPaper(Long paperId, FieldSelection selection) {
         return reviewRepository.findByPaperId(paperId).stream()
-                .map(this::convertToDTO)
+                .map(review -> convertToDTO(review, selection))
                 .collect(Collectors.toList());
     }
     
-    public List<ReviewDTO> getReviewsByReviewer(Long reviewerId) {
+    public List<ReviewDTO> getReviewsByReviewer(Long reviewerId, FieldSelection selection) {
         return reviewRepository.findByReviewerId(reviewerId).stream()
-                .map(this::convertToDTO)
+                .map(review -> convertToDTO(review, selection))
                 .collect(Collectors.toList());
     }
     
-    public List<ReviewDTO> getPendingReviewsByReviewer(Long reviewerId) {
+    public List<ReviewDTO> getPendingReviewsByReviewer(Long reviewerId, FieldSelection selection) {
         return reviewRepository.findByReviewerIdAndStatus(reviewerId, ReviewStatus.PENDING).stream()
-                .map(this::convertToDTO)
+                .map(review -> convertToDTO(review, selection))
                 .collect(Collectors.toList());
     }
     
     @Transactional
-    public ReviewDTO startReview(Long reviewId) {
+    public ReviewDTO startReview(Long reviewId, Long expectedVersion) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
+        EntityTags.checkVersion(review.getLockVersion(), expectedVersion);
         
         review.setStatus(ReviewStatus.IN_PROGRESS);
         Review updatedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(updatedReview.getId(), updatedReview.getPaper().getId()));
+        eventPublisher.publishEvent(new PaperTransitionEvent(updatedReview.getPaper().getId(),
+                LifecycleEventType.REVIEW_STARTED, null, null, updatedReview.getId()));
         return convertToDTO(updatedReview);
     }
     
     @Transactional
-    public ReviewDTO submitReview(Long reviewId, ReviewSubmitRequest request) {
+    public ReviewDTO submitReview(Long reviewId, ReviewSubmitRequest request, Long expectedVersion) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
+        EntityTags.checkVersion(review.getLockVersion(), expectedVersion);
         
         review.setComments(request.getComments());
         review.setConfidentialComments(request.getConfidentialComments());
@@ -76,13 +99,17 @@ public class ReviewService {
         review.setCompletedAt(LocalDateTime.now());
         
         Review updatedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(updatedReview.getId(), updatedReview.getPaper().getId()));
+        eventPublisher.publishEvent(new PaperTransitionEvent(updatedReview.getPaper().getId(),
+                LifecycleEventType.REVIEW_SUBMITTED, null, null, updatedReview.getId()));
         return convertToDTO(updatedReview);
     }
     
     @Transactional
-    public ReviewDTO updateReview(Long reviewId, ReviewSubmitRequest request) {
+    public ReviewDTO updateReview(Long reviewId, ReviewSubmitRequest request, Long expectedVersion) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
+        EntityTags.checkVersion(review.getLockVersion(), expectedVersion);
         
         if (request.getComments() != null) {
             review.setComments(request.getComments());
@@ -107,23 +134,30 @@ public class ReviewService {
         }
         
         Review updatedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(updatedReview.getId(), updatedReview.getPaper().getId()));
         return convertToDTO(updatedReview);
     }
     
     @Transactional
     public void deleteReview(Long id) {
-        if (!reviewRepository.existsById(id)) {
-            throw new RuntimeException("Review not found");
-        }
-        reviewRepository.deleteById(id);
+        Review review = reviewRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Review not found"));
+        Long paperId = review.getPaper().getId();
+        reviewRepository.delete(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(id, paperId));
     }
     
     private ReviewDTO convertToDTO(Review review) {
+        return convertToDTO(review, FieldSelection.ALL);
+    }
+    
+    // The paper and reviewer are lazy; they are only loaded when their fields are selected
+    private ReviewDTO convertToDTO(Review review, FieldSelection selection) {
         return ReviewDTO.builder()
                 .id(review.getId())
                 .paperId(review.getPaper().getId())
-                .paperTitle(review.getPaper().getTitle())
-                .reviewer(userService.convertToDTO(review.getReviewer()))
+                .paperTitle(selection.includes("paperTitle") ? review.getPaper().getTitle() : null)
+                .reviewer(selection.expands("reviewer") ? userService.convertToDTO(review.getReviewer()) : null)
                 .status(review.getStatus())
                 .comments(review.getComments())
                 .confidentialComments(review.getConfidentialComments())
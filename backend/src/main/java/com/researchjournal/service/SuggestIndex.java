@@ -0,0 +1,325 @@
+package com.researchjournal.service;
+
+import com.researchjournal.dto.SuggestionDTO;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.event.UserChangedEvent;
+import com.researchjournal.repository.PaperRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class SuggestIndex {
+    
+    private static final String TITLE = "TITLE";
+    private static final String KEYWORD = "KEYWORD";
+    private static final String AUTHOR = "AUTHOR";
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TITLE_SUFFIXES = 8;
+    private static final int MAX_LIMIT = 20;
+    
+    private record PublishedPaper(long paperId, String title, List<String> keywords, String authorName) {
+    }
+    
+    // Searches read one consistent pair of snapshots without locking
+    private record Snapshots(SuggestSnapshot main, SuggestSnapshot delta) {
+    }
+    
+    private final PaperRepository paperRepository;
+    private final int compactThreshold;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggest-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final Map<Long, PublishedPaper> papers = new HashMap<>();
+    private final Map<String, Integer> keywordCounts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> authorCounts = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> views = new ConcurrentHashMap<>();
+    // Papers changed since the main snapshot was built, with a change counter for compaction
+    private final Map<Long, Integer> dirty = new ConcurrentHashMap<>();
+    private volatile Snapshots snapshots = new Snapshots(SuggestSnapshot.EMPTY, SuggestSnapshot.EMPTY);
+    private boolean compacting;
+    
+    public SuggestIndex(PaperRepository paperRepository,
+                        @Value("${suggest.compact-threshold:256}") int compactThreshold) {
+        this.paperRepository = paperRepository;
+        this.compactThreshold = compactThreshold;
+    }
+    
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        // Plain ASCII needs no accent folding, so it takes a single pass
+        StringBuilder ascii = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                ascii = null;
+                break;
+            }
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z')) {
+                if (pendingSpace && !ascii.isEmpty()) {
+                    ascii.append(' ');
+                }
+                pendingSpace = false;
+                ascii.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        if (ascii != null) {
+            return ascii.toString();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = paperRepository.findSuggestRows(PublicSearchService.PUBLIC_STATUSES);
+        synchronized (this) {
+            rows.forEach(row -> putLocked(toPaper(row)));
+            dirty.clear();
+        }
+        compact();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaperChanged(PaperChangedEvent event) {
+        refresh(event.paperId());
+    }
+    
+    // One query and one delta rebuild for the whole batch
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapersChanged(PapersChangedEvent event) {
+        Map<Long, Object[]> rows = new HashMap<>();
+        for (Object[] row : paperRepository.findSuggestRowsByIdIn(event.paperIds(), PublicSearchService.PUBLIC_STATUSES)) {
+            rows.put((Long) row[0], row);
+        }
+        synchronized (this) {
+            boolean changed = false;
+            for (Long paperId : event.paperIds()) {
+                Object[] row = rows.get(paperId);
+                if (row != null) {
+                    putLocked(toPaper(row));
+                } else if (papers.containsKey(paperId)) {
+                    removeLocked(paperId);
+                } else {
+                    continue;
+                }
+                dirty.merge(paperId, 1, Integer::sum);
+                changed = true;
+            }
+            if (changed) {
+                deltaChangedLocked();
+            }
+        }
+    }
+    
+    // Author names are part of the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        for (Long paperId : paperRepository.findIdsByAuthorId(event.userId())) {
+            refresh(paperId);
+        }
+    }
+    
+    private void refresh(Long paperId) {
+        List<Object[]> rows = paperRepository.findSuggestRow(paperId, PublicSearchService.PUBLIC_STATUSES);
+        synchronized (this) {
+            if (rows.isEmpty()) {
+                if (!papers.containsKey(paperId)) {
+                    return;
+                }
+                removeLocked(paperId);
+            } else {
+                putLocked(toPaper(rows.get(0)));
+            }
+            dirty.merge(paperId, 1, Integer::sum);
+            deltaChangedLocked();
+        }
+    }
+    
+    private void deltaChangedLocked() {
+        rebuildDeltaLocked();
+        if (dirty.size() >= compactThreshold && !compacting) {
+            compacting = true;
+            compactor.execute(this::compact);
+        }
+    }
+    
+    public void recordView(Long paperId) {
+        views.computeIfAbsent(paperId, id -> new LongAdder()).increment();
+    }
+    
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Snapshots current = snapshots;
+        
+        List<SuggestSnapshot.Hit> hits = new ArrayList<>(current.delta().top(prefix, max, hit -> true));
+        hits.addAll(current.main().top(prefix, max, this::stillValid));
+        hits.sort(Comparator.comparingInt(SuggestSnapshot.Hit::weight).reversed());
+        
+        Set<String> seen = new HashSet<>();
+        List<SuggestionDTO> suggestions = new ArrayList<>(max);
+        for (SuggestSnapshot.Hit hit : hits) {
+            if (suggestions.size() == max) {
+                break;
+            }
+            if (seen.add(hit.type() + ':' + hit.paperId() + ':' + hit.text())) {
+                suggestions.add(SuggestionDTO.builder()
+                        .text(hit.text())
+                        .type(hit.type())
+                        .paperId(hit.paperId() > 0 ? hit.paperId() : null)
+                        .weight(hit.weight())
+                        .build());
+            }
+        }
+        return suggestions;
+    }
+    
+    // Keys currently served, main plus delta
+    int size() {
+        Snapshots current = snapshots;
+        return current.main().size() + current.delta().size();
+    }
+    
+    long estimatedBytes() {
+        Snapshots current = snapshots;
+        return current.main().estimatedBytes() + current.delta().estimatedBytes();
+    }
+    
+    // Main-snapshot entries for changed papers or vanished keywords/authors are superseded by the delta
+    private boolean stillValid(SuggestSnapshot.Hit hit) {
+        return switch (hit.type()) {
+            case TITLE -> !dirty.containsKey(hit.paperId());
+            case KEYWORD -> keywordCounts.containsKey(hit.text());
+            default -> authorCounts.containsKey(hit.text());
+        };
+    }
+    
+    private void compact() {
+        Map<Long, Integer> covered;
+        List<PublishedPaper> source;
+        long started = System.nanoTime();
+        synchronized (this) {
+            covered = new HashMap<>(dirty);
+            source = new ArrayList<>(papers.values());
+        }
+        // Built outside the lock so writes are not held up by a full rebuild
+        SuggestSnapshot main = build(source);
+        synchronized (this) {
+            // Papers changed again while building stay dirty and keep being served from the delta
+            covered.forEach(dirty::remove);
+            snapshots = new Snapshots(main, snapshots.delta());
+            rebuildDeltaLocked();
+            compacting = false;
+        }
+        log.info("Suggest index built: {} entries over {} papers, ~{} KB, {} ms",
+                main.size(), source.size(), main.estimatedBytes() / 1024,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+    
+    private void rebuildDeltaLocked() {
+        List<PublishedPaper> changed = dirty.keySet().stream()
+                .map(papers::get)
+                .filter(Objects::nonNull)
+                .toList();
+        snapshots = new Snapshots(snapshots.main(), build(changed));
+    }
+    
+    private SuggestSnapshot build(Collection<PublishedPaper> source) {
+        SuggestSnapshot.Builder builder = new SuggestSnapshot.Builder();
+        Set<String> keywords = new HashSet<>();
+        Set<String> authors = new HashSet<>();
+        for (PublishedPaper paper : source) {
+            LongAdder paperViews = views.get(paper.paperId());
+            int weight = 1 + (paperViews != null ? (int) Math.min(paperViews.sum(), Integer.MAX_VALUE - 1) : 0);
+            int target = builder.addTarget(paper.title(), TITLE, paper.paperId());
+            String title = normalize(paper.title());
+            int start = builder.addText(title);
+            int end = start + title.length();
+            // The whole title plus the suffix starting at each of its first words
+            for (int i = 0, suffixes = 0; i < title.length() && suffixes < MAX_TITLE_SUFFIXES; i++) {
+                if (i == 0 || title.charAt(i - 1) == ' ') {
+                    builder.addKey(start + i, end, target, weight);
+                    suffixes++;
+                }
+            }
+            keywords.addAll(paper.keywords());
+            authors.add(paper.authorName());
+        }
+        for (String keyword : keywords) {
+            Integer count = keywordCounts.get(keyword);
+            if (count != null) {
+                builder.addKey(normalize(keyword), builder.addTarget(keyword, KEYWORD, 0), count);
+            }
+        }
+        for (String author : authors) {
+            Integer count = authorCounts.get(author);
+            if (count != null) {
+                int target = builder.addTarget(author, AUTHOR, 0);
+                String normalized = normalize(author);
+                builder.addKey(normalized, target, count);
+                int space = normalized.lastIndexOf(' ');
+                if (space > 0) {
+                    builder.addKey(normalized.substring(space + 1), target, count);
+                }
+            }
+        }
+        return builder.build();
+    }
+    
+    private void putLocked(PublishedPaper paper) {
+        removeLocked(paper.paperId());
+        papers.put(paper.paperId(), paper);
+        paper.keywords().forEach(keyword -> keywordCounts.merge(keyword, 1, Integer::sum));
+        authorCounts.merge(paper.authorName(), 1, Integer::sum);
+    }
+    
+    private void removeLocked(long paperId) {
+        PublishedPaper previous = papers.remove(paperId);
+        if (previous != null) {
+            previous.keywords().forEach(keyword -> keywordCounts.computeIfPresent(keyword, (key, count) -> count > 1 ? count - 1 : null));
+            authorCounts.computeIfPresent(previous.authorName(), (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+    
+    private static PublishedPaper toPaper(Object[] row) {
+        String firstName = row[3] != null ? (String) row[3] : "";
+        String lastName = row[4] != null ? (String) row[4] : "";
+        String authorName = (firstName + " " + lastName).trim();
+        return new PublishedPaper((Long) row[0], (String) row[1], KeywordIndex.split((String) row[2]),
+                StringUtils.hasText(authorName) ? authorName : "Unknown");
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+}
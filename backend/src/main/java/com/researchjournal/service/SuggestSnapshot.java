@@ -0,0 +1,315 @@
+package com.researchjournal.service;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// Immutable prefix index. Keys are (start, end) slices of one shared char pool, so every word
+// suffix of a title costs two ints rather than a copy. Sorted keys turn a prefix into one contiguous
+// range, and a max-weight segment tree over that range yields the top k in O(k log n).
+final class SuggestSnapshot {
+    
+    static final SuggestSnapshot EMPTY = new Builder().build();
+    
+    private final char[] pool;
+    private final int[] keyStarts;
+    private final int[] keyEnds;
+    private final int[] weights;
+    private final int[] targets;
+    private final String[] targetTexts;
+    private final String[] targetTypes;
+    private final long[] targetPaperIds;
+    private final int[] maxTree;
+    private final int leaves;
+    
+    private SuggestSnapshot(char[] pool, int[] keyStarts, int[] keyEnds, int[] weights, int[] targets,
+                            String[] targetTexts, String[] targetTypes, long[] targetPaperIds) {
+        this.pool = pool;
+        this.keyStarts = keyStarts;
+        this.keyEnds = keyEnds;
+        this.weights = weights;
+        this.targets = targets;
+        this.targetTexts = targetTexts;
+        this.targetTypes = targetTypes;
+        this.targetPaperIds = targetPaperIds;
+        int n = weights.length;
+        int size = 1;
+        while (size < n) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.maxTree = new int[2 * size];
+        Arrays.fill(maxTree, -1);
+        for (int i = 0; i < n; i++) {
+            maxTree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            maxTree[node] = better(maxTree[2 * node], maxTree[2 * node + 1]);
+        }
+    }
+    
+    record Hit(String text, String type, long paperId, int weight) {
+    }
+    
+    int size() {
+        return weights.length;
+    }
+    
+    long estimatedBytes() {
+        long bytes = (long) pool.length * 2 + (long) keyStarts.length * 16
+                + (long) maxTree.length * 4 + (long) targetPaperIds.length * 8;
+        for (String text : targetTexts) {
+            bytes += 40 + text.length() * 2L;
+        }
+        return bytes;
+    }
+    
+    List<Hit> top(String prefix, int limit, Predicate<Hit> accept) {
+        int from = lowerBound(prefix);
+        int to = upperBound(prefix, from);
+        if (from >= to) {
+            return List.of();
+        }
+        
+        // Each queued range is represented by its best entry; popping splits the range around it
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compareEntries(a[0], b[0]));
+        ranges.add(new int[]{argMax(from, to), from, to});
+        Set<Integer> seenTargets = new HashSet<>();
+        List<Hit> hits = new ArrayList<>(limit);
+        while (!ranges.isEmpty() && hits.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[0];
+            if (best + 1 < range[2]) {
+                ranges.add(new int[]{argMax(best + 1, range[2]), best + 1, range[2]});
+            }
+            if (range[1] < best) {
+                ranges.add(new int[]{argMax(range[1], best), range[1], best});
+            }
+            int target = targets[best];
+            if (!seenTargets.add(target)) {
+                continue;
+            }
+            Hit hit = new Hit(targetTexts[target], targetTypes[target], targetPaperIds[target], weights[best]);
+            if (accept.test(hit)) {
+                hits.add(hit);
+            }
+        }
+        return hits;
+    }
+    
+    private int argMax(int from, int to) {
+        int best = -1;
+        for (int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                best = better(best, maxTree[l++]);
+            }
+            if ((r & 1) == 1) {
+                best = better(best, maxTree[--r]);
+            }
+        }
+        return best;
+    }
+    
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return compareEntries(a, b) <= 0 ? a : b;
+    }
+    
+    // Heavier first; ties go to the shorter, then alphabetically earlier key
+    private int compareEntries(int a, int b) {
+        if (weights[a] != weights[b]) {
+            return Integer.compare(weights[b], weights[a]);
+        }
+        int lengthA = keyEnds[a] - keyStarts[a];
+        int lengthB = keyEnds[b] - keyStarts[b];
+        return lengthA != lengthB ? Integer.compare(lengthA, lengthB) : Integer.compare(a, b);
+    }
+    
+    private int lowerBound(String prefix) {
+        int lo = 0;
+        int hi = weights.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, prefix, false) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    private int upperBound(String prefix, int from) {
+        int lo = from;
+        int hi = weights.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, prefix, true) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    // With asPrefix, a key that starts with the prefix compares equal to it
+    private int compareKey(int index, String prefix, boolean asPrefix) {
+        int start = keyStarts[index];
+        int length = keyEnds[index] - start;
+        int common = Math.min(length, prefix.length());
+        for (int i = 0; i < common; i++) {
+            char c = pool[start + i];
+            char p = prefix.charAt(i);
+            if (c != p) {
+                return c - p;
+            }
+        }
+        if (asPrefix && length >= prefix.length()) {
+            return 0;
+        }
+        return length - prefix.length();
+    }
+    
+    static final class Builder {
+        private final StringBuilder pool = new StringBuilder();
+        private int[] starts = new int[1024];
+        private int[] ends = new int[1024];
+        private int[] keyTargets = new int[1024];
+        private int[] keyWeights = new int[1024];
+        private int keyCount;
+        private final List<String> texts = new ArrayList<>();
+        private final List<String> types = new ArrayList<>();
+        private final List<Long> paperIds = new ArrayList<>();
+        
+        int addTarget(String text, String type, long paperId) {
+            texts.add(text);
+            types.add(type);
+            paperIds.add(paperId);
+            return texts.size() - 1;
+        }
+        
+        // Returns the pool offset of the text so callers can add keys for its suffixes
+        int addText(String normalized) {
+            int start = pool.length();
+            pool.append(normalized);
+            return start;
+        }
+        
+        void addKey(int start, int end, int target, int weight) {
+            if (start >= end) {
+                return;
+            }
+            if (keyCount == starts.length) {
+                int capacity = keyCount * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                keyTargets = Arrays.copyOf(keyTargets, capacity);
+                keyWeights = Arrays.copyOf(keyWeights, capacity);
+            }
+            starts[keyCount] = start;
+            ends[keyCount] = end;
+            keyTargets[keyCount] = target;
+            keyWeights[keyCount] = weight;
+            keyCount++;
+        }
+        
+        void addKey(String key, int target, int weight) {
+            int start = addText(key);
+            addKey(start, start + key.length(), target, weight);
+        }
+        
+        SuggestSnapshot build() {
+            char[] chars = new char[pool.length()];
+            pool.getChars(0, chars.length, chars, 0);
+            int[] order = new int[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                order[i] = i;
+            }
+            sort(order, 0, keyCount, 0, chars);
+            
+            int[] sortedStarts = new int[keyCount];
+            int[] sortedEnds = new int[keyCount];
+            int[] weights = new int[keyCount];
+            int[] targets = new int[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+                weights[i] = keyWeights[order[i]];
+                targets[i] = keyTargets[order[i]];
+            }
+            
+            long[] targetPaperIds = new long[paperIds.size()];
+            for (int i = 0; i < targetPaperIds.length; i++) {
+                targetPaperIds[i] = paperIds.get(i);
+            }
+            return new SuggestSnapshot(chars, sortedStarts, sortedEnds, weights, targets,
+                    texts.toArray(String[]::new), types.toArray(String[]::new), targetPaperIds);
+        }
+        
+        private int charAt(int key, int depth, char[] chars) {
+            int position = starts[key] + depth;
+            return position < ends[key] ? chars[position] : -1;
+        }
+        
+        // Multikey quicksort: compares one character per level, so shared prefixes are not rescanned
+        private void sort(int[] order, int from, int to, int depth, char[] chars) {
+            while (to - from > 1) {
+                if (to - from < 12) {
+                    insertionSort(order, from, to, depth, chars);
+                    return;
+                }
+                int pivot = charAt(order[(from + to) >>> 1], depth, chars);
+                int lt = from;
+                int gt = to;
+                int i = from;
+                while (i < gt) {
+                    int c = charAt(order[i], depth, chars);
+                    if (c < pivot) {
+                        swap(order, lt++, i++);
+                    } else if (c > pivot) {
+                        swap(order, i, --gt);
+                    } else {
+                        i++;
+                    }
+                }
+                sort(order, from, lt, depth, chars);
+                sort(order, gt, to, depth, chars);
+                if (pivot < 0) {
+                    return;
+                }
+                from = lt;
+                to = gt;
+                depth++;
+            }
+        }
+        
+        private void insertionSort(int[] order, int from, int to, int depth, char[] chars) {
+            for (int i = from + 1; i < to; i++) {
+                for (int j = i; j > from && compareFrom(order[j - 1], order[j], depth, chars) > 0; j--) {
+                    swap(order, j - 1, j);
+                }
+            }
+        }
+        
+        private int compareFrom(int a, int b, int depth, char[] chars) {
+            for (int d = depth; ; d++) {
+                int ca = charAt(a, d, chars);
+                int cb = charAt(b, d, chars);
+                if (ca != cb || ca < 0) {
+                    return ca - cb;
+                }
+            }
+        }
+        
+        private static void swap(int[] order, int i, int j) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.researchjournal.service;
+
+import com.researchjournal.entity.ExtractedText;
+import com.researchjournal.entity.ExtractionStatus;
+import com.researchjournal.entity.Paper;
+import com.researchjournal.event.ManuscriptStoredEvent;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PaperTransitionEvent;
+import com.researchjournal.extraction.ExtractedContent;
+import com.researchjournal.extraction.ExtractionLimitException;
+import com.researchjournal.extraction.IsolatedExtractor;
+import com.researchjournal.extraction.TextCompression;
+import com.researchjournal.repository.ExtractedTextRepository;
+import com.researchjournal.repository.PaperRepository;
+import com.researchjournal.storage.BlobStorage;
+import com.researchjournal.storage.Digests;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class TextExtractionService {
+    
+    private final ExtractedTextRepository extractedTextRepository;
+    private final PaperRepository paperRepository;
+    private final BlobStorage blobStorage;
+    private final IsolatedExtractor extractor;
+    private final ManuscriptIndex manuscriptIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final long pendingRetrySeconds;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // paperId -> digest of the text currently in the index, so peers only re-index real changes
+    private final Map<Long, String> indexedDigests = new ConcurrentHashMap<>();
+    
+    public TextExtractionService(ExtractedTextRepository extractedTextRepository,
+                                 PaperRepository paperRepository,
+                                 BlobStorage blobStorage,
+                                 IsolatedExtractor extractor,
+                                 ManuscriptIndex manuscriptIndex,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${extraction.threads:2}") int threads,
+                                 @Value("${extraction.queue-capacity:100}") int queueCapacity,
+                                 @Value("${extraction.pending-retry-seconds:600}") long pendingRetrySeconds) {
+        this.extractedTextRepository = extractedTextRepository;
+        this.paperRepository = paperRepository;
+        this.blobStorage = blobStorage;
+        this.extractor = extractor;
+        this.manuscriptIndex = manuscriptIndex;
+        this.eventPublisher = eventPublisher;
+        this.pendingRetrySeconds = pendingRetrySeconds;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "text-extraction-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                // The manuscript stays PENDING and retryPending() queues it again once there is room;
+                // index syncs have no such sweep, so they run on the publishing thread instead
+                (runnable, pool) -> {
+                    if (runnable instanceof ExtractionJob job) {
+                        queued.remove(job.digest());
+                        log.warn("Text extraction queue is full, leaving a manuscript pending for the next sweep");
+                    } else if (!pool.isShutdown()) {
+                        runnable.run();
+                    }
+                });
+    }
+    
+    private record ExtractionJob(String digest, Runnable work) implements Runnable {
+        @Override
+        public void run() {
+            work.run();
+        }
+    }
+    
+    // Runs after commit so the request never waits on parsing and the paper row is visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onManuscriptStored(ManuscriptStoredEvent event) {
+        if (event.digest() == null) {
+            return;
+        }
+        markPending(event.digest());
+        submit(event.paperId(), event.storageKey(), event.fileName(), event.digest());
+    }
+    
+    // Jobs dropped by a full queue or lost with a restarted pod; only rows older than
+    // pending-retry-seconds, so jobs still waiting in some replica's queue are left alone
+    @Scheduled(fixedDelayString = "${extraction.sweep-interval-ms:60000}", initialDelayString = "${extraction.sweep-interval-ms:60000}")
+    public void retryPending() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        try {
+            LocalDateTime before = LocalDateTime.now().minusSeconds(pendingRetrySeconds);
+            for (String digest : extractedTextRepository.findDigestsByStatusBefore(ExtractionStatus.PENDING, before, PageRequest.of(0, room))) {
+                List<Object[]> manuscripts = paperRepository.findStoredManuscriptsByDigest(digest);
+                if (manuscripts.isEmpty()) {
+                    // Every paper with this file was deleted or re-uploaded in the meantime
+                    extractedTextRepository.deleteById(digest);
+                    continue;
+                }
+                Object[] row = manuscripts.get(0);
+                submit((Long) row[0], (String) row[1], (String) row[2], digest);
+            }
+        } catch (Exception ex) {
+            log.warn("Retrying pending text extractions failed: {}", ex.getMessage());
+        }
+    }
+    
+    // A local delete leaves the index once it has committed, so a rolled back delete keeps the paper searchable
+    @TransactionalEventListener(condition = "#event.type() == T(com.researchjournal.eventlog.LifecycleEventType).DELETED")
+    public void onPaperDeleted(PaperTransitionEvent event) {
+        executor.execute(() -> syncFromDatabase(event.paperId()));
+    }
+    
+    // Another replica changed the paper. Most such changes are status or metadata edits, so only a
+    // manuscript digest that differs from the indexed one (extracted, re-uploaded or deleted) is synced.
+    @EventListener(condition = "#event.remote()")
+    public void onRemotePaperChanged(PaperChangedEvent event) {
+        Long paperId = event.paperId();
+        try {
+            String digest = paperRepository.findFileDigestById(paperId).orElse(null);
+            if (Objects.equals(digest, indexedDigests.get(paperId))) {
+                return;
+            }
+        } catch (Exception ex) {
+            log.warn("Could not check manuscript of paper {}: {}", paperId, ex.getMessage());
+            return;
+        }
+        executor.execute(() -> syncFromDatabase(paperId));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        executor.execute(this::backfillStoredManuscripts);
+    }
+    
+    public Optional<String> getText(String digest) {
+        if (digest == null) {
+            return Optional.empty();
+        }
+        return extractedTextRepository.findById(digest)
+                .filter(text -> text.getStatus() == ExtractionStatus.COMPLETED)
+                .map(text -> TextCompression.decompress(text.getCompressedText()));
+    }
+    
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    private void backfillStoredManuscripts() {
+        int indexed = 0;
+        for (Object[] row : paperRepository.findStoredManuscripts()) {
+            Long paperId = (Long) row[0];
+            String key = (String) row[1];
+            String fileName = (String) row[2];
+            String digest = (String) row[3];
+            try {
+                if (digest == null) {
+                    // Uploads from before digests were recorded
+                    if (!blobStorage.exists(key)) {
+                        continue;
+                    }
+                    try (InputStream in = blobStorage.open(key)) {
+                        digest = Digests.sha256(in);
+                    }
+                    paperRepository.updateFileDigest(paperId, digest, blobStorage.size(key));
+                }
+                ExtractionStatus status = extractedTextRepository.findById(digest).map(ExtractedText::getStatus).orElse(null);
+                if (status == ExtractionStatus.COMPLETED) {
+                    Optional<String> text = getText(digest);
+                    if (text.isPresent()) {
+                        index(paperId, digest, text.get());
+                        indexed++;
+                    }
+                } else if (status == null || status == ExtractionStatus.PENDING) {
+                    process(paperId, key, fileName, digest);
+                }
+            } catch (Exception ex) {
+                log.warn("Backfill skipped paper {}: {}", paperId, ex.getMessage());
+            }
+        }
+        log.info("Manuscript index ready with {} papers ({} restored from stored text)", manuscriptIndex.size(), indexed);
+    }
+    
+    private void process(Long paperId, String key, String fileName, String digest) {
+        if (!inFlight.add(digest)) {
+            return;
+        }
+        try {
+            Optional<ExtractedText> existing = extractedTextRepository.findById(digest)
+                    .filter(text -> text.getStatus() != ExtractionStatus.PENDING);
+            ExtractedText extracted = existing.isPresent() ? existing.get() : extractedTextRepository.save(extract(key, fileName, digest));
+            if (extracted.getStatus() != ExtractionStatus.COMPLETED) {
+                return;
+            }
+            String text = TextCompression.decompress(extracted.getCompressedText());
+            
+            // Identical uploads share the extraction, but every paper holding them is indexed
+            List<Long> paperIds = paperRepository.findIdsByFileDigest(digest);
+            for (Long id : paperIds) {
+                index(id, digest, text);
+            }
+            for (Long id : paperIds) {
+                updatePlagiarismScore(id);
+                eventPublisher.publishEvent(new PaperChangedEvent(id));
+            }
+        } catch (Exception ex) {
+            log.error("Text extraction failed for paper {}", paperId, ex);
+        } finally {
+            inFlight.remove(digest);
+        }
+    }
+    
+    private void markPending(String digest) {
+        try {
+            if (!extractedTextRepository.existsById(digest)) {
+                extractedTextRepository.save(ExtractedText.builder().digest(digest).status(ExtractionStatus.PENDING).build());
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // Another replica recorded the same manuscript first
+        }
+    }
+    
+    private void submit(Long paperId, String key, String fileName, String digest) {
+        if (queued.add(digest)) {
+            executor.execute(new ExtractionJob(digest, () -> {
+                queued.remove(digest);
+                process(paperId, key, fileName, digest);
+            }));
+        }
+    }
+    
+    private void index(Long paperId, String digest, String text) {
+        manuscriptIndex.index(paperId, text);
+        indexedDigests.put(paperId, digest);
+    }
+    
+    private void syncFromDatabase(Long paperId) {
+        try {
+            Optional<String> digest = paperRepository.findFileDigestById(paperId);
+            if (digest.isPresent() && digest.get().equals(indexedDigests.get(paperId))) {
+                return;
+            }
+            Optional<String> text = digest.flatMap(this::getText);
+            if (text.isPresent()) {
+                index(paperId, digest.get(), text.get());
+            } else if (indexedDigests.remove(paperId) != null) {
+                manuscriptIndex.remove(paperId);
+            }
+        } catch (Exception ex) {
+            log.warn("Could not refresh manuscript index for paper {}: {}", paperId, ex.getMessage());
+        }
+    }
+    
+    private ExtractedText extract(String key, String fileName, String digest) {
+        ExtractedText.ExtractedTextBuilder result = ExtractedText.builder().digest(digest);
+        if (!extractor.supports(fileName)) {
+            return result.status(ExtractionStatus.UNSUPPORTED).build();
+        }
+        
+        long started = System.nanoTime();
+        Optional<Path> localFile = blobStorage.localPath(key);
+        try (InputStream in = localFile.isPresent() ? null : blobStorage.open(key)) {
+            ExtractedContent content = extractor.extract(localFile.orElse(null), in, fileName);
+            log.debug("Extracted {} chars from {} in {} ms", content.text().length(), fileName,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return result.status(ExtractionStatus.COMPLETED)
+                    .compressedText(TextCompression.compress(content.text()))
+                    .charCount(content.text().length())
+                    .truncated(content.truncated())
+                    .build();
+        } catch (ExtractionLimitException ex) {
+            return failed(result, ex.getMessage());
+        } catch (Exception ex) {
+            log.warn("Could not extract text from {}: {}", fileName, ex.toString());
+            return failed(result, ex.toString());
+        }
+    }
+    
+    private static ExtractedText failed(ExtractedText.ExtractedTextBuilder result, String reason) {
+        String message = reason != null && reason.length() > 500 ? reason.substring(0, 500) : reason;
+        return result.status(ExtractionStatus.FAILED).failureReason(message).build();
+    }
+    
+    private void updatePlagiarismScore(Long paperId) {
+        Optional<ManuscriptIndex.Match> match = manuscriptIndex.mostSimilar(paperId);
+        double score = match.map(m -> m.similarity() * 100).orElse(0.0);
+        String closest = match.flatMap(m -> paperRepository.findById(m.paperId()))
+                .map(paper -> "#" + paper.getId() + " " + paper.getTitle())
+                .orElse(null);
+        String title = paperRepository.findById(paperId).map(Paper::getTitle).orElse("");
+        paperRepository.updatePlagiarismResult(paperId, score, buildReport(title, score, closest));
+    }
+    
+    private static String buildReport(String title, double score, String closestMatch) {
+        StringBuilder report = new StringBuilder();
+        report.append("Plagiarism Check Report\n");
+        report.append("=======================\n");
+        report.append("Document: ").append(title).append("\n");
+        report.append("Similarity Score: ").append(String.format("%.2f", score)).append("%\n");
+        if (closestMatch != null) {
+            report.append("Closest Match: ").append(closestMatch).append("\n");
+        }
+        report.append("\n");
+        
+        if (score < 10) {
+            report.append("Status: LOW SIMILARITY - Document appears to be original.\n");
+        } else if (score < 20) {
+            report.append("Status: MODERATE SIMILARITY - Some matching content found. Review recommended.\n");
+        } else {
+            report.append("Status: HIGH SIMILARITY - Significant matching content. Manual review required.\n");
+        }
+        return report.toString();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
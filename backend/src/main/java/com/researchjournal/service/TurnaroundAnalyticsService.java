@@ -0,0 +1,268 @@
+package com.researchjournal.service;
+
+import com.researchjournal.dto.TurnaroundStatsDTO;
+import com.researchjournal.event.PaperChangedEvent;
+import com.researchjournal.event.PapersChangedEvent;
+import com.researchjournal.event.ReviewChangedEvent;
+import com.researchjournal.repository.PaperRepository;
+import com.researchjournal.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+
+// Turnaround percentiles from HdrHistograms kept per (metric, editor/reviewer, month) and updated
+// as reviews complete and papers are published. Queries merge the month histograms in range and
+// never touch the reviews or papers tables; a nightly rebuild drops deleted rows.
+@Slf4j
+@Service
+public class TurnaroundAnalyticsService {
+    
+    public enum Metric {
+        REVIEW_TURNAROUND,      // review assigned -> review completed
+        FIRST_REVIEW,           // paper submitted -> first review completed
+        SUBMISSION_TO_DECISION  // paper submitted -> published
+    }
+    
+    public enum GroupBy {
+        ALL, EDITOR, REVIEWER, MONTH
+    }
+    
+    private enum Dimension {
+        ALL, EDITOR, REVIEWER
+    }
+    
+    private record Key(Metric metric, Dimension dimension, long groupId, YearMonth month) {
+    }
+    
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long MAX_SECONDS = Duration.ofDays(5 * 365).toSeconds();
+    private static final long[] BUCKET_DAYS = {1, 3, 7, 14, 30, 60, 90};
+    private static final long DAY = Duration.ofDays(1).toSeconds();
+    
+    private final ReviewRepository reviewRepository;
+    private final PaperRepository paperRepository;
+    
+    // All guarded by this
+    private Map<Key, Histogram> histograms = new HashMap<>();
+    private Set<Long> recordedReviews = new HashSet<>();
+    private Set<Long> recordedFirstReviews = new HashSet<>();
+    private Set<Long> recordedDecisions = new HashSet<>();
+    // Changes that arrive while a rebuild is scanning are replayed onto the new histograms
+    private Set<Long> pendingReviews;
+    private Set<Long> pendingPapers;
+    
+    public TurnaroundAnalyticsService(ReviewRepository reviewRepository, PaperRepository paperRepository) {
+        this.reviewRepository = reviewRepository;
+        this.paperRepository = paperRepository;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+    
+    @Scheduled(cron = "${analytics.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        synchronized (this) {
+            pendingReviews = new HashSet<>();
+            pendingPapers = new HashSet<>();
+        }
+        
+        Map<Key, Histogram> built = new HashMap<>();
+        Set<Long> reviews = new HashSet<>();
+        Set<Long> firstReviews = new HashSet<>();
+        Set<Long> decisions = new HashSet<>();
+        for (Object[] row : reviewRepository.findCompletedTurnaroundRows()) {
+            applyReview(built, reviews, row);
+        }
+        for (Object[] row : reviewRepository.findFirstReviewRows()) {
+            applyFirstReview(built, firstReviews, row);
+        }
+        for (Object[] row : paperRepository.findDecisionRows()) {
+            applyDecision(built, decisions, row);
+        }
+        
+        Set<Long> reviewsToReplay;
+        Set<Long> papersToReplay;
+        synchronized (this) {
+            histograms = built;
+            recordedReviews = reviews;
+            recordedFirstReviews = firstReviews;
+            recordedDecisions = decisions;
+            reviewsToReplay = pendingReviews;
+            papersToReplay = pendingPapers;
+            pendingReviews = null;
+            pendingPapers = null;
+        }
+        reviewsToReplay.forEach(id -> refreshReview(id, null));
+        papersToReplay.forEach(this::refreshPaper);
+        log.info("Turnaround analytics built from {} reviews and {} decisions in {} ms", reviews.size(), decisions.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        synchronized (this) {
+            if (pendingReviews != null) {
+                pendingReviews.add(event.reviewId());
+            }
+        }
+        refreshReview(event.reviewId(), event.paperId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaperChanged(PaperChangedEvent event) {
+        synchronized (this) {
+            if (pendingPapers != null) {
+                pendingPapers.add(event.paperId());
+            }
+        }
+        refreshPaper(event.paperId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapersChanged(PapersChangedEvent event) {
+        List<Object[]> decisions = paperRepository.findDecisionRowsByIdIn(event.paperIds());
+        synchronized (this) {
+            if (pendingPapers != null) {
+                pendingPapers.addAll(event.paperIds());
+            }
+            for (Object[] decision : decisions) {
+                applyDecision(histograms, recordedDecisions, decision);
+            }
+        }
+    }
+    
+    public List<TurnaroundStatsDTO> getStats(Metric metric, GroupBy groupBy, YearMonth from, YearMonth to) {
+        Map<String, Histogram> merged = new TreeMap<>();
+        synchronized (this) {
+            for (Map.Entry<Key, Histogram> entry : histograms.entrySet()) {
+                Key key = entry.getKey();
+                if (key.metric() != metric || !inRange(key.month(), from, to)) {
+                    continue;
+                }
+                String group = switch (groupBy) {
+                    case ALL -> key.dimension() == Dimension.ALL ? "all" : null;
+                    case MONTH -> key.dimension() == Dimension.ALL ? key.month().toString() : null;
+                    case EDITOR -> key.dimension() == Dimension.EDITOR ? String.valueOf(key.groupId()) : null;
+                    case REVIEWER -> key.dimension() == Dimension.REVIEWER ? String.valueOf(key.groupId()) : null;
+                };
+                if (group != null) {
+                    merged.computeIfAbsent(group, g -> new PackedHistogram(SIGNIFICANT_DIGITS)).add(entry.getValue());
+                }
+            }
+        }
+        
+        List<TurnaroundStatsDTO> stats = new ArrayList<>(merged.size());
+        merged.forEach((group, histogram) -> stats.add(convertToDTO(metric, groupBy, group, histogram)));
+        return stats;
+    }
+    
+    private void refreshReview(Long reviewId, Long paperId) {
+        List<Object[]> review = reviewRepository.findCompletedTurnaroundRow(reviewId);
+        if (review.isEmpty()) {
+            return;
+        }
+        Long reviewPaperId = paperId != null ? paperId : (Long) review.get(0)[5];
+        List<Object[]> firstReview = reviewRepository.findFirstReviewRow(reviewPaperId);
+        synchronized (this) {
+            applyReview(histograms, recordedReviews, review.get(0));
+            if (!firstReview.isEmpty()) {
+                applyFirstReview(histograms, recordedFirstReviews, firstReview.get(0));
+            }
+        }
+    }
+    
+    private void refreshPaper(Long paperId) {
+        List<Object[]> decision = paperRepository.findDecisionRow(paperId);
+        if (decision.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            applyDecision(histograms, recordedDecisions, decision.get(0));
+        }
+    }
+    
+    // review id, createdAt, completedAt, reviewer id, editor id, paper id
+    private static void applyReview(Map<Key, Histogram> target, Set<Long> recorded, Object[] row) {
+        if (recorded.add((Long) row[0])) {
+            record(target, Metric.REVIEW_TURNAROUND, (LocalDateTime) row[1], (LocalDateTime) row[2], (Long) row[4], (Long) row[3]);
+        }
+    }
+    
+    // paper id, submittedAt, editor id, first completed review
+    private static void applyFirstReview(Map<Key, Histogram> target, Set<Long> recorded, Object[] row) {
+        if (recorded.add((Long) row[0])) {
+            record(target, Metric.FIRST_REVIEW, (LocalDateTime) row[1], (LocalDateTime) row[3], (Long) row[2], null);
+        }
+    }
+    
+    // paper id, submittedAt, publishedAt, editor id
+    private static void applyDecision(Map<Key, Histogram> target, Set<Long> recorded, Object[] row) {
+        if (recorded.add((Long) row[0])) {
+            record(target, Metric.SUBMISSION_TO_DECISION, (LocalDateTime) row[1], (LocalDateTime) row[2], (Long) row[3], null);
+        }
+    }
+    
+    private static void record(Map<Key, Histogram> target, Metric metric, LocalDateTime start, LocalDateTime end,
+                               Long editorId, Long reviewerId) {
+        if (start == null || end == null) {
+            return;
+        }
+        long seconds = Math.min(MAX_SECONDS, Math.max(1, Duration.between(start, end).toSeconds()));
+        YearMonth month = YearMonth.from(end);
+        recordInto(target, new Key(metric, Dimension.ALL, 0, month), seconds);
+        if (editorId != null) {
+            recordInto(target, new Key(metric, Dimension.EDITOR, editorId, month), seconds);
+        }
+        if (reviewerId != null) {
+            recordInto(target, new Key(metric, Dimension.REVIEWER, reviewerId, month), seconds);
+        }
+    }
+    
+    private static void recordInto(Map<Key, Histogram> target, Key key, long seconds) {
+        target.computeIfAbsent(key, k -> new PackedHistogram(SIGNIFICANT_DIGITS)).recordValue(seconds);
+    }
+    
+    private static boolean inRange(YearMonth month, YearMonth from, YearMonth to) {
+        return (from == null || !month.isBefore(from)) && (to == null || !month.isAfter(to));
+    }
+    
+    private static TurnaroundStatsDTO convertToDTO(Metric metric, GroupBy groupBy, String group, Histogram histogram) {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        long lower = 0;
+        for (long days : BUCKET_DAYS) {
+            buckets.put(lower / DAY + "-" + days + "d", histogram.getCountBetweenValues(lower, days * DAY - 1));
+            lower = days * DAY;
+        }
+        buckets.put(">" + lower / DAY + "d", histogram.getCountBetweenValues(lower, Long.MAX_VALUE / 2));
+        
+        return TurnaroundStatsDTO.builder()
+                .metric(metric.name())
+                .groupBy(groupBy.name())
+                .group(group)
+                .count(histogram.getTotalCount())
+                .p50Hours(hours(histogram.getValueAtPercentile(50)))
+                .p90Hours(hours(histogram.getValueAtPercentile(90)))
+                .p99Hours(hours(histogram.getValueAtPercentile(99)))
+                .meanHours(hours(histogram.getMean()))
+                .maxHours(hours(histogram.getMaxValue()))
+                .histogram(buckets)
+                .build();
+    }
+    
+    private static double hours(double seconds) {
+        return Math.round(seconds / 360.0) / 10.0;
+    }
+}
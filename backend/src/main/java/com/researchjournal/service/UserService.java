@@ -3,8 +3,11 @@ package com.researchjournal.service;
 import com.researchjournal.dto.UserDTO;
 import com.researchjournal.entity.Role;
 import com.researchjournal.entity.User;
+import com.researchjournal.event.UserChangedEvent;
 import com.researchjournal.repository.UserRepository;
+import com.researchjournal.security.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +21,8 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
@@ -61,6 +66,7 @@ public class UserService {
         user.setBio(userDTO.getBio());
         
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
         return convertToDTO(updatedUser);
     }
     
@@ -69,7 +75,10 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setRole(role);
+        user.setTokenVersion(user.getTokenVersion() + 1);
         User updatedUser = userRepository.save(user);
+        tokenRevocationService.revokeBefore(updatedUser.getId(), updatedUser.getTokenVersion());
+        eventPublisher.publishEvent(new UserChangedEvent(id));
         return convertToDTO(updatedUser);
     }
     
@@ -78,7 +87,10 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setEnabled(!user.getEnabled());
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        tokenRevocationService.revokeBefore(user.getId(), user.getTokenVersion());
+        eventPublisher.publishEvent(new UserChangedEvent(id));
     }
     
     @Transactional
@@ -87,6 +99,8 @@ public class UserService {
             throw new RuntimeException("User not found");
         }
         userRepository.deleteById(id);
+        tokenRevocationService.revokeAll(id);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
     }
     
     public UserDTO convertToDTO(User user) {
@@ -0,0 +1,35 @@
+package com.researchjournal.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+public interface BlobStorage extends AutoCloseable {
+    
+    // Streams the content to its final location, computing the SHA-256 digest on the way
+    StoredBlob store(String key, InputStream content, long contentLength, String contentType) throws IOException;
+    
+    InputStream open(String key) throws IOException;
+    
+    InputStream openRange(String key, long start, long endInclusive) throws IOException;
+    
+    long size(String key) throws IOException;
+    
+    boolean exists(String key);
+    
+    void delete(String key) throws IOException;
+    
+    // Present only for backends that keep files on this node's disk, enabling sendfile
+    Optional<Path> localPath(String key);
+    
+    // Present only for backends that can hand clients a time-limited direct link
+    Optional<URL> presignedDownloadUrl(String key, String fileName, Duration ttl);
+    
+    // Declared here so the shutdown hook is found from the bean's declared type, also in AOT builds
+    @Override
+    default void close() {
+    }
+}
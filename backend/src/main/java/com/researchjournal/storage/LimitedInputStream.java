@@ -0,0 +1,53 @@
+package com.researchjournal.storage;
+
+import com.researchjournal.exception.PayloadTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Fails as soon as more than `limit` bytes are read, instead of silently truncating
+public class LimitedInputStream extends FilterInputStream {
+    
+    private final long limit;
+    private final String message;
+    private long count;
+    
+    public LimitedInputStream(InputStream in, long limit, String message) {
+        super(in);
+        this.limit = limit;
+        this.message = message;
+    }
+    
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            charge(1);
+        }
+        return b;
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            charge(read);
+        }
+        return read;
+    }
+    
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        charge(skipped);
+        return skipped;
+    }
+    
+    private void charge(long bytes) {
+        count += bytes;
+        if (count > limit) {
+            throw new PayloadTooLargeException(message);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.researchjournal.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Optional;
+
+public class LocalBlobStorage implements BlobStorage {
+    
+    private final Path root;
+    
+    public LocalBlobStorage(String rootDir) {
+        this.root = Paths.get(rootDir).toAbsolutePath().normalize();
+    }
+    
+    @Override
+    public StoredBlob store(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        
+        // Write next to the target and rename so readers never observe a partial file
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".part");
+        MessageDigest digest = Digests.sha256();
+        try (DigestInputStream in = new DigestInputStream(content, digest)) {
+            long size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredBlob(key, Digests.hex(digest), size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(existing(key));
+    }
+    
+    @Override
+    public InputStream openRange(String key, long start, long endInclusive) throws IOException {
+        FileChannel channel = FileChannel.open(existing(key), StandardOpenOption.READ);
+        channel.position(start);
+        InputStream in = Channels.newInputStream(channel);
+        return new BoundedInputStream(in, endInclusive - start + 1);
+    }
+    
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(existing(key));
+    }
+    
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+    
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+    
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+    
+    @Override
+    public Optional<URL> presignedDownloadUrl(String key, String fileName, Duration ttl) {
+        return Optional.empty();
+    }
+    
+    private Path existing(String key) throws IOException {
+        Path file = resolve(key);
+        if (!Files.isRegularFile(file)) {
+            throw new FileNotFoundException("File not found: " + key);
+        }
+        return file;
+    }
+    
+    private Path resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || file.equals(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,10 @@
+package com.researchjournal.storage;
+
+import java.util.Map;
+
+public record MultipartForm(Map<String, String> fields, UploadedFile file) {
+    
+    public String field(String name) {
+        return fields.get(name);
+    }
+}
@@ -0,0 +1,246 @@
+package com.researchjournal.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Incremental multipart/form-data reader: parts are handed out one at a time as streams over
+// the request body, so nothing is spooled to memory or temp files on the way.
+public class MultipartStream {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+    
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int head;
+    private int tail;
+    private boolean eof;
+    private boolean finished;
+    private PartInputStream current;
+    
+    public MultipartStream(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        // Pretend the body starts with CRLF so the first boundary looks like every other one
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+    }
+    
+    public static String boundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            return null;
+        }
+        String boundary = parameter(contentType, "boundary");
+        return boundary == null || boundary.isEmpty() || boundary.length() > 70 ? null : boundary;
+    }
+    
+    public Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (current != null) {
+            current.skipToEnd();
+        } else {
+            // Skip the preamble up to and including the first boundary
+            new PartInputStream().skipToEnd();
+        }
+        
+        // After a boundary comes either "--" (end of body) or CRLF and the next part's headers
+        if (!fill(2)) {
+            throw malformed("Unexpected end of multipart body");
+        }
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        skipLineEnd();
+        
+        String headers = readHeaders();
+        String disposition = null;
+        String contentType = null;
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Content-Disposition")) {
+                disposition = value;
+            } else if (name.equalsIgnoreCase("Content-Type")) {
+                contentType = value;
+            }
+        }
+        if (disposition == null) {
+            throw malformed("Multipart part without Content-Disposition");
+        }
+        current = new PartInputStream();
+        return new Part(parameter(disposition, "name"), parameter(disposition, "filename"), contentType, current);
+    }
+    
+    private void skipLineEnd() throws IOException {
+        // Transport padding may precede the CRLF
+        while (true) {
+            if (!fill(1)) {
+                throw malformed("Unexpected end of multipart body");
+            }
+            byte b = buffer[head++];
+            if (b == '\n') {
+                return;
+            }
+            if (b != '\r' && b != ' ' && b != '\t') {
+                throw malformed("Malformed multipart boundary line");
+            }
+        }
+    }
+    
+    private String readHeaders() throws IOException {
+        while (true) {
+            int end = indexOf(HEADER_END, head);
+            if (end >= 0) {
+                String headers = new String(buffer, head, end - head, StandardCharsets.UTF_8);
+                head = end + HEADER_END.length;
+                return headers;
+            }
+            if (tail - head >= MAX_HEADER_BYTES) {
+                throw malformed("Multipart headers too large");
+            }
+            if (!fill(tail - head + 1)) {
+                throw malformed("Unexpected end of multipart headers");
+            }
+        }
+    }
+    
+    // Makes at least `count` bytes available from head; false at end of input
+    private boolean fill(int count) throws IOException {
+        if (tail - head >= count) {
+            return true;
+        }
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        while (tail < count && !eof) {
+            int read = in.read(buffer, tail, buffer.length - tail);
+            if (read < 0) {
+                eof = true;
+            } else {
+                tail += read;
+            }
+        }
+        return tail - head >= count;
+    }
+    
+    private int indexOf(byte[] pattern, int from) {
+        byte first = pattern[0];
+        int last = tail - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (buffer[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+    
+    private static String parameter(String header, String name) {
+        for (String token : header.split(";")) {
+            String trimmed = token.trim();
+            int eq = trimmed.indexOf('=');
+            if (eq > 0 && trimmed.substring(0, eq).trim().equalsIgnoreCase(name)) {
+                String value = trimmed.substring(eq + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    private static IOException malformed(String message) {
+        return new MalformedMultipartException(message);
+    }
+    
+    public record Part(String name, String fileName, String contentType, InputStream body) {
+        
+        public boolean isFile() {
+            return fileName != null;
+        }
+    }
+    
+    public static class MalformedMultipartException extends IOException {
+        public MalformedMultipartException(String message) {
+            super(message);
+        }
+    }
+    
+    private final class PartInputStream extends InputStream {
+        
+        private boolean done;
+        // Positions before this have been checked and cannot start a delimiter
+        private int scanned = -1;
+        
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                int match = indexOf(delimiter, Math.max(head, scanned));
+                int available;
+                if (match >= 0) {
+                    available = match - head;
+                    if (available == 0) {
+                        done = true;
+                        head += delimiter.length;
+                        return -1;
+                    }
+                } else {
+                    // The last delimiter.length - 1 bytes may be the start of a boundary
+                    scanned = Math.max(head, tail - delimiter.length + 1);
+                    available = scanned - head;
+                }
+                if (available > 0) {
+                    int count = Math.min(len, available);
+                    System.arraycopy(buffer, head, b, off, count);
+                    head += count;
+                    return count;
+                }
+                int before = head;
+                if (!fill(tail - head + 1)) {
+                    throw malformed("Unexpected end of multipart body");
+                }
+                scanned -= before - head;
+            }
+        }
+        
+        private void skipToEnd() throws IOException {
+            byte[] discard = new byte[8192];
+            while (read(discard, 0, discard.length) >= 0) {
+                // drain
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.researchjournal.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class S3BlobStorage implements BlobStorage {
+    
+    private static final String DIGEST_METADATA = "sha256";
+    
+    private final S3Client s3;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final int partSize;
+    private final int uploadConcurrency;
+    private final ExecutorService partUploader;
+    
+    public S3BlobStorage(S3Client s3, S3Presigner presigner, String bucket, int partSize, int uploadConcurrency) {
+        this.s3 = s3;
+        this.presigner = presigner;
+        this.bucket = bucket;
+        this.partSize = partSize;
+        this.uploadConcurrency = uploadConcurrency;
+        AtomicInteger counter = new AtomicInteger();
+        this.partUploader = Executors.newFixedThreadPool(uploadConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "s3-part-upload-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public void createBucketIfMissing() {
+        try {
+            s3.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
+        } catch (NoSuchBucketException ex) {
+            s3.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+            log.info("Created storage bucket {}", bucket);
+        }
+    }
+    
+    @Override
+    public StoredBlob store(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        MessageDigest digest = Digests.sha256();
+        byte[] first = new byte[partSize];
+        int firstLength = content.readNBytes(first, 0, partSize);
+        digest.update(first, 0, firstLength);
+        
+        // Anything that fits in one part goes up as a single PUT
+        if (firstLength < partSize) {
+            String hex = Digests.hex(digest);
+            s3.putObject(PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .contentType(contentType)
+                            .contentLength((long) firstLength)
+                            .metadata(Map.of(DIGEST_METADATA, hex))
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(first, 0, firstLength), firstLength));
+            return new StoredBlob(key, hex, firstLength);
+        }
+        
+        return storeMultipart(key, content, contentType, digest, first);
+    }
+    
+    private StoredBlob storeMultipart(String key, InputStream content, String contentType,
+                                      MessageDigest digest, byte[] first) throws IOException {
+        // The digest is only known at the end, so it is copied onto the object afterwards
+        String uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+        
+        // At most uploadConcurrency part buffers are in flight, bounding memory per upload
+        Semaphore inFlight = new Semaphore(uploadConcurrency);
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        long total = 0;
+        try {
+            byte[] buffer = first;
+            int length = partSize;
+            int partNumber = 1;
+            while (length > 0) {
+                inFlight.acquire();
+                parts.add(submitPart(key, uploadId, partNumber++, buffer, length, inFlight));
+                total += length;
+                
+                buffer = new byte[partSize];
+                length = content.readNBytes(buffer, 0, partSize);
+                digest.update(buffer, 0, length);
+            }
+            
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (Future<CompletedPart> part : parts) {
+                completed.add(part.get());
+            }
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId, parts);
+            throw new IOException("Interrupted during multipart upload", ex);
+        } catch (ExecutionException ex) {
+            abort(key, uploadId, parts);
+            throw new IOException("Multipart upload failed", ex.getCause());
+        } catch (IOException | RuntimeException ex) {
+            abort(key, uploadId, parts);
+            throw ex;
+        }
+        
+        String hex = Digests.hex(digest);
+        s3.copyObject(CopyObjectRequest.builder()
+                .sourceBucket(bucket)
+                .sourceKey(key)
+                .destinationBucket(bucket)
+                .destinationKey(key)
+                .contentType(contentType)
+                .metadata(Map.of(DIGEST_METADATA, hex))
+                .metadataDirective(MetadataDirective.REPLACE)
+                .build());
+        return new StoredBlob(key, hex, total);
+    }
+    
+    private Future<CompletedPart> submitPart(String key, String uploadId, int partNumber,
+                                             byte[] buffer, int length, Semaphore inFlight) {
+        return partUploader.submit(() -> {
+            try {
+                String etag = s3.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length)).eTag();
+                return CompletedPart.builder().partNumber(partNumber).eTag(etag).build();
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+    
+    private void abort(String key, String uploadId, List<Future<CompletedPart>> parts) {
+        parts.forEach(part -> part.cancel(true));
+        try {
+            s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException ex) {
+            log.warn("Could not abort multipart upload {} for {}", uploadId, key, ex);
+        }
+    }
+    
+    @Override
+    public InputStream open(String key) throws IOException {
+        return get(GetObjectRequest.builder().bucket(bucket).key(key).build());
+    }
+    
+    @Override
+    public InputStream openRange(String key, long start, long endInclusive) throws IOException {
+        return get(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .range("bytes=" + start + "-" + endInclusive)
+                .build());
+    }
+    
+    private InputStream get(GetObjectRequest request) throws IOException {
+        try {
+            return s3.getObject(request);
+        } catch (NoSuchKeyException ex) {
+            throw new FileNotFoundException("File not found: " + request.key());
+        }
+    }
+    
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build()).contentLength();
+        } catch (NoSuchKeyException ex) {
+            throw new FileNotFoundException("File not found: " + key);
+        }
+    }
+    
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException ex) {
+            return false;
+        }
+    }
+    
+    @Override
+    public void delete(String key) {
+        s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+    }
+    
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+    
+    @Override
+    public Optional<URL> presignedDownloadUrl(String key, String fileName, Duration ttl) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucket).key(key);
+        if (fileName != null) {
+            request.responseContentDisposition(ContentDisposition.attachment()
+                    .filename(fileName, StandardCharsets.UTF_8).build().toString());
+        }
+        return Optional.of(presigner.presignGetObject(GetObjectPresignRequest.builder()
+                .signatureDuration(ttl)
+                .getObjectRequest(request.build())
+                .build()).url());
+    }
+    
+    @Override
+    public void close() {
+        partUploader.shutdownNow();
+        presigner.close();
+        s3.close();
+    }
+}
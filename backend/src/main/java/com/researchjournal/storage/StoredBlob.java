@@ -0,0 +1,4 @@
+package com.researchjournal.storage;
+
+public record StoredBlob(String key, String digest, long size) {
+}
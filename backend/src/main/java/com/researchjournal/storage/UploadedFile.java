@@ -0,0 +1,5 @@
+package com.researchjournal.storage;
+
+// A file part that has already been streamed into blob storage
+public record UploadedFile(String originalFilename, String contentType, StoredBlob blob) {
+}
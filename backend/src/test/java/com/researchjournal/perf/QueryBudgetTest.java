@@ -0,0 +1,224 @@
+package com.researchjournal.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchjournal.dto.QueryBudgetDTO;
+import com.researchjournal.dto.ReviewSubmitRequest;
+import com.researchjournal.entity.Paper;
+import com.researchjournal.entity.PaperStatus;
+import com.researchjournal.entity.Review;
+import com.researchjournal.entity.ReviewRecommendation;
+import com.researchjournal.entity.ReviewStatus;
+import com.researchjournal.entity.Role;
+import com.researchjournal.entity.User;
+import com.researchjournal.repository.PaperRepository;
+import com.researchjournal.repository.ReviewRepository;
+import com.researchjournal.repository.UserRepository;
+import com.researchjournal.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Calls every @QueryBudget endpoint against a seeded dataset and fails on any request over its budget,
+// so the numbers on the annotations are the measured cost of these calls plus headroom.
+// Needs a MySQL server, so it only runs when QUERY_BUDGET_DB_URL points at one:
+// docker compose up -d database, then QUERY_BUDGET_DB_URL=jdbc:mysql://localhost:3307/research_journal_query_budget?... mvn test
+@EnabledIfEnvironmentVariable(named = "QUERY_BUDGET_DB_URL", matches = ".+")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("query-budget")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+    
+    private static final int REVIEWERS = 8;
+    private static final int AUTHORS = 20;
+    private static final int PAPERS_PER_STATUS = 20;
+    private static final int REVIEWS_PER_PAPER = 3;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PaperRepository paperRepository;
+    
+    @Autowired
+    private ReviewRepository reviewRepository;
+    
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+    
+    @Autowired
+    private QueryBudgetMonitor queryBudgetMonitor;
+    
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+    
+    private User admin;
+    private User editor;
+    private List<User> reviewers;
+    private List<Paper> published;
+    private List<Paper> submitted;
+    private List<Review> pending;
+    
+    @BeforeAll
+    void seed() {
+        admin = userRepository.save(user("admin", Role.ADMIN));
+        editor = userRepository.save(user("editor", Role.EDITOR));
+        reviewers = new ArrayList<>();
+        for (int i = 0; i < REVIEWERS; i++) {
+            reviewers.add(userRepository.save(user("reviewer" + i, Role.REVIEWER)));
+        }
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(userRepository.save(user("author" + i, Role.AUTHOR)));
+        }
+        
+        published = new ArrayList<>();
+        submitted = new ArrayList<>();
+        pending = new ArrayList<>();
+        for (int i = 0; i < PAPERS_PER_STATUS; i++) {
+            published.add(paperWithReviews(authors.get(i % AUTHORS), PaperStatus.PUBLISHED, i, ReviewStatus.COMPLETED));
+            Paper underReview = paperWithReviews(authors.get((i + 1) % AUTHORS), PaperStatus.UNDER_REVIEW, i, ReviewStatus.PENDING);
+            pending.addAll(underReview.getReviews());
+            submitted.add(paperRepository.save(paper(authors.get((i + 2) % AUTHORS), PaperStatus.SUBMITTED)));
+        }
+    }
+    
+    @Test
+    void endpointsStayWithinTheirBudgets() throws Exception {
+        String adminToken = jwtTokenProvider.generateToken(admin);
+        String editorToken = jwtTokenProvider.generateToken(editor);
+        
+        for (int i = 0; i < 2; i++) {
+            call(get("/api/papers"), adminToken);
+            call(get("/api/papers/{id}", published.get(i).getId()), adminToken);
+            call(get("/api/papers/{id}", pending.get(i).getPaper().getId()), editorToken);
+            call(put("/api/papers/{id}/assign-reviewer/{reviewerId}", submitted.get(i).getId(), reviewers.get(i).getId()), editorToken);
+            call(get("/api/dashboard/stats"), adminToken);
+            call(get("/api/public/papers"), null);
+            call(get("/api/public/published"), null);
+            call(get("/api/public/papers/{id}", published.get(i).getId()), null);
+            
+            Review review = pending.get(i * REVIEWS_PER_PAPER);
+            ReviewSubmitRequest request = ReviewSubmitRequest.builder()
+                    .comments("Sound methodology; the related work section needs another pass.")
+                    .qualityScore(7).originalityScore(6).clarityScore(8).significanceScore(7)
+                    .recommendation(ReviewRecommendation.MINOR_REVISION)
+                    .build();
+            call(put("/api/reviews/{id}/submit", review.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)), jwtTokenProvider.generateToken(review.getReviewer()));
+        }
+        
+        Map<String, QueryBudgetDTO> report = queryBudgetMonitor.getReport().stream()
+                .collect(Collectors.toMap(QueryBudgetDTO::getEndpoint, Function.identity()));
+        report.values().forEach(entry -> System.out.printf("%-55s requests=%d statements=%d/%s entities=%d/%s%n",
+                entry.getEndpoint(), entry.getRequests(), entry.getMaxStatements(), entry.getStatementBudget(),
+                entry.getMaxEntities(), entry.getEntityBudget()));
+        
+        Set<String> budgeted = budgetedEndpoints();
+        assertThat(report.keySet()).as("every @QueryBudget endpoint is exercised").containsAll(budgeted);
+        for (String endpoint : budgeted) {
+            QueryBudgetDTO entry = report.get(endpoint);
+            assertThat(entry.getViolations()).as("%s: %s", endpoint, entry.getLastViolation()).isZero();
+        }
+    }
+    
+    private void call(MockHttpServletRequestBuilder request, String token) throws Exception {
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+    }
+    
+    // "METHOD /pattern" keys as QueryBudgetMonitor records them, for every handler carrying @QueryBudget
+    private Set<String> budgetedEndpoints() {
+        Set<String> endpoints = new TreeSet<>();
+        handlerMapping.getHandlerMethods().forEach((info, handler) -> {
+            if (handler.hasMethodAnnotation(QueryBudget.class)) {
+                info.getMethodsCondition().getMethods().forEach(method ->
+                        info.getPatternValues().forEach(pattern -> endpoints.add(method.name() + " " + pattern)));
+            }
+        });
+        return endpoints;
+    }
+    
+    private Paper paperWithReviews(User author, PaperStatus status, int offset, ReviewStatus reviewStatus) {
+        Paper paper = paper(author, status);
+        for (int r = 0; r < REVIEWS_PER_PAPER; r++) {
+            paper.getAssignedReviewers().add(reviewers.get((offset + r) % REVIEWERS));
+        }
+        paper = paperRepository.save(paper);
+        for (User reviewer : paper.getAssignedReviewers()) {
+            Review review = Review.builder()
+                    .paper(paper)
+                    .reviewer(reviewer)
+                    .status(reviewStatus)
+                    .paperVersion(1)
+                    .build();
+            if (reviewStatus == ReviewStatus.COMPLETED) {
+                review.setComments("Clear contribution.");
+                review.setRecommendation(ReviewRecommendation.ACCEPT);
+                review.setQualityScore(8);
+                review.setCompletedAt(LocalDateTime.now().minusDays(offset + 10L));
+            }
+            paper.getReviews().add(reviewRepository.save(review));
+        }
+        return paper;
+    }
+    
+    private static Paper paper(User author, PaperStatus status) {
+        return Paper.builder()
+                .title("On " + status.name().toLowerCase() + " manuscripts by " + author.getLastName())
+                .abstractText("We study how editorial workflows scale with submission volume.")
+                .keywords("peer review,editorial workflow,scalability")
+                .author(author)
+                .status(status)
+                .version(1)
+                .submittedAt(LocalDateTime.now().minusDays(30))
+                .publishedAt(status == PaperStatus.PUBLISHED ? LocalDateTime.now().minusDays(5) : null)
+                .build();
+    }
+    
+    private static User user(String name, Role role) {
+        return User.builder()
+                .email(name + "@query-budget.test")
+                .password("{noop}unused")
+                .firstName(name)
+                .lastName("Budget")
+                .role(role)
+                .enabled(true)
+                .build();
+    }
+}
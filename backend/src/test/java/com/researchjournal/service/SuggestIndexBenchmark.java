@@ -0,0 +1,174 @@
+package com.researchjournal.service;
+
+import com.researchjournal.dto.SuggestionDTO;
+import com.researchjournal.repository.PaperRepository;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Builds a suggest index of about a million entries from synthetic papers, then reports build time,
+// heap retained by the index and single-thread suggest() latency percentiles.
+// mvn test -Dtest=SuggestIndexBenchmark -Dbenchmark=true [-Dbenchmark.papers=140000 -Dbenchmark.queries=1000000]
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SuggestIndexBenchmark {
+    
+    private static final int MIN_ENTRIES = 1_000_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int KEYWORDS = 5_000;
+    private static final int AUTHORS = 50_000;
+    private static final int LIMIT = 10;
+    
+    record Result(int entries, long estimatedBytes, long retainedBytes, long buildMillis, Histogram latency) {
+    }
+    
+    @Test
+    void suggestOverOneMillionEntries() {
+        Result result = run(Integer.getInteger("benchmark.papers", 140_000), Integer.getInteger("benchmark.queries", 1_000_000));
+        report(result);
+        assertThat(result.entries()).isGreaterThanOrEqualTo(MIN_ENTRIES);
+    }
+    
+    public static void main(String[] args) {
+        int papers = args.length > 0 ? Integer.parseInt(args[0]) : 140_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        report(run(papers, queries));
+    }
+    
+    static Result run(int paperCount, int queryCount) {
+        Random random = new Random(42);
+        String[] words = words(random, VOCABULARY);
+        String[] keywords = words(random, KEYWORDS);
+        String[] firstNames = words(random, 2_000);
+        String[] lastNames = words(random, AUTHORS);
+        
+        long baseline = usedHeapAfterGc();
+        List<Object[]> rows = rows(random, paperCount, words, keywords, firstNames, lastNames);
+        long started = System.nanoTime();
+        SuggestIndex index = load(rows);
+        rows = null;
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        // The rows and the stub repository are unreachable here, so what is left is the index itself
+        long retained = usedHeapAfterGc() - baseline;
+        
+        String[] prefixes = prefixes(random, words, keywords, lastNames);
+        for (int i = 0; i < 200_000; i++) {
+            index.suggest(prefixes[i % prefixes.length], LIMIT);
+        }
+        Histogram latency = new Histogram(TimeUnit.SECONDS.toNanos(1), 3);
+        long hits = 0;
+        for (int i = 0; i < queryCount; i++) {
+            String prefix = prefixes[random.nextInt(prefixes.length)];
+            long start = System.nanoTime();
+            List<SuggestionDTO> suggestions = index.suggest(prefix, LIMIT);
+            latency.recordValue(Math.min(System.nanoTime() - start, latency.getHighestTrackableValue()));
+            hits += suggestions.size();
+        }
+        if (hits == 0) {
+            throw new IllegalStateException("No query matched; the synthetic data is broken");
+        }
+        
+        Result result = new Result(index.size(), index.estimatedBytes(), retained, buildMillis, latency);
+        index.shutdown();
+        Reference.reachabilityFence(index);
+        return result;
+    }
+    
+    private static SuggestIndex load(List<Object[]> rows) {
+        // The index keeps its repository, so the rows are handed out once and then dropped
+        AtomicReference<List<Object[]>> source = new AtomicReference<>(rows);
+        PaperRepository repository = (PaperRepository) Proxy.newProxyInstance(
+                PaperRepository.class.getClassLoader(), new Class<?>[]{PaperRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findSuggestRows")) {
+                        return source.getAndSet(List.of());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        SuggestIndex index = new SuggestIndex(repository, 256);
+        index.load();
+        return index;
+    }
+    
+    private static List<Object[]> rows(Random random, int count, String[] words, String[] keywords,
+                                       String[] firstNames, String[] lastNames) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 5 + random.nextInt(5); w > 0; w--) {
+                title.append(title.isEmpty() ? "" : " ").append(words[skewed(random, words.length)]);
+            }
+            String paperKeywords = keywords[skewed(random, keywords.length)] + "," + keywords[random.nextInt(keywords.length)]
+                    + "," + keywords[random.nextInt(keywords.length)];
+            rows.add(new Object[]{(long) id, title.toString(), paperKeywords,
+                    firstNames[random.nextInt(firstNames.length)], lastNames[random.nextInt(lastNames.length)]});
+        }
+        return rows;
+    }
+    
+    // What a user has typed so far: 1 to 6 leading characters of a title word, keyword or surname
+    private static String[] prefixes(Random random, String[] words, String[] keywords, String[] lastNames) {
+        String[] prefixes = new String[50_000];
+        for (int i = 0; i < prefixes.length; i++) {
+            String[] source = switch (i % 3) {
+                case 0 -> words;
+                case 1 -> keywords;
+                default -> lastNames;
+            };
+            String word = source[skewed(random, source.length)];
+            prefixes[i] = word.substring(0, Math.min(word.length(), 1 + random.nextInt(6)));
+        }
+        return prefixes;
+    }
+    
+    private static String[] words(Random random, int count) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            char[] letters = new char[4 + random.nextInt(7)];
+            for (int c = 0; c < letters.length; c++) {
+                letters[c] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new String(letters);
+        }
+        return words;
+    }
+    
+    // Roughly Zipf-like: low indexes are picked far more often, as common words are
+    private static int skewed(Random random, int bound) {
+        return (int) Math.min(bound - 1, Math.floor(Math.pow(bound, random.nextDouble())) - 1);
+    }
+    
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+    
+    private static void report(Result result) {
+        Histogram latency = result.latency();
+        System.out.printf("entries=%d build=%d ms retained=%.1f MB (%.0f B/entry) estimated=%.1f MB%n",
+                result.entries(), result.buildMillis(), result.retainedBytes() / 1048576.0,
+                (double) result.retainedBytes() / result.entries(), result.estimatedBytes() / 1048576.0);
+        System.out.printf("suggest(limit=%d) over %d queries, us: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                LIMIT, latency.getTotalCount(),
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+                latency.getMaxValue() / 1000.0);
+    }
+}